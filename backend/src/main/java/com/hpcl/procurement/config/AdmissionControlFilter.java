@@ -0,0 +1,260 @@
+package com.hpcl.procurement.config;
+
+import com.hpcl.procurement.util.AimdLimit;
+import com.hpcl.procurement.util.ClientRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for /api: token buckets per remote address and per client within it, then a slot under an
+ * adaptive (AIMD) concurrency limit.
+ * Writes may use the whole limit, reads {@code read-share} of it and low-priority paths (dashboard, audit search and
+ * export) {@code low-share}, so as the limit shrinks under load the dashboard is shed first and PR creation and
+ * approvals last. A client over its rate gets 429 and a Retry-After for its next token; a request over the limit gets
+ * 503 with Retry-After: 1. Both are answered here, before a request thread touches the database.
+ *
+ * Rate limits are keyed on the remote address, since the client header is unauthenticated and chosen by the caller.
+ * The header only picks one of {@code client-slots} sub-buckets within the address's bucket: clients behind one NAT
+ * or gateway get separate per-client limits, while a caller rotating the header stays under the address limit and
+ * cannot grow the bucket map beyond a fixed number of entries per address.
+ *
+ * The limit moves with the latency of synchronous responses. Async responses (streamed lists, exports) hold a slot
+ * until they complete but are not sampled, since their duration measures payload size rather than contention.
+ * All limiter state is atomics and a ConcurrentHashMap; no request takes a lock.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum Priority { WRITE, READ, LOW }
+
+    @Value("${procurement.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${procurement.admission.client-header:X-Client-Id}")
+    private String clientHeader;
+
+    @Value("${procurement.admission.address-rate-per-second:400}")
+    private double addressRatePerSecond;
+
+    @Value("${procurement.admission.address-burst:800}")
+    private int addressBurst;
+
+    @Value("${procurement.admission.client-slots:16}")
+    private int clientSlots;
+
+    @Value("${procurement.admission.client-rate-per-second:100}")
+    private double clientRatePerSecond;
+
+    @Value("${procurement.admission.client-burst:200}")
+    private int clientBurst;
+
+    @Value("${procurement.admission.initial-limit:200}")
+    private int initialLimit;
+
+    @Value("${procurement.admission.min-limit:20}")
+    private int minLimit;
+
+    @Value("${procurement.admission.max-limit:2000}")
+    private int maxLimit;
+
+    @Value("${procurement.admission.latency-threshold-ms:500}")
+    private long latencyThresholdMs;
+
+    @Value("${procurement.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${procurement.admission.read-share:0.8}")
+    private double readShare;
+
+    @Value("${procurement.admission.low-share:0.5}")
+    private double lowShare;
+
+    @Value("${procurement.admission.low-priority-paths:/api/dashboard,/api/audit}")
+    private List<String> lowPriorityPaths;
+
+    @Value("${procurement.admission.exempt-paths:/api/health,/api/admission}")
+    private List<String> exemptPaths;
+
+    private ClientRateLimiter addresses;
+    private ClientRateLimiter clients;
+    private AimdLimit limit;
+    private final Map<Priority, LongAdder> admitted = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> rateLimited = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> shed = new EnumMap<>(Priority.class);
+
+    @PostConstruct
+    public void init() {
+        addresses = new ClientRateLimiter(addressRatePerSecond, addressBurst);
+        clients = new ClientRateLimiter(clientRatePerSecond, clientBurst);
+        limit = new AimdLimit(initialLimit, minLimit, maxLimit, TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs),
+            backoffRatio);
+        for (Priority priority : Priority.values()) {
+            admitted.put(priority, new LongAdder());
+            rateLimited.put(priority, new LongAdder());
+            shed.put(priority, new LongAdder());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith("/api/") || "OPTIONS".equals(request.getMethod())
+            || exemptPaths.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(request);
+        long start = System.nanoTime();
+
+        long waitNanos = rateLimitWait(request, start);
+        if (waitNanos > 0) {
+            rateLimited.get(priority).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1),
+                "Request rate limit exceeded for this client");
+            return;
+        }
+        double share = priority == Priority.WRITE ? 1.0 : priority == Priority.READ ? readShare : lowShare;
+        if (!limit.tryAcquire(share)) {
+            shed.get(priority).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is at capacity; retry shortly");
+            return;
+        }
+        admitted.get(priority).increment();
+
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                // Hikari connection timeouts surface as unhandled exceptions, so those count as overload too
+                int status = response.getStatus();
+                boolean dropped = failed || status == 503 || status == 504;
+                limit.release(System.nanoTime() - start, dropped, priority != Priority.LOW);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        addresses.evictIdle(now);
+        clients.evictIdle(now);
+    }
+
+    /**
+     * Current limit and in-flight count, tracked addresses and clients, and admitted / rate-limited / shed counts per priority
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("limit", Math.round(limit.getLimit() * 10) / 10.0);
+        stats.put("inFlight", limit.getInFlight());
+        stats.put("addresses", addresses.size());
+        stats.put("clients", clients.size());
+        for (Priority priority : Priority.values()) {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("admitted", admitted.get(priority).sum());
+            counts.put("rateLimited", rateLimited.get(priority).sum());
+            counts.put("shed", shed.get(priority).sum());
+            stats.put(priority.name().toLowerCase(), counts);
+        }
+        return stats;
+    }
+
+    private Priority classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (lowPriorityPaths.stream().anyMatch(path::startsWith)) {
+            return Priority.LOW;
+        }
+        return switch (request.getMethod()) {
+            case "POST", "PUT", "PATCH", "DELETE" -> Priority.WRITE;
+            default -> Priority.READ;
+        };
+    }
+
+    /**
+     * Charge the remote address's bucket, then the client's sub-bucket within it; 0 when both admit the request
+     */
+    private long rateLimitWait(HttpServletRequest request, long nowNanos) {
+        String address = request.getRemoteAddr();
+        long waitNanos = addresses.tryAcquire(address, nowNanos);
+        if (waitNanos > 0) {
+            return waitNanos;
+        }
+        String client = request.getHeader(clientHeader);
+        String key = client == null || client.isBlank() ? address
+            : address + "#" + Math.floorMod(client.hashCode(), clientSlots);
+        return clients.tryAcquire(key, nowNanos);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+
+    /**
+     * Frees an async request's slot once, on whichever of complete, timeout or error fires first
+     */
+    private class ReleaseOnComplete implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release(0, false, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.hpcl.procurement.config;
+
+import com.hpcl.procurement.service.IdempotencyStore;
+import com.hpcl.procurement.service.IdempotencyStore.Outcome;
+import com.hpcl.procurement.service.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Idempotency-Key handling for POST /api requests (PR creation, approvals and decisions, exceptions, ...).
+ * The key is scoped to the remote address plus the admission client header, which is caller-chosen and only
+ * separates clients behind one address, so sending another client's header and key never replays its response.
+ * The request is fingerprinted by method, URI and body. The first request runs and its response is stored; a retry replays it
+ * with Idempotent-Replayed: true, a duplicate still in flight waits for it (409 with Retry-After after wait-ms),
+ * and reusing a key for a different request is 422. 5xx responses, exceptions, container error pages and
+ * responses over max-response-bytes are not stored, so the next retry runs again. The body is buffered to
+ * fingerprint it, so a keyed request with a body over max-request-bytes is refused with 413 before it is read in full.
+ *
+ * Runs after admission control, so shed requests never claim a key.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Value("${procurement.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${procurement.idempotency.header:Idempotency-Key}")
+    private String keyHeader;
+
+    @Value("${procurement.admission.client-header:X-Client-Id}")
+    private String clientHeader;
+
+    @Value("${procurement.idempotency.max-key-length:255}")
+    private int maxKeyLength;
+
+    @Value("${procurement.idempotency.wait-ms:5000}")
+    private long waitMs;
+
+    @Value("${procurement.idempotency.max-response-bytes:65536}")
+    private int maxResponseBytes;
+
+    @Value("${procurement.idempotency.max-request-bytes:1048576}")
+    private int maxRequestBytes;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+    private final LongAdder inProgress = new LongAdder();
+    private final LongAdder notStored = new LongAdder();
+    private final LongAdder tooLarge = new LongAdder();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/")
+            || request.getHeader(keyHeader) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(keyHeader).trim();
+        if (key.isEmpty() || key.length() > maxKeyLength) {
+            reject(response, HttpStatus.BAD_REQUEST, keyHeader + " must be 1 to " + maxKeyLength + " characters");
+            return;
+        }
+        byte[] body = request.getContentLengthLong() > maxRequestBytes ? null
+            : request.getInputStream().readNBytes(maxRequestBytes + 1);
+        if (body == null || body.length > maxRequestBytes) {
+            tooLarge.increment();
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                "Requests with " + keyHeader + " are limited to " + maxRequestBytes + " bytes");
+            return;
+        }
+        String client = request.getHeader(clientHeader);
+        String scopedKey = sha256(request.getRemoteAddr(), client == null ? "" : client.trim(), key);
+        String query = request.getQueryString();
+        String fingerprint = sha256(request.getMethod(), request.getRequestURI() + (query == null ? "" : "?" + query),
+            new String(body, StandardCharsets.UTF_8));
+
+        Outcome outcome = store.begin(scopedKey, fingerprint, waitMs);
+        switch (outcome.getDecision()) {
+            case REPLAY -> {
+                replayed.increment();
+                StoredResponse stored = outcome.getResponse();
+                response.setStatus(stored.getStatus());
+                response.setHeader(REPLAYED_HEADER, "true");
+                if (stored.getContentType() != null) {
+                    response.setContentType(stored.getContentType());
+                }
+                response.setContentLength(stored.getBody().length);
+                response.getOutputStream().write(stored.getBody());
+            }
+            case MISMATCH -> {
+                mismatched.increment();
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, keyHeader + " was already used for a different request");
+            }
+            case IN_PROGRESS -> {
+                inProgress.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                reject(response, HttpStatus.CONFLICT, "A request with this " + keyHeader + " is still being processed");
+            }
+            case EXECUTE -> {
+                executed.increment();
+                execute(new CachedBodyRequest(request, body), response, chain, scopedKey, outcome.getOwner());
+            }
+        }
+    }
+
+    /**
+     * Executed, replayed, mismatched, in-flight-conflict and too-large counts, plus the store's key count
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("executed", executed.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("mismatched", mismatched.sum());
+        stats.put("inProgress", inProgress.sum());
+        stats.put("notStored", notStored.sum());
+        stats.put("tooLarge", tooLarge.sum());
+        stats.putAll(store.getStats());
+        return stats;
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain, String scopedKey,
+                         String owner) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, captured);
+            int status = captured.getStatus();
+            // An error with no captured body went through sendError; its body is rendered later by /error, outside
+            // this filter, so there is nothing faithful to replay
+            boolean errorPage = status >= 400 && captured.getContentSize() == 0;
+            if (!request.isAsyncStarted() && status < 500 && !errorPage && captured.getContentSize() <= maxResponseBytes) {
+                store.complete(scopedKey, owner, new StoredResponse(status, captured.getContentType(),
+                    captured.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                notStored.increment();
+                store.abandon(scopedKey, owner);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+
+    private static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The request with its body already read (for the fingerprint), served again to the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory, so everything is available at once: signal it and the end of data
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hpcl.procurement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (matrix refresh, SLA and escalation jobs)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,42 @@
+package com.hpcl.procurement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async on Spring Boot's applicationTaskExecutor. With the virtual-threads profile on a Java 21 runtime
+ * (spring.threads.virtual.enabled), Boot runs that executor, the @Scheduled scheduler, MVC async requests and
+ * Tomcat's request executor on virtual threads; on Java 17 the property has no effect and this logs a warning.
+ * The integration bulkheads, outbox lanes and tender fan-out keep their bounded pools in either mode.
+ */
+@Configuration
+@EnableAsync
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualRequested;
+
+    /**
+     * True when requests are actually served on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtualRequested && Runtime.version().feature() >= 21;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        if (virtualRequested && !isVirtual()) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; requests run on platform threads",
+                Runtime.version().feature());
+        } else {
+            log.info("Requests run on {} threads", isVirtual() ? "virtual" : "platform");
+        }
+    }
+}
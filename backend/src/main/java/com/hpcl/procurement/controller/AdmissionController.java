@@ -0,0 +1,25 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.config.AdmissionControlFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admission")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdmissionController {
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    /**
+     * Adaptive concurrency limit, in-flight requests and admitted / rate-limited / shed counts per priority
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(admissionControlFilter.getStats());
+    }
+}
@@ -1,10 +1,20 @@
 package com.hpcl.procurement.controller;
 
+import com.hpcl.procurement.dto.BulkApprovalRequest;
+import com.hpcl.procurement.dto.BulkApprovalResponse;
 import com.hpcl.procurement.model.Approval;
 import com.hpcl.procurement.service.ApprovalService;
+import com.hpcl.procurement.service.ApprovalSlaService;
+import com.hpcl.procurement.service.JsonArrayStreamer;
+import com.hpcl.procurement.service.ResourceVersions;
+import com.hpcl.procurement.service.SparseFieldsets;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -17,19 +27,44 @@ public class ApprovalController {
     @Autowired
     private ApprovalService approvalService;
 
+    @Autowired
+    private ApprovalSlaService approvalSlaService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private JsonArrayStreamer streamer;
+
+    @Autowired
+    private SparseFieldsets sparseFieldsets;
+
+    /**
+     * Every approval; {@code ?fields=id,prId,status} selects just those columns
+     */
     @GetMapping
-    public ResponseEntity<List<Approval>> getAllApprovals() {
-        return ResponseEntity.ok(approvalService.getAllApprovals());
+    public ResponseEntity<StreamingResponseBody> getAllApprovals(@RequestParam(required = false) String fields,
+                                                                 WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.APPROVAL), fields == null
+            ? streamer.stream(approvalService::streamAllApprovals)
+            : sparseFieldsets.select(Approval.class, fields, Map.of()));
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<Approval>> getPendingApprovals() {
-        return ResponseEntity.ok(approvalService.getPendingApprovals());
+    public ResponseEntity<StreamingResponseBody> getPendingApprovals(@RequestParam(required = false) String fields,
+                                                                     WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.APPROVAL), fields == null
+            ? streamer.stream(approvalService::streamPendingApprovals)
+            : sparseFieldsets.select(Approval.class, fields, Map.of("status", "PENDING")));
     }
 
     @GetMapping("/inbox/{approverId}")
-    public ResponseEntity<List<Approval>> getApprovalInbox(@PathVariable String approverId) {
-        return ResponseEntity.ok(approvalService.getApprovalInbox(approverId));
+    public ResponseEntity<StreamingResponseBody> getApprovalInbox(@PathVariable String approverId,
+                                                                  @RequestParam(required = false) String fields,
+                                                                  WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.APPROVAL), fields == null
+            ? streamer.stream(() -> approvalService.streamApprovalInbox(approverId))
+            : sparseFieldsets.select(Approval.class, fields, Map.of("approverId", approverId, "status", "PENDING")));
     }
 
     @GetMapping("/pr/{prId}")
@@ -37,6 +72,11 @@ public class ApprovalController {
         return ResponseEntity.ok(approvalService.getApprovalsByPrId(prId));
     }
 
+    @GetMapping("/sla/stats")
+    public ResponseEntity<Map<String, Object>> getSlaStats() {
+        return ResponseEntity.ok(approvalSlaService.getStats());
+    }
+
     @PostMapping
     public ResponseEntity<Approval> createApproval(@RequestBody Approval approval) {
         Approval created = approvalService.createApproval(approval);
@@ -62,4 +102,23 @@ public class ApprovalController {
         Approval rejected = approvalService.reject(id, comments, approverId);
         return ResponseEntity.ok(rejected);
     }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkApprovalResponse> bulkDecide(@Valid @RequestBody BulkApprovalRequest request) {
+        String approverId = request.getApproverId() != null ? request.getApproverId() : "system";
+        String comments = request.getComments() != null ? request.getComments() : "";
+        BulkApprovalResponse response = approvalService.bulkDecide(
+                request.getApprovalIds(), request.getDecision(), comments, approverId);
+        return ResponseEntity.ok(response);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
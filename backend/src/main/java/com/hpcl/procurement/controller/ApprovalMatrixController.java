@@ -0,0 +1,45 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.model.ApprovalMatrixEntry;
+import com.hpcl.procurement.service.ApprovalMatrixService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/approval-matrix")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ApprovalMatrixController {
+
+    @Autowired
+    private ApprovalMatrixService matrixService;
+
+    @GetMapping
+    public ResponseEntity<List<ApprovalMatrixEntry>> getAllEntries() {
+        return ResponseEntity.ok(matrixService.getAllEntries());
+    }
+
+    @GetMapping("/chain")
+    public ResponseEntity<List<ApprovalMatrixEntry>> getChain(@RequestParam BigDecimal value) {
+        return ResponseEntity.ok(matrixService.chainFor(value));
+    }
+
+    @PostMapping
+    public ResponseEntity<ApprovalMatrixEntry> createEntry(@RequestBody ApprovalMatrixEntry entry) {
+        return ResponseEntity.ok(matrixService.createEntry(entry));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApprovalMatrixEntry> updateEntry(@PathVariable Long id, @RequestBody ApprovalMatrixEntry entry) {
+        return ResponseEntity.ok(matrixService.updateEntry(id, entry));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Void> refresh() {
+        matrixService.refresh();
+        return ResponseEntity.noContent().build();
+    }
+}
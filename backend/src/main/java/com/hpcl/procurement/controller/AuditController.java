@@ -0,0 +1,111 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.dto.AuditLogFilter;
+import com.hpcl.procurement.dto.AuditLogPage;
+import com.hpcl.procurement.model.AuditLog;
+import com.hpcl.procurement.service.AuditArchiveService;
+import com.hpcl.procurement.service.AuditService;
+import com.hpcl.procurement.service.EntityAuditListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AuditController {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditArchiveService archiveService;
+
+    @Autowired
+    private EntityAuditListener entityAuditListener;
+
+    @Value("${procurement.audit.export.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Keyset-paginated audit entries in (performedAt, id) order; follow nextCursor for the next page
+     */
+    @GetMapping
+    public ResponseEntity<AuditLogPage> getAuditLogs(AuditLogFilter filter,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditService.getPage(filter, cursor, Math.min(Math.max(limit, 1), maxPageSize)));
+    }
+
+    /**
+     * Stream all matching entries as CSV or NDJSON without materializing them
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(AuditLogFilter filter,
+                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> auditService.export(filter, format, out);
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit." + (csv ? "csv" : "ndjson") + "\"")
+            .body(body);
+    }
+
+    @GetMapping("/trail/{entityType}/{entityId}")
+    public ResponseEntity<List<AuditLog>> getAuditTrail(@PathVariable String entityType, @PathVariable String entityId) {
+        return ResponseEntity.ok(auditService.getAuditTrail(entityType, entityId));
+    }
+
+    @GetMapping("/writer/stats")
+    public ResponseEntity<Map<String, Object>> getWriterStats() {
+        return ResponseEntity.ok(auditService.getWriterStats());
+    }
+
+    @GetMapping("/capture/stats")
+    public ResponseEntity<Map<String, Object>> getCaptureStats() {
+        return ResponseEntity.ok(entityAuditListener.getStats());
+    }
+
+    @GetMapping("/journal/stats")
+    public ResponseEntity<Map<String, Object>> getJournalStats() {
+        return ResponseEntity.ok(auditService.getJournalStats());
+    }
+
+    @GetMapping("/journal/verify")
+    public ResponseEntity<Map<String, Object>> verifyJournal() {
+        return ResponseEntity.ok(auditService.verifyJournal());
+    }
+
+    @GetMapping("/retention/stats")
+    public ResponseEntity<Map<String, Object>> getRetentionStats() {
+        return ResponseEntity.ok(archiveService.getStats());
+    }
+
+    /**
+     * Archive and delete expired rows now instead of waiting for the schedule
+     */
+    @PostMapping("/retention/run")
+    public ResponseEntity<Map<String, Object>> runRetention() throws IOException {
+        return ResponseEntity.ok(archiveService.archiveExpired());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
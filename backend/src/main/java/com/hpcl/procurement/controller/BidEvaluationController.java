@@ -0,0 +1,63 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.integration.IntegrationUnavailableException;
+import com.hpcl.procurement.service.BidEvaluationService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/bid-evaluations")
+@CrossOrigin(origins = "http://localhost:3000")
+public class BidEvaluationController {
+
+    @Autowired
+    private BidEvaluationService bidEvaluationService;
+
+    /**
+     * Pull the bid's quotes from GeM and rank them
+     */
+    @PostMapping("/{prId}")
+    public ResponseEntity<Map<String, Object>> evaluate(@PathVariable String prId, @RequestParam String bidId) {
+        return bidEvaluationService.evaluateFromGem(prId, bidId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Rank quotes uploaded as NDJSON (application/x-ndjson), e.g. a GeM bid-response export
+     */
+    @PostMapping(value = "/{prId}/quotes", consumes = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<Map<String, Object>> evaluateUpload(@PathVariable String prId,
+                                                              @RequestParam(required = false) String bidId,
+                                                              HttpServletRequest request) throws IOException {
+        return bidEvaluationService.evaluateUpload(prId, bidId, request.getInputStream())
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Latest evaluation for the PR
+     */
+    @GetMapping("/{prId}")
+    public ResponseEntity<Map<String, Object>> getLatest(@PathVariable String prId) {
+        return bidEvaluationService.getLatest(prId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IntegrationUnavailableException.class)
+    public ResponseEntity<String> handleUnavailable(IntegrationUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,28 @@
+package com.hpcl.procurement.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Conditional GET for polled collections, keyed by a ResourceVersions ETag
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * 304 when If-None-Match carries the current ETag, so the streamed query never runs; otherwise the JSON body with
+     * the ETag and Cache-Control: no-cache, so clients revalidate on every poll. A null return is Spring's signal
+     * that checkNotModified has already written the 304.
+     */
+    static ResponseEntity<StreamingResponseBody> ifNoneMatch(WebRequest request, String etag, StreamingResponseBody body) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -1,10 +1,20 @@
 package com.hpcl.procurement.controller;
 
+import com.hpcl.procurement.dto.ExceptionQueueItem;
 import com.hpcl.procurement.model.ExceptionRecord;
+import com.hpcl.procurement.service.ExceptionEscalationJob;
 import com.hpcl.procurement.service.ExceptionService;
+import com.hpcl.procurement.service.ExceptionWorkQueue;
+import com.hpcl.procurement.service.JsonArrayStreamer;
+import com.hpcl.procurement.service.ResourceVersions;
+import com.hpcl.procurement.service.SparseFieldsets;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -17,14 +27,80 @@ public class ExceptionController {
     @Autowired
     private ExceptionService exceptionService;
 
+    @Autowired
+    private ExceptionWorkQueue workQueue;
+
+    @Autowired
+    private ExceptionEscalationJob escalationJob;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private JsonArrayStreamer streamer;
+
+    @Autowired
+    private SparseFieldsets sparseFieldsets;
+
+    @Value("${procurement.exceptions.queue-lease-seconds:900}")
+    private long defaultLeaseSeconds;
+
+    /**
+     * Every exception; {@code ?fields=exceptionId,status,severity} selects just those columns
+     */
     @GetMapping
-    public ResponseEntity<List<ExceptionRecord>> getAllExceptions() {
-        return ResponseEntity.ok(exceptionService.getAllExceptions());
+    public ResponseEntity<StreamingResponseBody> getAllExceptions(@RequestParam(required = false) String fields,
+                                                                  WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.EXCEPTION), fields == null
+            ? streamer.stream(exceptionService::streamAllExceptions)
+            : sparseFieldsets.select(ExceptionRecord.class, fields, Map.of()));
     }
 
     @GetMapping("/open")
-    public ResponseEntity<List<ExceptionRecord>> getOpenExceptions() {
-        return ResponseEntity.ok(exceptionService.getOpenExceptions());
+    public ResponseEntity<StreamingResponseBody> getOpenExceptions(@RequestParam(required = false) String fields,
+                                                                   WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.EXCEPTION), fields == null
+            ? streamer.stream(exceptionService::streamOpenExceptions)
+            : sparseFieldsets.select(ExceptionRecord.class, fields, Map.of("status", "OPEN")));
+    }
+
+    /**
+     * Most urgent unresolved exceptions: severity, then age, then PR value
+     */
+    @GetMapping("/queue")
+    public ResponseEntity<List<ExceptionQueueItem>> getQueue(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(workQueue.top(Math.min(Math.max(limit, 1), 500)));
+    }
+
+    @PostMapping("/queue/claim")
+    public ResponseEntity<List<ExceptionQueueItem>> claim(@RequestBody Map<String, String> payload) {
+        String reviewer = payload.get("reviewer");
+        if (reviewer == null || reviewer.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int limit = Integer.parseInt(payload.getOrDefault("limit", "20"));
+        String lease = payload.get("leaseSeconds");
+        long leaseSeconds = lease == null ? defaultLeaseSeconds : Long.parseLong(lease);
+        return ResponseEntity.ok(workQueue.claim(reviewer, Math.min(Math.max(limit, 1), 500), leaseSeconds * 1000));
+    }
+
+    @PostMapping("/{exceptionId}/release")
+    public ResponseEntity<Void> release(@PathVariable String exceptionId, @RequestBody Map<String, String> payload) {
+        boolean released = workQueue.release(exceptionId, payload.getOrDefault("reviewer", ""));
+        return released ? ResponseEntity.noContent().build() : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/escalation/stats")
+    public ResponseEntity<Map<String, Object>> getEscalationStats() {
+        return ResponseEntity.ok(escalationJob.getStats());
+    }
+
+    /**
+     * Run the auto-escalation pass now instead of waiting for the schedule
+     */
+    @PostMapping("/escalation/run")
+    public ResponseEntity<Map<String, Object>> runEscalation() {
+        return ResponseEntity.ok(escalationJob.run());
     }
 
     @GetMapping("/pr/{prId}")
@@ -33,8 +109,12 @@ public class ExceptionController {
     }
 
     @GetMapping("/severity/{severity}")
-    public ResponseEntity<List<ExceptionRecord>> getExceptionsBySeverity(@PathVariable String severity) {
-        return ResponseEntity.ok(exceptionService.getExceptionsBySeverity(severity));
+    public ResponseEntity<StreamingResponseBody> getExceptionsBySeverity(@PathVariable String severity,
+                                                                         @RequestParam(required = false) String fields,
+                                                                         WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.EXCEPTION), fields == null
+            ? streamer.stream(() -> exceptionService.streamExceptionsBySeverity(severity))
+            : sparseFieldsets.select(ExceptionRecord.class, fields, Map.of("severity", severity)));
     }
 
     @PostMapping
@@ -58,4 +138,9 @@ public class ExceptionController {
         ExceptionRecord escalated = exceptionService.escalateException(exceptionId);
         return ResponseEntity.ok(escalated);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
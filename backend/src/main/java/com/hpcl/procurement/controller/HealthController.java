@@ -1,5 +1,7 @@
 package com.hpcl.procurement.controller;
 
+import com.hpcl.procurement.config.ThreadingConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,6 +15,9 @@ import java.util.Map;
 @RequestMapping("/api")
 public class HealthController {
 
+    @Autowired
+    private ThreadingConfig threadingConfig;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> response = new HashMap<>();
@@ -20,6 +25,7 @@ public class HealthController {
         response.put("application", "HPCL Procurement Automation System");
         response.put("version", "1.0.0");
         response.put("timestamp", LocalDateTime.now());
+        response.put("threads", threadingConfig.isVirtual() ? "virtual" : "platform");
         response.put("message", "Backend is running successfully!");
         return ResponseEntity.ok(response);
     }
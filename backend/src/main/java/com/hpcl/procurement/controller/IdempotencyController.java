@@ -0,0 +1,25 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.config.IdempotencyFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/idempotency")
+@CrossOrigin(origins = "http://localhost:3000")
+public class IdempotencyController {
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    /**
+     * Requests executed, replayed, rejected as key reuse or still in flight, and keys held by the store
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(idempotencyFilter.getStats());
+    }
+}
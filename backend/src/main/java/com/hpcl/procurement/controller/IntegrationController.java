@@ -0,0 +1,77 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.integration.AdapterSimulator;
+import com.hpcl.procurement.service.IntegrationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/integrations")
+@CrossOrigin(origins = "http://localhost:3000")
+public class IntegrationController {
+
+    @Autowired
+    private IntegrationService integrationService;
+
+    @Autowired
+    private Optional<AdapterSimulator> simulator;
+
+    /**
+     * Per-adapter circuit state, latency percentiles, timeouts, bulkhead rejections and fallbacks
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(integrationService.getStats());
+    }
+
+    /**
+     * Injected latency and outcome counts per simulated operation; 404 unless the simulator profile is active
+     */
+    @GetMapping("/simulator/stats")
+    public ResponseEntity<Map<String, Object>> getSimulatorStats() {
+        return simulator.map(s -> ResponseEntity.ok(s.getStats())).orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(integrationService.getCacheStats());
+    }
+
+    /**
+     * Reload supplier registrations and guidelines for every vendor and category on file
+     */
+    @PostMapping("/cache/warm")
+    public ResponseEntity<Map<String, Object>> warmCaches() {
+        return ResponseEntity.ok(integrationService.warmCaches());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> invalidateCaches() {
+        integrationService.invalidateCaches();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/sap/po/{poNumber}")
+    public ResponseEntity<Map<String, Object>> getPOStatus(@PathVariable String poNumber) {
+        return ResponseEntity.ok(integrationService.getPOStatus(poNumber));
+    }
+
+    @GetMapping("/gem/suppliers/{supplierName}")
+    public ResponseEntity<Map<String, Object>> checkSupplierRegistration(@PathVariable String supplierName) {
+        return ResponseEntity.ok(integrationService.checkSupplierRegistration(supplierName));
+    }
+
+    @GetMapping("/cppp/guidelines/{category}")
+    public ResponseEntity<Map<String, Object>> getGuidelinesForCategory(@PathVariable String category) {
+        return ResponseEntity.ok(integrationService.getGuidelinesForCategory(category));
+    }
+
+    @GetMapping("/cppp/compliance/{contractId}")
+    public ResponseEntity<Map<String, Object>> checkCompliance(@PathVariable String contractId) {
+        return ResponseEntity.ok(integrationService.checkCompliance(contractId));
+    }
+}
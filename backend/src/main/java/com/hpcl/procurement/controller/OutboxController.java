@@ -0,0 +1,47 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.integration.StandInOutboxHandler;
+import com.hpcl.procurement.model.OutboxEvent;
+import com.hpcl.procurement.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/outbox")
+@CrossOrigin(origins = "http://localhost:3000")
+public class OutboxController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private Optional<StandInOutboxHandler> standIn;
+
+    /**
+     * Event counts by status, dispatch throughput, lag of the oldest undelivered event and lane usage
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> stats = outboxService.getStats();
+        standIn.ifPresent(handler -> stats.put("standIn", handler.getStats()));
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/dead")
+    public ResponseEntity<List<OutboxEvent>> getDeadLetters(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(outboxService.getDeadLetters(Math.min(Math.max(limit, 1), 1000)));
+    }
+
+    /**
+     * Requeue a dead-lettered event with a fresh retry budget
+     */
+    @PostMapping("/{id}/retry")
+    public ResponseEntity<Void> retry(@PathVariable Long id) {
+        return outboxService.retryDead(id) ? ResponseEntity.accepted().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.service.PoReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/po-reconciliation")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PoReconciliationController {
+
+    @Autowired
+    private PoReconciliationService reconciliationService;
+
+    /**
+     * Totals plus the last run's open PO count, changed rows and time per 10k POs
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(reconciliationService.getStats());
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> run() {
+        return ResponseEntity.ok(reconciliationService.run());
+    }
+
+    /**
+     * Ad-hoc status lookup; shares in-flight requests with a running reconciliation
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, String>> lookup(@RequestParam List<String> po) {
+        return ResponseEntity.ok(reconciliationService.lookup(po));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -4,13 +4,17 @@ import com.hpcl.procurement.dto.PurchaseRequestCreateRequest;
 import com.hpcl.procurement.dto.PurchaseRequestResponse;
 import com.hpcl.procurement.model.PurchaseRequest;
 import com.hpcl.procurement.service.PurchaseRequestService;
+import com.hpcl.procurement.service.JsonArrayStreamer;
+import com.hpcl.procurement.service.ResourceVersions;
+import com.hpcl.procurement.service.SparseFieldsets;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/pr")
@@ -18,9 +22,16 @@ import java.util.stream.Collectors;
 public class PurchaseRequestController {
 
     private final PurchaseRequestService service;
+    private final ResourceVersions resourceVersions;
+    private final JsonArrayStreamer streamer;
+    private final SparseFieldsets sparseFieldsets;
 
-    public PurchaseRequestController(PurchaseRequestService service) {
+    public PurchaseRequestController(PurchaseRequestService service, ResourceVersions resourceVersions,
+                                     JsonArrayStreamer streamer, SparseFieldsets sparseFieldsets) {
         this.service = service;
+        this.resourceVersions = resourceVersions;
+        this.streamer = streamer;
+        this.sparseFieldsets = sparseFieldsets;
     }
 
     @PostMapping
@@ -36,9 +47,14 @@ public class PurchaseRequestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(PurchaseRequestResponse.fromEntity(pr));
     }
 
+    /**
+     * Every PR; {@code ?fields=prId,status,estimatedValueInr} selects just those of the response fields
+     */
     @GetMapping
-    public List<PurchaseRequestResponse> list() {
-        return service.listAll().stream().map(PurchaseRequestResponse::fromEntity).collect(Collectors.toList());
+    public ResponseEntity<StreamingResponseBody> list(@RequestParam(required = false) String fields, WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.PR), fields == null
+                ? streamer.stream(service::streamAll, PurchaseRequestResponse::fromEntity)
+                : sparseFieldsets.select(PurchaseRequest.class, PurchaseRequestResponse.FIELDS, fields, Map.of()));
     }
 
     @GetMapping("/{prId}")
@@ -49,6 +65,14 @@ public class PurchaseRequestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/{prId}/submit")
+    public ResponseEntity<PurchaseRequestResponse> submit(@PathVariable String prId) {
+        return service.submit(prId)
+                .map(PurchaseRequestResponse::fromEntity)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{prId}/approve")
     public ResponseEntity<PurchaseRequestResponse> approve(@PathVariable String prId) {
         return service.approve(prId, null)
@@ -64,4 +88,14 @@ public class PurchaseRequestController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
@@ -1,12 +1,22 @@
 package com.hpcl.procurement.controller;
 
 import com.hpcl.procurement.model.Rule;
+import com.hpcl.procurement.service.ExceptionService;
+import com.hpcl.procurement.service.JsonArrayStreamer;
+import com.hpcl.procurement.service.PurchaseRequestService;
+import com.hpcl.procurement.service.ResourceVersions;
 import com.hpcl.procurement.service.RuleService;
+import com.hpcl.procurement.service.SparseFieldsets;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/rules")
@@ -16,14 +26,35 @@ public class RuleController {
     @Autowired
     private RuleService ruleService;
 
+    @Autowired
+    private PurchaseRequestService prService;
+
+    @Autowired
+    private ExceptionService exceptionService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private JsonArrayStreamer streamer;
+
+    @Autowired
+    private SparseFieldsets sparseFieldsets;
+
     @GetMapping
-    public ResponseEntity<List<Rule>> getAllRules() {
-        return ResponseEntity.ok(ruleService.getAllRules());
+    public ResponseEntity<StreamingResponseBody> getAllRules(@RequestParam(required = false) String fields,
+                                                             WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.RULE), fields == null
+            ? streamer.stream(ruleService::streamAllRules)
+            : sparseFieldsets.select(Rule.class, fields, Map.of()));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Rule>> getActiveRules() {
-        return ResponseEntity.ok(ruleService.getActiveRules());
+    public ResponseEntity<StreamingResponseBody> getActiveRules(@RequestParam(required = false) String fields,
+                                                                WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.etag(ResourceVersions.RULE), fields == null
+            ? streamer.stream(ruleService::streamActiveRules)
+            : sparseFieldsets.select(Rule.class, fields, Map.of("active", true)));
     }
 
     @GetMapping("/category/{category}")
@@ -48,4 +79,31 @@ public class RuleController {
         ruleService.deleteRule(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Evaluate active rules against a PR and record each violation as a (coalesced) exception
+     */
+    @PostMapping("/evaluate/{prId}")
+    public ResponseEntity<List<Map<String, Object>>> evaluateRules(@PathVariable String prId) {
+        return prService.findByBusinessId(prId)
+            .map(pr -> {
+                List<RuleService.RuleViolation> violations = ruleService.evaluateRules(pr);
+                exceptionService.recordViolations(violations);
+                return violations.stream().map(v -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("ruleId", v.getRule().getRuleId());
+                    result.put("severity", v.getSeverity());
+                    result.put("action", v.getAction());
+                    result.put("message", v.getMessage());
+                    return result;
+                }).collect(Collectors.toList());
+            })
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
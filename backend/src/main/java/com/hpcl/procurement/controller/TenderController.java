@@ -0,0 +1,55 @@
+package com.hpcl.procurement.controller;
+
+import com.hpcl.procurement.dto.PurchaseRequestResponse;
+import com.hpcl.procurement.dto.TenderRequest;
+import com.hpcl.procurement.dto.TenderResponse;
+import com.hpcl.procurement.service.TenderOrchestrationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tenders")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TenderController {
+
+    @Autowired
+    private TenderOrchestrationService tenderService;
+
+    /**
+     * Publish the bid on GeM, check CPPP compliance and guidelines and verify the shortlisted vendors, all in
+     * parallel; 502 when a mandatory call failed
+     */
+    @PostMapping("/{prId}")
+    public ResponseEntity<TenderResponse> publish(@PathVariable String prId, @Valid @RequestBody TenderRequest request) {
+        return tenderService.publishTender(prId, request)
+            .map(response -> ResponseEntity.status("FAILED".equals(response.getStatus()) ? HttpStatus.BAD_GATEWAY : HttpStatus.OK)
+                .body(response))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Settle a tender whose GeM outcome is unknown: {"bidId": "..."} if the bid exists on the portal, {} if not
+     */
+    @PostMapping("/{prId}/resolve")
+    public ResponseEntity<PurchaseRequestResponse> resolve(@PathVariable String prId,
+                                                           @RequestBody Map<String, String> payload) {
+        return tenderService.resolveTender(prId, payload.get("bidId"), payload.getOrDefault("resolvedBy", "system"))
+            .map(pr -> ResponseEntity.ok(PurchaseRequestResponse.fromEntity(pr)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
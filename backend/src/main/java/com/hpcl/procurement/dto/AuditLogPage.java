@@ -0,0 +1,22 @@
+package com.hpcl.procurement.dto;
+
+import com.hpcl.procurement.model.AuditLog;
+
+import java.util.List;
+
+/**
+ * One keyset page of audit entries; pass nextCursor back as ?cursor= to continue, null when exhausted
+ */
+public class AuditLogPage {
+
+    private final List<AuditLog> items;
+    private final String nextCursor;
+
+    public AuditLogPage(List<AuditLog> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AuditLog> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,27 @@
+package com.hpcl.procurement.dto;
+
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class BulkApprovalRequest {
+
+    @NotEmpty
+    private List<@NotNull Long> approvalIds;
+
+    @NotBlank
+    @Pattern(regexp = "APPROVE|REJECT")
+    private String decision;
+
+    private String comments;
+
+    private String approverId;
+
+    public List<Long> getApprovalIds() { return approvalIds; }
+    public void setApprovalIds(List<Long> approvalIds) { this.approvalIds = approvalIds; }
+    public String getDecision() { return decision; }
+    public void setDecision(String decision) { this.decision = decision; }
+    public String getComments() { return comments; }
+    public void setComments(String comments) { this.comments = comments; }
+    public String getApproverId() { return approverId; }
+    public void setApproverId(String approverId) { this.approverId = approverId; }
+}
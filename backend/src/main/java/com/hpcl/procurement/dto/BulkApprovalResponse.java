@@ -0,0 +1,53 @@
+package com.hpcl.procurement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkApprovalResponse {
+
+    public static final String APPLIED = "APPLIED";
+    public static final String ALREADY_DECIDED = "ALREADY_DECIDED";
+    public static final String NOT_ACTIONABLE = "NOT_ACTIONABLE";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private String decision;
+    private int applied;
+    private int alreadyDecided;
+    private int notActionable;
+    private int notFound;
+    private final List<Outcome> results = new ArrayList<>();
+
+    public BulkApprovalResponse(String decision) {
+        this.decision = decision;
+    }
+
+    public void add(Long approvalId, String outcome) {
+        results.add(new Outcome(approvalId, outcome));
+        switch (outcome) {
+            case APPLIED: applied++; break;
+            case ALREADY_DECIDED: alreadyDecided++; break;
+            case NOT_ACTIONABLE: notActionable++; break;
+            default: notFound++; break;
+        }
+    }
+
+    public String getDecision() { return decision; }
+    public int getApplied() { return applied; }
+    public int getAlreadyDecided() { return alreadyDecided; }
+    public int getNotActionable() { return notActionable; }
+    public int getNotFound() { return notFound; }
+    public List<Outcome> getResults() { return results; }
+
+    public static class Outcome {
+        private final Long approvalId;
+        private final String outcome;
+
+        public Outcome(Long approvalId, String outcome) {
+            this.approvalId = approvalId;
+            this.outcome = outcome;
+        }
+
+        public Long getApprovalId() { return approvalId; }
+        public String getOutcome() { return outcome; }
+    }
+}
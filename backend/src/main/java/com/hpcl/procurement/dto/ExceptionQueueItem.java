@@ -0,0 +1,37 @@
+package com.hpcl.procurement.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ExceptionQueueItem {
+    private String exceptionId;
+    private String prId;
+    private String severity;
+    private String status;
+    private LocalDateTime createdAt;
+    private BigDecimal prValueInr;
+    private String claimedBy;
+    private LocalDateTime leaseExpiresAt;
+
+    public ExceptionQueueItem(String exceptionId, String prId, String severity, String status,
+                              LocalDateTime createdAt, BigDecimal prValueInr,
+                              String claimedBy, LocalDateTime leaseExpiresAt) {
+        this.exceptionId = exceptionId;
+        this.prId = prId;
+        this.severity = severity;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.prValueInr = prValueInr;
+        this.claimedBy = claimedBy;
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public String getExceptionId() { return exceptionId; }
+    public String getPrId() { return prId; }
+    public String getSeverity() { return severity; }
+    public String getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public BigDecimal getPrValueInr() { return prValueInr; }
+    public String getClaimedBy() { return claimedBy; }
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+}
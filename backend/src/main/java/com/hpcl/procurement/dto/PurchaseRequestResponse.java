@@ -5,8 +5,17 @@ import com.hpcl.procurement.model.PurchaseRequest;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 public class PurchaseRequestResponse {
+
+    /**
+     * Response fields, all named as on PurchaseRequest, so a sparse fieldset can select them straight from pr_records
+     */
+    public static final Set<String> FIELDS = Set.of("prId", "description", "category", "department",
+        "estimatedValueInr", "requiredByDate", "status", "justification", "createdAt", "currentApprovalLevel",
+        "gemBidId");
+
     private String prId;
     private String description;
     private String category;
@@ -16,6 +25,8 @@ public class PurchaseRequestResponse {
     private String status;
     private String justification;
     private LocalDateTime createdAt;
+    private Integer currentApprovalLevel;
+    private String gemBidId;
 
     public static PurchaseRequestResponse fromEntity(PurchaseRequest pr) {
         PurchaseRequestResponse r = new PurchaseRequestResponse();
@@ -28,6 +39,8 @@ public class PurchaseRequestResponse {
         r.status = pr.getStatus();
         r.justification = pr.getJustification();
         r.createdAt = pr.getCreatedAt();
+        r.currentApprovalLevel = pr.getCurrentApprovalLevel();
+        r.gemBidId = pr.getGemBidId();
         return r;
     }
 
@@ -40,4 +53,6 @@ public class PurchaseRequestResponse {
     public String getStatus() { return status; }
     public String getJustification() { return justification; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public Integer getCurrentApprovalLevel() { return currentApprovalLevel; }
+    public String getGemBidId() { return gemBidId; }
 }
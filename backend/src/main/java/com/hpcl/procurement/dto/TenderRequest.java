@@ -0,0 +1,19 @@
+package com.hpcl.procurement.dto;
+
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class TenderRequest {
+
+    // Shortlisted vendors to verify on GeM
+    @NotNull
+    private List<@NotBlank String> vendors;
+
+    // CPPP contract reference for the compliance check; defaults to the PR id
+    private String contractId;
+
+    public List<String> getVendors() { return vendors; }
+    public void setVendors(List<String> vendors) { this.vendors = vendors; }
+    public String getContractId() { return contractId; }
+    public void setContractId(String contractId) { this.contractId = contractId; }
+}
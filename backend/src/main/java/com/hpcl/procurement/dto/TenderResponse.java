@@ -0,0 +1,45 @@
+package com.hpcl.procurement.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a tender fan-out. COMPLETED: every call answered. PARTIAL: mandatory calls answered, some optional
+ * ones did not (see errors). FAILED: a mandatory call failed and the remaining calls were cancelled.
+ */
+public class TenderResponse {
+
+    private String prId;
+    private String status;
+    private Map<String, Object> bid;
+    private Map<String, Object> compliance;
+    private Map<String, Object> guidelines;
+    private Map<String, Map<String, Object>> suppliers = new LinkedHashMap<>();
+    private Map<String, String> errors = new LinkedHashMap<>();
+    private List<String> cancelled = new ArrayList<>();
+    private Map<String, Long> callMillis = new LinkedHashMap<>();
+    private long elapsedMillis;
+
+    public String getPrId() { return prId; }
+    public void setPrId(String prId) { this.prId = prId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Map<String, Object> getBid() { return bid; }
+    public void setBid(Map<String, Object> bid) { this.bid = bid; }
+    public Map<String, Object> getCompliance() { return compliance; }
+    public void setCompliance(Map<String, Object> compliance) { this.compliance = compliance; }
+    public Map<String, Object> getGuidelines() { return guidelines; }
+    public void setGuidelines(Map<String, Object> guidelines) { this.guidelines = guidelines; }
+    public Map<String, Map<String, Object>> getSuppliers() { return suppliers; }
+    public void setSuppliers(Map<String, Map<String, Object>> suppliers) { this.suppliers = suppliers; }
+    public Map<String, String> getErrors() { return errors; }
+    public void setErrors(Map<String, String> errors) { this.errors = errors; }
+    public List<String> getCancelled() { return cancelled; }
+    public void setCancelled(List<String> cancelled) { this.cancelled = cancelled; }
+    public Map<String, Long> getCallMillis() { return callMillis; }
+    public void setCallMillis(Map<String, Long> callMillis) { this.callMillis = callMillis; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
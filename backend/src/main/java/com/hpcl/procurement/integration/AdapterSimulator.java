@@ -0,0 +1,262 @@
+package com.hpcl.procurement.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Latency and failure injection for the simulated adapters (simulator profile).
+ * Each adapter operation is configured under procurement.simulator.&lt;adapter&gt;.&lt;operation&gt;.*, falling back
+ * to procurement.simulator.&lt;adapter&gt;.* and procurement.simulator.defaults.*:
+ * - distribution FIXED | UNIFORM | NORMAL | LOGNORMAL, shaped by median-ms and p99-ms, floored at min-ms;
+ *   per-item-ms adds latency per element of a batched request
+ * - error-rate: the call fails after its latency
+ * - timeout-rate: the call hangs for hang-ms (longer than the gateway timeout) and then fails
+ * - throttle-per-second: calls beyond this rate fail at once with a 429-style error
+ * With replay-file set, operations found in that NDJSON trace (as written by the gateway's record-file) replay
+ * the recorded latency and outcome sequence, cycling, instead of sampling the distribution.
+ */
+@Component
+@Profile("simulator")
+public class AdapterSimulator {
+
+    public enum Distribution { FIXED, UNIFORM, NORMAL, LOGNORMAL }
+
+    public enum Outcome { SUCCESS, ERROR, TIMEOUT, THROTTLED }
+
+    private static final Logger log = LoggerFactory.getLogger(AdapterSimulator.class);
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${procurement.simulator.replay-file:}")
+    private String replayFile;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<String, List<Sample>> recorded = new HashMap<>();
+
+    @PostConstruct
+    public void loadReplay() throws IOException {
+        if (replayFile == null || replayFile.isBlank()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(replayFile), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                recorded.computeIfAbsent(node.get("adapter").asText() + "." + node.get("operation").asText(),
+                        key -> new ArrayList<>())
+                    .add(new Sample(node.get("latencyMs").asDouble(), Outcome.valueOf(node.get("outcome").asText())));
+            }
+        }
+        log.info("Adapter simulator replaying {} recorded operations from {}", recorded.size(), replayFile);
+    }
+
+    public <T> T call(String adapter, String operation, Supplier<T> response) {
+        return call(adapter, operation, 1, response);
+    }
+
+    /**
+     * Delay, and possibly fail, one simulated call, then produce the stub response
+     *
+     * @param items number of elements in a batched request, for per-item-ms
+     */
+    public <T> T call(String adapter, String operation, int items, Supplier<T> response) {
+        Operation op = operations.computeIfAbsent(adapter + "." + operation, key -> new Operation(adapter, operation));
+        Sample sample = op.throttle() ? new Sample(0, Outcome.THROTTLED) : op.next(items);
+        op.record(sample);
+        String name = adapter + "." + operation;
+        if (sample.outcome == Outcome.THROTTLED) {
+            throw new IllegalStateException("429 Too Many Requests from simulated " + name);
+        }
+        sleep(sample.outcome == Outcome.TIMEOUT ? op.hangMs : sample.latencyMs);
+        if (sample.outcome == Outcome.TIMEOUT) {
+            throw new IllegalStateException("Simulated " + name + " did not answer within " + op.hangMs + " ms");
+        }
+        if (sample.outcome == Outcome.ERROR) {
+            throw new IllegalStateException("Simulated " + name + " error");
+        }
+        return response.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replayFile", replayFile == null || replayFile.isBlank() ? null : replayFile);
+        Map<String, Object> byOperation = new TreeMap<>();
+        operations.forEach((name, op) -> byOperation.put(name, op.getStats()));
+        stats.put("operations", byOperation);
+        return stats;
+    }
+
+    private static void sleep(double millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            long nanos = (long) (millis * 1_000_000);
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            // The gateway gave up on the call
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulated call interrupted", e);
+        }
+    }
+
+    private static final class Sample {
+        final double latencyMs;
+        final Outcome outcome;
+
+        Sample(double latencyMs, Outcome outcome) {
+            this.latencyMs = latencyMs;
+            this.outcome = outcome;
+        }
+    }
+
+    private final class Operation {
+        final Distribution distribution;
+        final double medianMs;
+        final double p99Ms;
+        final double minMs;
+        final double perItemMs;
+        final double errorRate;
+        final double timeoutRate;
+        final long hangMs;
+        final double throttlePerSecond;
+        final List<Sample> replay;
+        final AtomicInteger replayCursor = new AtomicInteger();
+
+        double tokens;
+        long lastRefillNanos = System.nanoTime();
+
+        final AtomicLong calls = new AtomicLong();
+        final Map<Outcome, AtomicLong> outcomes = new ConcurrentHashMap<>();
+        final AtomicLong latencyMicros = new AtomicLong();
+        final AtomicLong maxLatencyMicros = new AtomicLong();
+
+        Operation(String adapter, String operation) {
+            distribution = Distribution.valueOf(setting(adapter, operation, "distribution", "LOGNORMAL").toUpperCase());
+            medianMs = Double.parseDouble(setting(adapter, operation, "median-ms", "40"));
+            p99Ms = Math.max(medianMs, Double.parseDouble(setting(adapter, operation, "p99-ms", "400")));
+            minMs = Double.parseDouble(setting(adapter, operation, "min-ms", "0"));
+            perItemMs = Double.parseDouble(setting(adapter, operation, "per-item-ms", "0"));
+            errorRate = Double.parseDouble(setting(adapter, operation, "error-rate", "0"));
+            timeoutRate = Double.parseDouble(setting(adapter, operation, "timeout-rate", "0"));
+            hangMs = Long.parseLong(setting(adapter, operation, "hang-ms", "30000"));
+            throttlePerSecond = Double.parseDouble(setting(adapter, operation, "throttle-per-second", "0"));
+            replay = recorded.get(adapter + "." + operation);
+            tokens = throttlePerSecond;
+        }
+
+        /**
+         * Token bucket holding one second of the configured rate; true when this call is over the limit
+         */
+        synchronized boolean throttle() {
+            if (throttlePerSecond <= 0) {
+                return false;
+            }
+            long now = System.nanoTime();
+            tokens = Math.min(throttlePerSecond, tokens + (now - lastRefillNanos) * throttlePerSecond / 1e9);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return true;
+            }
+            tokens--;
+            return false;
+        }
+
+        Sample next(int items) {
+            if (replay != null) {
+                return replay.get(Math.floorMod(replayCursor.getAndIncrement(), replay.size()));
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double roll = random.nextDouble();
+            Outcome outcome = roll < errorRate ? Outcome.ERROR
+                : roll < errorRate + timeoutRate ? Outcome.TIMEOUT : Outcome.SUCCESS;
+            double latency;
+            switch (distribution) {
+                case FIXED:
+                    latency = medianMs;
+                    break;
+                case UNIFORM:
+                    latency = minMs + random.nextDouble() * (p99Ms - minMs);
+                    break;
+                case NORMAL:
+                    latency = medianMs + random.nextGaussian() * (p99Ms - medianMs) / Z_99;
+                    break;
+                default:
+                    double sigma = medianMs <= 0 ? 0 : Math.log(p99Ms / medianMs) / Z_99;
+                    latency = medianMs * Math.exp(random.nextGaussian() * sigma);
+            }
+            return new Sample(Math.max(minMs, latency) + perItemMs * items, outcome);
+        }
+
+        void record(Sample sample) {
+            calls.incrementAndGet();
+            outcomes.computeIfAbsent(sample.outcome, o -> new AtomicLong()).incrementAndGet();
+            if (sample.outcome == Outcome.SUCCESS || sample.outcome == Outcome.ERROR) {
+                long micros = (long) (sample.latencyMs * 1000);
+                latencyMicros.addAndGet(micros);
+                maxLatencyMicros.accumulateAndGet(micros, Math::max);
+            }
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            long timed = count(Outcome.SUCCESS) + count(Outcome.ERROR);
+            stats.put("mode", replay != null ? "REPLAY" : distribution.name());
+            stats.put("calls", calls.get());
+            for (Outcome outcome : Outcome.values()) {
+                stats.put(outcome.name().toLowerCase(), count(outcome));
+            }
+            stats.put("avgInjectedMillis", timed == 0 ? 0.0 : latencyMicros.get() / 1000.0 / timed);
+            stats.put("maxInjectedMillis", maxLatencyMicros.get() / 1000.0);
+            return stats;
+        }
+
+        private long count(Outcome outcome) {
+            AtomicLong counter = outcomes.get(outcome);
+            return counter == null ? 0 : counter.get();
+        }
+    }
+
+    private String setting(String adapter, String operation, String key, String defaultValue) {
+        String prefix = "procurement.simulator." + adapter.toLowerCase() + ".";
+        String value = environment.getProperty(prefix + operation + "." + key);
+        if (value == null) {
+            value = environment.getProperty(prefix + key);
+        }
+        return value != null ? value : environment.getProperty("procurement.simulator.defaults." + key, defaultValue);
+    }
+}
@@ -0,0 +1,11 @@
+package com.hpcl.procurement.integration;
+
+/**
+ * Receives line-item quotes of a bid one at a time, so a tender of any size can be evaluated without holding
+ * its quotes in memory
+ */
+@FunctionalInterface
+public interface BidQuoteConsumer {
+
+    void accept(String vendorId, String itemCode, double unitPriceInr, double quantity);
+}
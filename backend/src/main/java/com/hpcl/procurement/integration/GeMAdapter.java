@@ -1,48 +1,23 @@
 package com.hpcl.procurement.integration;
 
-import org.springframework.stereotype.Component;
-
-import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Stub adapter for GeM (Government e-Marketplace) integration
- * In production, this would integrate with GeM portal
+ * GeM (Government e-Marketplace) integration. StubGeMAdapter answers by default; the simulator profile swaps in
+ * SimulatedGeMAdapter.
  */
-@Component
-public class GeMAdapter {
+public interface GeMAdapter {
+
+    Map<String, Object> checkSupplierRegistration(String supplierName);
 
-    public Map<String, Object> checkSupplierRegistration(String supplierName) {
-        // Stub implementation
-        Map<String, Object> response = new HashMap<>();
-        response.put("supplierName", supplierName);
-        response.put("registered", true);
-        response.put("gemSupplierId", "GEM-" + supplierName.hashCode());
-        response.put("validUpto", "2025-12-31");
-        response.put("message", "Supplier verified on GeM (stub)");
-        return response;
-    }
+    Map<String, Object> publishBid(String prId, Map<String, Object> bidDetails);
 
-    public Map<String, Object> publishBid(String prId, Map<String, Object> bidDetails) {
-        // Stub implementation
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "PUBLISHED");
-        response.put("bidId", "BID-" + System.currentTimeMillis());
-        response.put("prId", prId);
-        response.put("publishedOn", "GeM Portal");
-        response.put("closingDate", "2025-02-28");
-        response.put("message", "Bid published on GeM (stub)");
-        return response;
-    }
+    Map<String, Object> getBidResponses(String bidId);
 
-    public Map<String, Object> getBidResponses(String bidId) {
-        // Stub implementation
-        Map<String, Object> response = new HashMap<>();
-        response.put("bidId", bidId);
-        response.put("totalResponses", 5);
-        response.put("lowestQuote", 1200000.00);
-        response.put("highestQuote", 1850000.00);
-        response.put("message", "Bid responses retrieved from GeM (stub)");
-        return response;
-    }
+    /**
+     * Push every line-item quote received for the bid to the consumer, in arrival order
+     *
+     * @return number of quotes delivered
+     */
+    long streamBidQuotes(String bidId, BidQuoteConsumer consumer);
 }
@@ -0,0 +1,316 @@
+package com.hpcl.procurement.integration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Isolation for calls to external systems. Every adapter (SAP, GEM, CPPP) gets its own bulkhead, i.e. a semaphore
+ * of max-concurrent permits and a pool of the same size, so a hung portal can tie up only its own threads and
+ * never the caller's (Tomcat workers, outbox lanes). A call:
+ * 1. is short-circuited while the adapter's CircuitBreaker is open,
+ * 2. is rejected if no bulkhead permit frees up within max-wait-ms,
+ * 3. runs on the adapter pool and is abandoned (and interrupted) after timeout-ms.
+ * The permit is held until the adapter code actually returns, so timed-out calls still count against the limit.
+ * Caller errors (IllegalArgumentException, UnsupportedOperationException) are rethrown as they are and do not
+ * count against the breaker: a bad request says nothing about the portal's health, and retrying it cannot help.
+ * Settings come from procurement.integrations.&lt;adapter&gt;.* with procurement.integrations.defaults.* as fallback.
+ * With procurement.integrations.record-file set, every call that reached an adapter is appended there as an NDJSON
+ * trace (latency and outcome), which the simulator profile can replay.
+ */
+@Component
+public class IntegrationGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(IntegrationGateway.class);
+    private static final int LATENCY_SAMPLES = 1024;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${procurement.integrations.record-file:}")
+    private String recordFile;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private BufferedWriter recorder;
+    // Guards the recorder; held across the write and flush on caller threads, so a lock rather than a monitor
+    private final ReentrantLock recorderLock = new ReentrantLock();
+
+    @PostConstruct
+    public void openRecorder() throws IOException {
+        if (recordFile != null && !recordFile.isBlank()) {
+            Path path = Path.of(recordFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            recorder = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log.info("Recording integration traffic to {}", path.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Run an adapter call through the adapter's bulkhead, timeout and breaker
+     *
+     * @throws IntegrationUnavailableException when the call was rejected, short-circuited, timed out or failed
+     * @throws IllegalArgumentException or UnsupportedOperationException from the adapter, unwrapped
+     */
+    public <T> T call(String adapter, String operation, Supplier<T> call) {
+        Endpoint endpoint = endpoints.computeIfAbsent(adapter, this::createEndpoint);
+        endpoint.calls.incrementAndGet();
+        if (!endpoint.breaker.tryAcquire()) {
+            endpoint.shortCircuited.incrementAndGet();
+            throw new IntegrationUnavailableException(adapter, operation, IntegrationUnavailableException.Reason.CIRCUIT_OPEN, null);
+        }
+        boolean permitted;
+        try {
+            permitted = endpoint.bulkhead.tryAcquire(endpoint.maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permitted = false;
+        }
+        if (!permitted) {
+            endpoint.breaker.release();
+            endpoint.rejected.incrementAndGet();
+            throw new IntegrationUnavailableException(adapter, operation, IntegrationUnavailableException.Reason.REJECTED, null);
+        }
+
+        long start = System.nanoTime();
+        // Whoever flips this first owns the permit: the task once it runs, or the caller if it gives up first
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = endpoint.executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return call.get();
+                } finally {
+                    endpoint.bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            endpoint.bulkhead.release();
+            endpoint.breaker.release();
+            endpoint.rejected.incrementAndGet();
+            throw new IntegrationUnavailableException(adapter, operation, IntegrationUnavailableException.Reason.REJECTED, e);
+        }
+        try {
+            T result = future.get(endpoint.timeoutMs, TimeUnit.MILLISECONDS);
+            endpoint.breaker.onSuccess();
+            endpoint.recordLatency(System.nanoTime() - start);
+            record(adapter, operation, System.nanoTime() - start, "SUCCESS");
+            return result;
+        } catch (TimeoutException e) {
+            abandon(endpoint, future, started);
+            endpoint.breaker.onFailure();
+            endpoint.timeouts.incrementAndGet();
+            endpoint.recordLatency(System.nanoTime() - start);
+            record(adapter, operation, System.nanoTime() - start, "TIMEOUT");
+            throw new IntegrationUnavailableException(adapter, operation, IntegrationUnavailableException.Reason.TIMEOUT, null);
+        } catch (ExecutionException e) {
+            endpoint.recordLatency(System.nanoTime() - start);
+            if (isCallerError(e.getCause())) {
+                // Not recorded for replay either: the trace describes the portal, not our requests
+                endpoint.breaker.release();
+                endpoint.callerErrors.incrementAndGet();
+                throw (RuntimeException) e.getCause();
+            }
+            endpoint.breaker.onFailure();
+            endpoint.failures.incrementAndGet();
+            record(adapter, operation, System.nanoTime() - start, "ERROR");
+            throw new IntegrationUnavailableException(adapter, operation, IntegrationUnavailableException.Reason.FAILED, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(endpoint, future, started);
+            endpoint.breaker.release();
+            throw new IntegrationUnavailableException(adapter, operation, IntegrationUnavailableException.Reason.FAILED, e);
+        }
+    }
+
+    /**
+     * Like call, but answers with the fallback instead of throwing when the adapter is unavailable
+     */
+    public <T> T call(String adapter, String operation, Supplier<T> call,
+                      Function<IntegrationUnavailableException, T> fallback) {
+        try {
+            return call(adapter, operation, call);
+        } catch (IntegrationUnavailableException e) {
+            endpoints.get(adapter).fallbacks.incrementAndGet();
+            log.debug("Serving fallback for {}.{}: {}", adapter, operation, e.getMessage());
+            return fallback.apply(e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        endpoints.keySet().stream().sorted().forEach(name -> stats.put(name, endpoints.get(name).getStats()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        endpoints.values().forEach(endpoint -> endpoint.executor.shutdownNow());
+        if (recorder != null) {
+            recorderLock.lock();
+            try {
+                recorder.close();
+            } finally {
+                recorderLock.unlock();
+            }
+        }
+    }
+
+    private void record(String adapter, String operation, long nanos, String outcome) {
+        if (recorder == null) {
+            return;
+        }
+        String line = "{\"adapter\":\"" + adapter + "\",\"operation\":\"" + operation + "\",\"latencyMs\":"
+            + nanos / 1_000_000.0 + ",\"outcome\":\"" + outcome + "\"}\n";
+        recorderLock.lock();
+        try {
+            recorder.write(line);
+            recorder.flush();
+        } catch (IOException e) {
+            log.warn("Could not record integration call: {}", e.getMessage());
+        } finally {
+            recorderLock.unlock();
+        }
+    }
+
+    private static boolean isCallerError(Throwable error) {
+        return error instanceof IllegalArgumentException || error instanceof UnsupportedOperationException;
+    }
+
+    private static void abandon(Endpoint endpoint, Future<?> future, AtomicBoolean started) {
+        future.cancel(true);
+        if (started.compareAndSet(false, true)) {
+            endpoint.bulkhead.release();
+        }
+    }
+
+    private Endpoint createEndpoint(String adapter) {
+        int maxConcurrent = setting(adapter, "max-concurrent", 10);
+        Endpoint endpoint = new Endpoint(adapter, maxConcurrent,
+            setting(adapter, "max-wait-ms", 50), setting(adapter, "timeout-ms", 2000),
+            new CircuitBreaker(setting(adapter, "window-size", 20), setting(adapter, "minimum-calls", 10),
+                setting(adapter, "failure-rate-threshold", 50), setting(adapter, "open-ms", 30000),
+                setting(adapter, "half-open-calls", 3)));
+        log.info("Integration bulkhead for {}: {} concurrent calls, {} ms timeout", adapter, maxConcurrent, endpoint.timeoutMs);
+        return endpoint;
+    }
+
+    private int setting(String adapter, String key, int defaultValue) {
+        Integer value = environment.getProperty("procurement.integrations." + adapter.toLowerCase() + "." + key, Integer.class);
+        return value != null ? value
+            : environment.getProperty("procurement.integrations.defaults." + key, Integer.class, defaultValue);
+    }
+
+    private static final class Endpoint {
+        final int maxConcurrent;
+        final long maxWaitMs;
+        final long timeoutMs;
+        final Semaphore bulkhead;
+        final ThreadPoolExecutor executor;
+        final CircuitBreaker breaker;
+
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong callerErrors = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong shortCircuited = new AtomicLong();
+        final AtomicLong fallbacks = new AtomicLong();
+        final AtomicLong maxLatencyNanos = new AtomicLong();
+        final long[] latencySamples = new long[LATENCY_SAMPLES];
+        // long so the ring index never overflows into a negative slot, however long the process runs
+        long sampleCount;
+
+        Endpoint(String adapter, int maxConcurrent, long maxWaitMs, long timeoutMs, CircuitBreaker breaker) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitMs = maxWaitMs;
+            this.timeoutMs = timeoutMs;
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.breaker = breaker;
+            AtomicInteger threadIds = new AtomicInteger();
+            // Never more queued tasks than permits, since a task is submitted only while holding one
+            this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, adapter.toLowerCase() + "-call-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        synchronized void recordLatency(long nanos) {
+            completed.incrementAndGet();
+            maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+            latencySamples[(int) (sampleCount++ % LATENCY_SAMPLES)] = nanos;
+        }
+
+        Map<String, Object> getStats() {
+            long[] samples;
+            synchronized (this) {
+                samples = Arrays.copyOf(latencySamples, (int) Math.min(sampleCount, LATENCY_SAMPLES));
+            }
+            Arrays.sort(samples);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("circuitState", breaker.getState().name());
+            stats.put("circuitOpenedCount", breaker.getOpenedCount());
+            stats.put("windowFailureRatePercent", breaker.getFailureRate());
+            stats.put("calls", calls.get());
+            stats.put("completed", completed.get());
+            stats.put("failures", failures.get());
+            stats.put("callerErrors", callerErrors.get());
+            stats.put("timeouts", timeouts.get());
+            stats.put("rejected", rejected.get());
+            stats.put("shortCircuited", shortCircuited.get());
+            stats.put("fallbacks", fallbacks.get());
+            stats.put("maxConcurrent", maxConcurrent);
+            stats.put("activeCalls", maxConcurrent - bulkhead.availablePermits());
+            stats.put("timeoutMs", timeoutMs);
+            stats.put("p50Millis", percentile(samples, 0.50));
+            stats.put("p95Millis", percentile(samples, 0.95));
+            stats.put("p99Millis", percentile(samples, 0.99));
+            stats.put("maxMillis", maxLatencyNanos.get() / 1_000_000.0);
+            return stats;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hpcl.procurement.integration;
+
+/**
+ * An external system call that did not complete: rejected by the bulkhead, short-circuited by an open breaker,
+ * timed out, or failed in the adapter
+ */
+public class IntegrationUnavailableException extends RuntimeException {
+
+    public enum Reason { REJECTED, CIRCUIT_OPEN, TIMEOUT, FAILED }
+
+    private final String adapter;
+    private final Reason reason;
+
+    public IntegrationUnavailableException(String adapter, String operation, Reason reason, Throwable cause) {
+        super(adapter + "." + operation + " unavailable: " + reason
+            + (cause != null && cause.getMessage() != null ? " (" + cause.getMessage() + ")" : ""), cause);
+        this.adapter = adapter;
+        this.reason = reason;
+    }
+
+    public String getAdapter() { return adapter; }
+    public Reason getReason() { return reason; }
+}
@@ -0,0 +1,14 @@
+package com.hpcl.procurement.integration;
+
+import com.hpcl.procurement.model.OutboxEvent;
+
+/**
+ * Delivers outbox events for one destination. Throwing schedules a retry with backoff;
+ * an IllegalArgumentException means the event can never succeed and dead-letters it immediately.
+ */
+public interface OutboxHandler {
+
+    String destination();
+
+    void handle(OutboxEvent event) throws Exception;
+}
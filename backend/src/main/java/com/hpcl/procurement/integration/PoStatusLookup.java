@@ -0,0 +1,13 @@
+package com.hpcl.procurement.integration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched purchase order status source for PO reconciliation. Returns PO number to SAP status; POs missing from
+ * the result are unknown. Throwing fails the whole batch.
+ */
+public interface PoStatusLookup {
+
+    Map<String, String> getStatuses(List<String> poNumbers);
+}
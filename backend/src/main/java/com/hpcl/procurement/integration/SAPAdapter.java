@@ -1,44 +1,24 @@
 package com.hpcl.procurement.integration;
 
-import org.springframework.stereotype.Component;
-
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
 
 /**
- * Stub adapter for SAP integration
- * In production, this would integrate with SAP ERP system
+ * SAP ERP integration. StubSAPAdapter answers by default; the simulator profile swaps in SimulatedSAPAdapter.
  */
-@Component
-public class SAPAdapter {
+public interface SAPAdapter {
+
+    Map<String, Object> syncPurchaseRequest(String prId, Map<String, Object> prData);
 
-    public Map<String, Object> syncPurchaseRequest(String prId, Map<String, Object> prData) {
-        // Stub implementation - would make actual SAP API call in production
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "SUCCESS");
-        response.put("sapDocumentNumber", "SAP-" + System.currentTimeMillis());
-        response.put("message", "PR synced to SAP successfully (stub)");
-        return response;
-    }
+    Map<String, Object> getPOStatus(String poNumber);
 
-    public Map<String, Object> getPOStatus(String poNumber) {
-        // Stub implementation
-        Map<String, Object> response = new HashMap<>();
-        response.put("poNumber", poNumber);
-        response.put("status", "IN_PROGRESS");
-        response.put("vendor", "Vendor XYZ");
-        response.put("message", "PO status retrieved from SAP (stub)");
-        return response;
-    }
+    /**
+     * Status of many POs in one request; POs SAP does not know are left out of the result
+     */
+    Map<String, Map<String, Object>> getPOStatuses(Collection<String> poNumbers);
 
-    public Map<String, Object> createPurchaseOrder(String prId, String vendorCode) {
-        // Stub implementation
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "SUCCESS");
-        response.put("poNumber", "PO-" + System.currentTimeMillis());
-        response.put("prId", prId);
-        response.put("vendorCode", vendorCode);
-        response.put("message", "PO created in SAP (stub)");
-        return response;
-    }
+    /**
+     * Raise the PO for an approved PR; the vendor is assigned in SAP, since the PR does not carry one
+     */
+    Map<String, Object> createPurchaseOrder(String prId);
 }
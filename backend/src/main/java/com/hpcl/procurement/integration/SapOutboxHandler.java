@@ -0,0 +1,70 @@
+package com.hpcl.procurement.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hpcl.procurement.model.OutboxEvent;
+import com.hpcl.procurement.repository.PurchaseRequestRepository;
+import com.hpcl.procurement.service.AuditService;
+import com.hpcl.procurement.service.IntegrationService;
+import com.hpcl.procurement.service.ResourceVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Sends SAP outbox events to SAPAdapter through the integration gateway; an unavailable SAP surfaces as an
+ * exception, so the outbox retries the event with backoff
+ */
+@Component
+@ConditionalOnProperty(name = "procurement.outbox.stand-in.enabled", havingValue = "false", matchIfMissing = true)
+public class SapOutboxHandler implements OutboxHandler {
+
+    @Autowired
+    private IntegrationService integrationService;
+
+    @Autowired
+    private PurchaseRequestRepository purchaseRequestRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Override
+    public String destination() {
+        return "SAP";
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        Map<String, Object> payload = event.getPayload() == null ? Map.of()
+            : objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() {});
+        Map<String, Object> response;
+        switch (event.getEventType()) {
+            case "PR_SYNC":
+                response = integrationService.syncPurchaseRequest(event.getAggregateId(), payload);
+                break;
+            case "PO_CREATE":
+                response = integrationService.createPurchaseOrder(event.getAggregateId());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported SAP event type " + event.getEventType());
+        }
+        if (!"SUCCESS".equals(response.get("status"))) {
+            throw new IllegalStateException("SAP rejected " + event.getEventType() + ": " + response.get("message"));
+        }
+        if ("PO_CREATE".equals(event.getEventType()) && response.get("poNumber") != null) {
+            String poNumber = (String) response.get("poNumber");
+            purchaseRequestRepository.assignPurchaseOrder(event.getAggregateId(), poNumber);
+            auditService.logAction("PR", event.getAggregateId(), "PO_CREATED", "system", null,
+                "{\"poId\":\"" + poNumber + "\",\"poStatus\":\"CREATED\"}", null);
+            resourceVersions.changed(ResourceVersions.PR);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hpcl.procurement.integration;
+
+import com.hpcl.procurement.service.IntegrationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PO statuses from SAPAdapter's batched lookup, through the integration gateway
+ */
+@Component
+@ConditionalOnProperty(name = "procurement.po-reconciliation.stand-in.enabled", havingValue = "false", matchIfMissing = true)
+public class SapPoStatusLookup implements PoStatusLookup {
+
+    @Autowired
+    private IntegrationService integrationService;
+
+    @Override
+    public Map<String, String> getStatuses(List<String> poNumbers) {
+        Map<String, String> statuses = new HashMap<>();
+        integrationService.getPOStatuses(poNumbers).forEach((poNumber, response) -> {
+            Object status = response.get("status");
+            if (status != null) {
+                statuses.put(poNumber, status.toString());
+            }
+        });
+        return statuses;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hpcl.procurement.integration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * CPPP answered locally: stub responses behind the simulator's latency, errors, timeouts and throttling
+ */
+@Component
+@Profile("simulator")
+public class SimulatedCPPPAdapter implements CPPPAdapter {
+
+    private final StubCPPPAdapter responses = new StubCPPPAdapter();
+
+    @Autowired
+    private AdapterSimulator simulator;
+
+    @Override
+    public Map<String, Object> submitContract(String prId, String contractDetails) {
+        return simulator.call("CPPP", "submitContract", () -> responses.submitContract(prId, contractDetails));
+    }
+
+    @Override
+    public Map<String, Object> checkCompliance(String contractId) {
+        return simulator.call("CPPP", "checkCompliance", () -> responses.checkCompliance(contractId));
+    }
+
+    @Override
+    public Map<String, Object> getGuidelinesForCategory(String category) {
+        return simulator.call("CPPP", "getGuidelinesForCategory", () -> responses.getGuidelinesForCategory(category));
+    }
+}
@@ -0,0 +1,40 @@
+package com.hpcl.procurement.integration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GeM answered locally: stub responses behind the simulator's latency, errors, timeouts and throttling
+ */
+@Component
+@Profile("simulator")
+public class SimulatedGeMAdapter implements GeMAdapter {
+
+    private final StubGeMAdapter responses = new StubGeMAdapter();
+
+    @Autowired
+    private AdapterSimulator simulator;
+
+    @Override
+    public Map<String, Object> checkSupplierRegistration(String supplierName) {
+        return simulator.call("GEM", "checkSupplierRegistration", () -> responses.checkSupplierRegistration(supplierName));
+    }
+
+    @Override
+    public Map<String, Object> publishBid(String prId, Map<String, Object> bidDetails) {
+        return simulator.call("GEM", "publishBid", () -> responses.publishBid(prId, bidDetails));
+    }
+
+    @Override
+    public Map<String, Object> getBidResponses(String bidId) {
+        return simulator.call("GEM", "getBidResponses", () -> responses.getBidResponses(bidId));
+    }
+
+    @Override
+    public long streamBidQuotes(String bidId, BidQuoteConsumer consumer) {
+        return simulator.call("GEM", "streamBidQuotes", () -> responses.streamBidQuotes(bidId, consumer));
+    }
+}
@@ -0,0 +1,41 @@
+package com.hpcl.procurement.integration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * SAP answered locally: stub responses behind the simulator's latency, errors, timeouts and throttling
+ */
+@Component
+@Profile("simulator")
+public class SimulatedSAPAdapter implements SAPAdapter {
+
+    private final StubSAPAdapter responses = new StubSAPAdapter();
+
+    @Autowired
+    private AdapterSimulator simulator;
+
+    @Override
+    public Map<String, Object> syncPurchaseRequest(String prId, Map<String, Object> prData) {
+        return simulator.call("SAP", "syncPurchaseRequest", () -> responses.syncPurchaseRequest(prId, prData));
+    }
+
+    @Override
+    public Map<String, Object> getPOStatus(String poNumber) {
+        return simulator.call("SAP", "getPOStatus", () -> responses.getPOStatus(poNumber));
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getPOStatuses(Collection<String> poNumbers) {
+        return simulator.call("SAP", "getPOStatuses", poNumbers.size(), () -> responses.getPOStatuses(poNumbers));
+    }
+
+    @Override
+    public Map<String, Object> createPurchaseOrder(String prId) {
+        return simulator.call("SAP", "createPurchaseOrder", () -> responses.createPurchaseOrder(prId));
+    }
+}
@@ -0,0 +1,60 @@
+package com.hpcl.procurement.integration;
+
+import com.hpcl.procurement.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for SAP used to exercise the outbox without a remote system.
+ * Adds a fixed latency and fails a configurable fraction of calls so retries, backoff and dead-lettering can be observed.
+ */
+@Component
+@ConditionalOnProperty(name = "procurement.outbox.stand-in.enabled", havingValue = "true")
+public class StandInOutboxHandler implements OutboxHandler {
+
+    @Value("${procurement.outbox.stand-in.latency-ms:50}")
+    private long latencyMs;
+
+    @Value("${procurement.outbox.stand-in.failure-rate:0.0}")
+    private double failureRate;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Override
+    public String destination() {
+        return "SAP";
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(latencyMs);
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failed.incrementAndGet();
+                throw new IllegalStateException("Stand-in SAP failure for event " + event.getId());
+            }
+            delivered.incrementAndGet();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("delivered", delivered.get());
+        stats.put("failed", failed.get());
+        stats.put("maxConcurrentCalls", maxInFlight.get());
+        return stats;
+    }
+}
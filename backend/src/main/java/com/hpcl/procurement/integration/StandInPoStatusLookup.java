@@ -0,0 +1,69 @@
+package com.hpcl.procurement.integration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for SAP's batched PO status lookup, for timing reconciliation without a remote system.
+ * Each request costs latency-ms plus per-po-micros per PO, and each lookup moves a PO one step along its
+ * lifecycle with probability change-rate, so a run has a realistic share of changed rows to write back.
+ */
+@Component
+@ConditionalOnProperty(name = "procurement.po-reconciliation.stand-in.enabled", havingValue = "true")
+public class StandInPoStatusLookup implements PoStatusLookup {
+
+    private static final String[] LIFECYCLE = {"CREATED", "IN_PROGRESS", "PARTIALLY_DELIVERED", "DELIVERED", "CLOSED"};
+
+    @Value("${procurement.po-reconciliation.stand-in.latency-ms:20}")
+    private long latencyMs;
+
+    @Value("${procurement.po-reconciliation.stand-in.per-po-micros:100}")
+    private long perPoMicros;
+
+    @Value("${procurement.po-reconciliation.stand-in.change-rate:0.1}")
+    private double changeRate;
+
+    private final Map<String, Integer> stages = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong posLookedUp = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Override
+    public Map<String, String> getStatuses(List<String> poNumbers) {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(latencyMs + poNumbers.size() * perPoMicros / 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stand-in PO lookup interrupted", e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        requests.incrementAndGet();
+        posLookedUp.addAndGet(poNumbers.size());
+        Map<String, String> statuses = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (String poNumber : poNumbers) {
+            int stage = stages.compute(poNumber, (po, current) -> {
+                int next = current == null ? 1 : current;
+                return random.nextDouble() < changeRate ? Math.min(next + 1, LIFECYCLE.length - 1) : next;
+            });
+            statuses.put(poNumber, LIFECYCLE[stage]);
+        }
+        return statuses;
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of("requests", requests.get(), "posLookedUp", posLookedUp.get(), "maxConcurrentRequests", maxInFlight.get());
+    }
+}
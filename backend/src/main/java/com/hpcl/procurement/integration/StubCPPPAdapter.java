@@ -0,0 +1,52 @@
+package com.hpcl.procurement.integration;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stub adapter for CPPP (Central Public Procurement Portal) integration
+ * In production, this would integrate with CPPP system
+ */
+@Component
+@Profile("!simulator")
+public class StubCPPPAdapter implements CPPPAdapter {
+
+    @Override
+    public Map<String, Object> submitContract(String prId, String contractDetails) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "SUBMITTED");
+        response.put("contractId", "CPPP-CONTRACT-" + System.currentTimeMillis());
+        response.put("prId", prId);
+        response.put("submittedDate", java.time.LocalDateTime.now().toString());
+        response.put("message", "Contract submitted to CPPP (stub)");
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> checkCompliance(String contractId) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("contractId", contractId);
+        response.put("compliant", true);
+        response.put("complianceScore", 95);
+        response.put("issues", new String[]{});
+        response.put("message", "Compliance check completed via CPPP (stub)");
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getGuidelinesForCategory(String category) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("category", category);
+        response.put("guidelines", "CPPP standard procurement guidelines apply");
+        response.put("minimumBidders", 3);
+        response.put("mandatoryDocuments", new String[]{"Technical specs", "Financial bid", "Compliance certificate"});
+        response.put("message", "Guidelines retrieved from CPPP (stub)");
+        return response;
+    }
+}
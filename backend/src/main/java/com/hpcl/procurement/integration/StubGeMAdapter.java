@@ -0,0 +1,82 @@
+package com.hpcl.procurement.integration;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Stub adapter for GeM (Government e-Marketplace) integration
+ * In production, this would integrate with GeM portal
+ */
+@Component
+@Profile("!simulator")
+public class StubGeMAdapter implements GeMAdapter {
+
+    @Override
+    public Map<String, Object> checkSupplierRegistration(String supplierName) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("supplierName", supplierName);
+        response.put("registered", true);
+        response.put("gemSupplierId", "GEM-" + supplierName.hashCode());
+        response.put("validUpto", "2025-12-31");
+        response.put("message", "Supplier verified on GeM (stub)");
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> publishBid(String prId, Map<String, Object> bidDetails) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "PUBLISHED");
+        response.put("bidId", "BID-" + System.currentTimeMillis());
+        response.put("prId", prId);
+        response.put("publishedOn", "GeM Portal");
+        response.put("closingDate", "2025-02-28");
+        response.put("message", "Bid published on GeM (stub)");
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getBidResponses(String bidId) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("bidId", bidId);
+        response.put("totalResponses", 5);
+        response.put("lowestQuote", 1200000.00);
+        response.put("highestQuote", 1850000.00);
+        response.put("message", "Bid responses retrieved from GeM (stub)");
+        return response;
+    }
+
+    @Override
+    public long streamBidQuotes(String bidId, BidQuoteConsumer consumer) {
+        // Stub implementation - synthetic quotes, reproducible per bid: 25 vendors x 200 items around a base
+        // price per item, with the occasional abnormally low or high quote
+        SplittableRandom random = new SplittableRandom(bidId.hashCode());
+        int vendors = 25;
+        int items = 200;
+        double[] basePrices = new double[items];
+        for (int item = 0; item < items; item++) {
+            basePrices[item] = 500 + random.nextDouble() * 50_000;
+        }
+        long delivered = 0;
+        for (int vendor = 0; vendor < vendors; vendor++) {
+            for (int item = 0; item < items; item++) {
+                double factor = 0.85 + random.nextDouble() * 0.3;
+                double roll = random.nextDouble();
+                if (roll < 0.005) {
+                    factor = 0.3;
+                } else if (roll < 0.01) {
+                    factor = 2.5;
+                }
+                consumer.accept("GEM-V" + (vendor + 1), "ITEM-" + (item + 1), basePrices[item] * factor, 1 + item % 10);
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,63 @@
+package com.hpcl.procurement.integration;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stub adapter for SAP integration
+ * In production, this would integrate with SAP ERP system
+ */
+@Component
+@Profile("!simulator")
+public class StubSAPAdapter implements SAPAdapter {
+
+    @Override
+    public Map<String, Object> syncPurchaseRequest(String prId, Map<String, Object> prData) {
+        // Stub implementation - would make actual SAP API call in production
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "SUCCESS");
+        response.put("sapDocumentNumber", "SAP-" + System.currentTimeMillis());
+        response.put("message", "PR synced to SAP successfully (stub)");
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getPOStatus(String poNumber) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("poNumber", poNumber);
+        response.put("status", "IN_PROGRESS");
+        response.put("vendor", "Vendor XYZ");
+        response.put("message", "PO status retrieved from SAP (stub)");
+        return response;
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getPOStatuses(Collection<String> poNumbers) {
+        // Stub implementation - would be one batched SAP call in production
+        Map<String, Map<String, Object>> responses = new LinkedHashMap<>();
+        for (String poNumber : poNumbers) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("poNumber", poNumber);
+            response.put("status", "IN_PROGRESS");
+            responses.put(poNumber, response);
+        }
+        return responses;
+    }
+
+    @Override
+    public Map<String, Object> createPurchaseOrder(String prId) {
+        // Stub implementation
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "SUCCESS");
+        response.put("poNumber", "PO-" + System.currentTimeMillis());
+        response.put("prId", prId);
+        response.put("message", "PO created in SAP (stub)");
+        return response;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hpcl.procurement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -24,7 +25,7 @@ public class Approval {
     private Integer approvalLevel;
 
     @Column(name = "status")
-    private String status; // PENDING, APPROVED, REJECTED
+    private String status; // WAITING, PENDING, APPROVED, REJECTED, CANCELLED
 
     @Column(name = "comments", columnDefinition = "TEXT")
     private String comments;
@@ -35,6 +36,21 @@ public class Approval {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "sla_due_at")
+    private LocalDateTime slaDueAt;
+
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
+
+    // Internal to bulk decisions; never exposed or accepted over the API
+    @JsonIgnore
+    @Column(name = "decision_token")
+    private String decisionToken;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -112,4 +128,36 @@ public class Approval {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getSlaDueAt() {
+        return slaDueAt;
+    }
+
+    public void setSlaDueAt(LocalDateTime slaDueAt) {
+        this.slaDueAt = slaDueAt;
+    }
+
+    public LocalDateTime getEscalatedAt() {
+        return escalatedAt;
+    }
+
+    public void setEscalatedAt(LocalDateTime escalatedAt) {
+        this.escalatedAt = escalatedAt;
+    }
+
+    public String getDecisionToken() {
+        return decisionToken;
+    }
+
+    public void setDecisionToken(String decisionToken) {
+        this.decisionToken = decisionToken;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,64 @@
+package com.hpcl.procurement.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "approval_matrix")
+public class ApprovalMatrixEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "role", nullable = false)
+    private String role;
+
+    @Column(name = "approval_level", nullable = false)
+    private Integer approvalLevel;
+
+    @Column(name = "approver_group")
+    private String approverGroup;
+
+    @Column(name = "approver_id", nullable = false)
+    private String approverId;
+
+    @Column(name = "min_value_inr", nullable = false)
+    private BigDecimal minValueInr; // entry applies to PRs at or above this value
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "active")
+    private Boolean active = true;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+    public Integer getApprovalLevel() { return approvalLevel; }
+    public void setApprovalLevel(Integer approvalLevel) { this.approvalLevel = approvalLevel; }
+    public String getApproverGroup() { return approverGroup; }
+    public void setApproverGroup(String approverGroup) { this.approverGroup = approverGroup; }
+    public String getApproverId() { return approverId; }
+    public void setApproverId(String approverId) { this.approverId = approverId; }
+    public BigDecimal getMinValueInr() { return minValueInr; }
+    public void setMinValueInr(BigDecimal minValueInr) { this.minValueInr = minValueInr; }
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,97 @@
+package com.hpcl.procurement.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one bid evaluation for a PR. The ranking, item statistics and outliers are stored as JSON arrays;
+ * they are only ever read back whole.
+ */
+@Entity
+@Table(name = "bid_evaluations")
+public class BidEvaluation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pr_id", nullable = false)
+    private String prId;
+
+    @Column(name = "bid_id")
+    private String bidId;
+
+    @Column(name = "source", nullable = false)
+    private String source; // GEM, UPLOAD
+
+    @Column(name = "quote_count", nullable = false)
+    private Long quoteCount;
+
+    @Column(name = "rejected_count", nullable = false)
+    private Long rejectedCount;
+
+    @Column(name = "vendor_count", nullable = false)
+    private Integer vendorCount;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "l1_vendor")
+    private String l1Vendor;
+
+    @Column(name = "l1_total_inr")
+    private BigDecimal l1TotalInr;
+
+    @Column(name = "ranking_json", columnDefinition = "TEXT")
+    private String rankingJson;
+
+    @Column(name = "items_json", columnDefinition = "TEXT")
+    private String itemsJson;
+
+    @Column(name = "outliers_json", columnDefinition = "TEXT")
+    private String outliersJson;
+
+    @Column(name = "elapsed_ms", nullable = false)
+    private Long elapsedMs;
+
+    @Column(name = "evaluated_at", nullable = false)
+    private LocalDateTime evaluatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (evaluatedAt == null) evaluatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getPrId() { return prId; }
+    public void setPrId(String prId) { this.prId = prId; }
+    public String getBidId() { return bidId; }
+    public void setBidId(String bidId) { this.bidId = bidId; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public Long getQuoteCount() { return quoteCount; }
+    public void setQuoteCount(Long quoteCount) { this.quoteCount = quoteCount; }
+    public Long getRejectedCount() { return rejectedCount; }
+    public void setRejectedCount(Long rejectedCount) { this.rejectedCount = rejectedCount; }
+    public Integer getVendorCount() { return vendorCount; }
+    public void setVendorCount(Integer vendorCount) { this.vendorCount = vendorCount; }
+    public Integer getItemCount() { return itemCount; }
+    public void setItemCount(Integer itemCount) { this.itemCount = itemCount; }
+    public String getL1Vendor() { return l1Vendor; }
+    public void setL1Vendor(String l1Vendor) { this.l1Vendor = l1Vendor; }
+    public BigDecimal getL1TotalInr() { return l1TotalInr; }
+    public void setL1TotalInr(BigDecimal l1TotalInr) { this.l1TotalInr = l1TotalInr; }
+    public String getRankingJson() { return rankingJson; }
+    public void setRankingJson(String rankingJson) { this.rankingJson = rankingJson; }
+    public String getItemsJson() { return itemsJson; }
+    public void setItemsJson(String itemsJson) { this.itemsJson = itemsJson; }
+    public String getOutliersJson() { return outliersJson; }
+    public void setOutliersJson(String outliersJson) { this.outliersJson = outliersJson; }
+    public Long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(Long elapsedMs) { this.elapsedMs = elapsedMs; }
+    public LocalDateTime getEvaluatedAt() { return evaluatedAt; }
+    public void setEvaluatedAt(LocalDateTime evaluatedAt) { this.evaluatedAt = evaluatedAt; }
+}
@@ -44,9 +44,21 @@ public class ExceptionRecord {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "occurrence_count", nullable = false)
+    private Integer occurrenceCount = 1;
+
+    @Column(name = "last_seen_at")
+    private LocalDateTime lastSeenAt;
+
+    @Column(name = "dedup_key")
+    private String dedupKey; // prId|ruleId|exceptionType while unresolved, null otherwise
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (lastSeenAt == null) {
+            lastSeenAt = createdAt;
+        }
     }
 
     // Getters and Setters
@@ -145,4 +157,28 @@ public class ExceptionRecord {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Integer getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(Integer occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public LocalDateTime getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(LocalDateTime lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public void setDedupKey(String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
 }
@@ -0,0 +1,56 @@
+package com.hpcl.procurement.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resume position of a chunked background job. A null runStartedAt means no run is in progress.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    @Column(name = "run_started_at")
+    private LocalDateTime runStartedAt;
+
+    @Column(name = "cursor_created_at")
+    private LocalDateTime cursorCreatedAt;
+
+    @Column(name = "cursor_id")
+    private Long cursorId;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L;
+
+    @Column(name = "affected_count", nullable = false)
+    private Long affectedCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+    public LocalDateTime getRunStartedAt() { return runStartedAt; }
+    public void setRunStartedAt(LocalDateTime runStartedAt) { this.runStartedAt = runStartedAt; }
+    public LocalDateTime getCursorCreatedAt() { return cursorCreatedAt; }
+    public void setCursorCreatedAt(LocalDateTime cursorCreatedAt) { this.cursorCreatedAt = cursorCreatedAt; }
+    public Long getCursorId() { return cursorId; }
+    public void setCursorId(Long cursorId) { this.cursorId = cursorId; }
+    public Long getProcessedCount() { return processedCount; }
+    public void setProcessedCount(Long processedCount) { this.processedCount = processedCount; }
+    public Long getAffectedCount() { return affectedCount; }
+    public void setAffectedCount(Long affectedCount) { this.affectedCount = affectedCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -54,6 +54,25 @@ public class PurchaseRequest {
     @Column(name = "workflow_instance_id")
     private String workflowInstanceId;
 
+    @Column(name = "current_approval_level")
+    private Integer currentApprovalLevel;
+
+    @Column(name = "po_id")
+    private String poId;
+
+    @Column(name = "po_status")
+    private String poStatus;
+
+    @Column(name = "po_status_checked_at")
+    private LocalDateTime poStatusCheckedAt;
+
+    @Column(name = "gem_bid_id")
+    private String gemBidId;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @OneToMany(mappedBy = "purchaseRequest", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PurchaseRequestItem> items = new ArrayList<>();
 
@@ -98,6 +117,18 @@ public class PurchaseRequest {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     public String getWorkflowInstanceId() { return workflowInstanceId; }
     public void setWorkflowInstanceId(String workflowInstanceId) { this.workflowInstanceId = workflowInstanceId; }
+    public Integer getCurrentApprovalLevel() { return currentApprovalLevel; }
+    public void setCurrentApprovalLevel(Integer currentApprovalLevel) { this.currentApprovalLevel = currentApprovalLevel; }
+    public String getPoId() { return poId; }
+    public void setPoId(String poId) { this.poId = poId; }
+    public String getPoStatus() { return poStatus; }
+    public void setPoStatus(String poStatus) { this.poStatus = poStatus; }
+    public LocalDateTime getPoStatusCheckedAt() { return poStatusCheckedAt; }
+    public void setPoStatusCheckedAt(LocalDateTime poStatusCheckedAt) { this.poStatusCheckedAt = poStatusCheckedAt; }
+    public String getGemBidId() { return gemBidId; }
+    public void setGemBidId(String gemBidId) { this.gemBidId = gemBidId; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     public List<PurchaseRequestItem> getItems() { return items; }
     public void setItems(List<PurchaseRequestItem> items) { this.items = items; }
 }
\ No newline at end of file
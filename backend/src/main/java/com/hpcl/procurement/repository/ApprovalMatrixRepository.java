@@ -0,0 +1,19 @@
+package com.hpcl.procurement.repository;
+
+import com.hpcl.procurement.model.ApprovalMatrixEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ApprovalMatrixRepository extends JpaRepository<ApprovalMatrixEntry, Long> {
+    List<ApprovalMatrixEntry> findByActiveOrderByMinValueInrAscApprovalLevelAscIdAsc(Boolean active);
+
+    /**
+     * Cheap change marker: row count plus latest modification time
+     */
+    @Query("select count(e), max(e.updatedAt) from ApprovalMatrixEntry e")
+    List<Object[]> findVersionMarker();
+}
@@ -1,10 +1,20 @@
 package com.hpcl.procurement.repository;
 
 import com.hpcl.procurement.model.Approval;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ApprovalRepository extends JpaRepository<Approval, Long> {
@@ -12,4 +22,51 @@ public interface ApprovalRepository extends JpaRepository<Approval, Long> {
     List<Approval> findByApproverId(String approverId);
     List<Approval> findByApproverIdAndStatus(String approverId, String status);
     List<Approval> findByStatus(String status);
+
+    @Query("select a.id, a.status, a.prId from Approval a where a.id in :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.id from Approval a where a.id in :ids and a.decisionToken = :token")
+    List<Long> findIdsDecidedBy(@Param("ids") Collection<Long> ids, @Param("token") String token);
+
+    /**
+     * Apply a decision to every still-PENDING approval in one UPDATE statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Approval a set a.status = :status, a.comments = :comments, a.approvedAt = :decidedAt, " +
+           "a.decisionToken = :token, a.version = a.version + 1 where a.id in :ids and a.status = 'PENDING'")
+    int decidePending(@Param("ids") Collection<Long> ids,
+                      @Param("status") String status,
+                      @Param("comments") String comments,
+                      @Param("decidedAt") LocalDateTime decidedAt,
+                      @Param("token") String token);
+
+    /**
+     * Keyset page of pending approvals that still carry an armed SLA deadline
+     */
+    @Query("select a from Approval a where a.status = 'PENDING' and a.slaDueAt is not null " +
+           "and a.escalatedAt is null and a.id > :afterId order by a.id")
+    List<Approval> findArmedSlaPage(@Param("afterId") Long afterId, Pageable page);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Approval a set a.escalatedAt = :escalatedAt, a.version = a.version + 1 where a.id in :ids")
+    int markEscalated(@Param("ids") Collection<Long> ids, @Param("escalatedAt") LocalDateTime escalatedAt);
+
+    /**
+     * Forward-only, read-only cursor over every approval in id order; consume inside a transaction
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select a from Approval a order by a.id")
+    Stream<Approval> streamAll();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select a from Approval a where a.status = :status order by a.id")
+    Stream<Approval> streamByStatus(@Param("status") String status);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select a from Approval a where a.approverId = :approverId and a.status = :status order by a.id")
+    Stream<Approval> streamByApproverIdAndStatus(@Param("approverId") String approverId, @Param("status") String status);
 }
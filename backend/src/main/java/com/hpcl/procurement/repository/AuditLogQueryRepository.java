@@ -0,0 +1,117 @@
+package com.hpcl.procurement.repository;
+
+import com.hpcl.procurement.dto.AuditLogFilter;
+import com.hpcl.procurement.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keyset-ordered reads of audit_logs on (performed_at, id), served by idx_audit_performed_at.
+ * Pages never use OFFSET, and exports stream through a forward-only cursor so heap use does not grow with the result.
+ */
+@Repository
+public class AuditLogQueryRepository {
+
+    private static final String COLUMNS =
+        "SELECT id, entity_type, entity_id, action, performed_by, performed_at, old_value, new_value, ip_address FROM audit_logs";
+
+    public static final RowMapper<AuditLog> ROW_MAPPER = (rs, rowNum) -> {
+        AuditLog entry = new AuditLog();
+        entry.setId(rs.getLong("id"));
+        entry.setEntityType(rs.getString("entity_type"));
+        entry.setEntityId(rs.getString("entity_id"));
+        entry.setAction(rs.getString("action"));
+        entry.setPerformedBy(rs.getString("performed_by"));
+        Timestamp performedAt = rs.getTimestamp("performed_at");
+        entry.setPerformedAt(performedAt == null ? null : performedAt.toLocalDateTime());
+        entry.setOldValue(rs.getString("old_value"));
+        entry.setNewValue(rs.getString("new_value"));
+        entry.setIpAddress(rs.getString("ip_address"));
+        return entry;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${procurement.audit.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate streamingTemplate;
+
+    @PostConstruct
+    public void configureStreaming() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        boolean mysql = product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+        streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        // Connector/J only streams row by row with Integer.MIN_VALUE; other drivers honour the fetch size
+        streamingTemplate.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+    }
+
+    /**
+     * Up to {@code limit} entries strictly after the (afterPerformedAt, afterId) cursor; a null cursor starts at the beginning
+     */
+    public List<AuditLog> findPage(AuditLogFilter filter, LocalDateTime afterPerformedAt, Long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = where(filter, args);
+        if (afterPerformedAt != null) {
+            sql.append(" AND (performed_at > ? OR (performed_at = ? AND id > ?))");
+            args.add(Timestamp.valueOf(afterPerformedAt));
+            args.add(Timestamp.valueOf(afterPerformedAt));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY performed_at, id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Hand every matching entry to {@code consumer} in (performed_at, id) order, one row at a time
+     */
+    public void stream(AuditLogFilter filter, Consumer<AuditLog> consumer) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = where(filter, args).append(" ORDER BY performed_at, id");
+        streamingTemplate.query(sql.toString(), rs -> {
+            consumer.accept(ROW_MAPPER.mapRow(rs, 0));
+        }, args.toArray());
+    }
+
+    private static StringBuilder where(AuditLogFilter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder(COLUMNS).append(" WHERE 1 = 1");
+        if (filter.getEntityType() != null) {
+            sql.append(" AND entity_type = ?");
+            args.add(filter.getEntityType());
+        }
+        if (filter.getEntityId() != null) {
+            sql.append(" AND entity_id = ?");
+            args.add(filter.getEntityId());
+        }
+        if (filter.getPerformedBy() != null) {
+            sql.append(" AND performed_by = ?");
+            args.add(filter.getPerformedBy());
+        }
+        if (filter.getAction() != null) {
+            sql.append(" AND action = ?");
+            args.add(filter.getAction());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND performed_at >= ?");
+            args.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND performed_at <= ?");
+            args.add(Timestamp.valueOf(filter.getTo()));
+        }
+        return sql;
+    }
+}
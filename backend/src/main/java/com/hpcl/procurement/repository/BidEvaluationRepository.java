@@ -0,0 +1,12 @@
+package com.hpcl.procurement.repository;
+
+import com.hpcl.procurement.model.BidEvaluation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BidEvaluationRepository extends JpaRepository<BidEvaluation, Long> {
+    Optional<BidEvaluation> findFirstByPrIdOrderByEvaluatedAtDescIdDesc(String prId);
+}
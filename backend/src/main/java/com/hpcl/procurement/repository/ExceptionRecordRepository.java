@@ -1,11 +1,21 @@
 package com.hpcl.procurement.repository;
 
 import com.hpcl.procurement.model.ExceptionRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExceptionRecordRepository extends JpaRepository<ExceptionRecord, Long> {
@@ -14,4 +24,60 @@ public interface ExceptionRecordRepository extends JpaRepository<ExceptionRecord
     List<ExceptionRecord> findByStatus(String status);
     List<ExceptionRecord> findBySeverity(String severity);
     List<ExceptionRecord> findByStatusAndSeverity(String status, String severity);
+    Optional<ExceptionRecord> findByDedupKey(String dedupKey);
+    List<ExceptionRecord> findByDedupKeyIn(Collection<String> dedupKeys);
+
+    /**
+     * Exception ids starting with the given prefix, highest sequence number first (longer suffixes sort first
+     * because the number is only zero-padded to three digits)
+     */
+    @Query("select e.exceptionId from ExceptionRecord e where e.exceptionId like :prefix%"
+        + " order by length(e.exceptionId) desc, e.exceptionId desc")
+    List<String> findExceptionIdsWithPrefix(@Param("prefix") String prefix, Pageable page);
+
+    /**
+     * Keyset page of unresolved exceptions, used to build the in-memory work queue
+     */
+    @Query("select e from ExceptionRecord e where e.status in ('OPEN', 'ESCALATED') and e.id > :afterId order by e.id")
+    List<ExceptionRecord> findUnresolvedPage(@Param("afterId") Long afterId, Pageable page);
+
+    /**
+     * Keyset page of OPEN exceptions created before the cutoff, walking the (status, created_at, id) index.
+     * Returns [id, severity, createdAt] so the scan never hydrates entities.
+     */
+    @Query("select e.id, e.severity, e.createdAt from ExceptionRecord e where e.status = 'OPEN' and e.createdAt < :cutoff"
+        + " and (e.createdAt > :afterCreatedAt or (e.createdAt = :afterCreatedAt and e.id > :afterId))"
+        + " order by e.createdAt, e.id")
+    List<Object[]> findOpenCreatedBeforePage(@Param("cutoff") LocalDateTime cutoff,
+                                             @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                             @Param("afterId") Long afterId, Pageable page);
+
+    long countByStatusAndSeverityAndCreatedAtBefore(String status, String severity, LocalDateTime cutoff);
+
+    /**
+     * Escalate a batch in one statement, bumping severity one step; rows resolved or escalated meanwhile are skipped
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ExceptionRecord e set e.status = 'ESCALATED', e.severity = case e.severity"
+        + " when 'LOW' then 'MEDIUM' when 'MEDIUM' then 'HIGH' else 'CRITICAL' end"
+        + " where e.id in :ids and e.status = 'OPEN'")
+    int escalateOpen(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Forward-only, read-only cursor over every exception in id order; consume inside a transaction
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select e from ExceptionRecord e order by e.id")
+    Stream<ExceptionRecord> streamAll();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select e from ExceptionRecord e where e.status = :status order by e.id")
+    Stream<ExceptionRecord> streamByStatus(@Param("status") String status);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select e from ExceptionRecord e where e.severity = :severity order by e.id")
+    Stream<ExceptionRecord> streamBySeverity(@Param("severity") String severity);
 }
@@ -0,0 +1,68 @@
+package com.hpcl.procurement.repository;
+
+import com.hpcl.procurement.model.ExceptionRecord;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Batched upsert of coalesced exception occurrences keyed by exception_records.dedup_key.
+ * Uses INSERT ... ON DUPLICATE KEY UPDATE on MySQL/MariaDB and standard MERGE elsewhere (H2).
+ */
+@Repository
+public class ExceptionUpsertRepository {
+
+    private static final String MYSQL_UPSERT =
+        "INSERT INTO exception_records (dedup_key, exception_id, pr_id, rule_id, exception_type, severity, " +
+        "description, status, occurrence_count, last_seen_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, 'OPEN', ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE occurrence_count = occurrence_count + VALUES(occurrence_count), " +
+        "last_seen_at = GREATEST(last_seen_at, VALUES(last_seen_at))";
+
+    private static final String MERGE_UPSERT =
+        "MERGE INTO exception_records t USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(50)), " +
+        "CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(20)), " +
+        "CAST(? AS VARCHAR(1000000)), CAST(? AS INT), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))) " +
+        "s(dedup_key, exception_id, pr_id, rule_id, exception_type, severity, description, occurrence_count, last_seen_at, created_at) " +
+        "ON t.dedup_key = s.dedup_key " +
+        "WHEN MATCHED THEN UPDATE SET occurrence_count = t.occurrence_count + s.occurrence_count, " +
+        "last_seen_at = GREATEST(t.last_seen_at, s.last_seen_at) " +
+        "WHEN NOT MATCHED THEN INSERT (dedup_key, exception_id, pr_id, rule_id, exception_type, severity, description, " +
+        "status, occurrence_count, last_seen_at, created_at) VALUES (s.dedup_key, s.exception_id, s.pr_id, s.rule_id, " +
+        "s.exception_type, s.severity, s.description, 'OPEN', s.occurrence_count, s.last_seen_at, s.created_at)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String upsertSql;
+
+    @PostConstruct
+    public void detectDialect() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        boolean mysql = product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+        upsertSql = mysql ? MYSQL_UPSERT : MERGE_UPSERT;
+    }
+
+    /**
+     * Upsert occurrences in one JDBC batch. Each record carries its dedup key, a pre-generated exception id
+     * (used only if the row is new), the number of occurrences seen and the last time one was seen.
+     */
+    public void upsertAll(List<ExceptionRecord> occurrences) {
+        jdbcTemplate.batchUpdate(upsertSql, occurrences, occurrences.size(), (ps, e) -> {
+            ps.setString(1, e.getDedupKey());
+            ps.setString(2, e.getExceptionId());
+            ps.setString(3, e.getPrId());
+            ps.setString(4, e.getRuleId());
+            ps.setString(5, e.getExceptionType());
+            ps.setString(6, e.getSeverity());
+            ps.setString(7, e.getDescription());
+            ps.setInt(8, e.getOccurrenceCount());
+            ps.setTimestamp(9, Timestamp.valueOf(e.getLastSeenAt()));
+            ps.setTimestamp(10, Timestamp.valueOf(e.getCreatedAt()));
+        });
+    }
+}
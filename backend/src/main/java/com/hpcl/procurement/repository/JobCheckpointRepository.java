@@ -0,0 +1,9 @@
+package com.hpcl.procurement.repository;
+
+import com.hpcl.procurement.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
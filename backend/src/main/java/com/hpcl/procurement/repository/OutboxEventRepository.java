@@ -0,0 +1,68 @@
+package com.hpcl.procurement.repository;
+
+import com.hpcl.procurement.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByClaimToken(String claimToken);
+    List<OutboxEvent> findByStatusOrderByIdDesc(String status, Pageable page);
+    boolean existsByDedupKey(String dedupKey);
+
+    /**
+     * Due PENDING rows in id order, skipping any whose aggregate has an earlier event still IN_FLIGHT (claimed by
+     * another lane or dispatcher) or PENDING but backing off; earlier due events are in the same page ahead of them
+     */
+    @Query("select e.id from OutboxEvent e where e.destination = :destination and e.status = 'PENDING'"
+        + " and e.nextAttemptAt <= :now and not exists (select 1 from OutboxEvent p where p.destination = e.destination"
+        + " and p.aggregateId = e.aggregateId and p.id < e.id"
+        + " and (p.status = 'IN_FLIGHT' or (p.status = 'PENDING' and p.nextAttemptAt > :now))) order by e.id")
+    List<Long> findDueIds(@Param("destination") String destination, @Param("now") LocalDateTime now, Pageable page);
+
+    /**
+     * Claim due rows for this dispatcher; rows another instance claimed first are skipped by the status check
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OutboxEvent e set e.status = 'IN_FLIGHT', e.claimToken = :token, e.claimedUntil = :until"
+        + " where e.id in :ids and e.status = 'PENDING'")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("until") LocalDateTime until);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OutboxEvent e set e.status = 'DISPATCHED', e.dispatchedAt = :now, e.claimToken = null,"
+        + " e.attempts = e.attempts + 1 where e.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OutboxEvent e set e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :next,"
+        + " e.lastError = :error, e.claimToken = null where e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") String status, @Param("attempts") int attempts,
+                   @Param("next") LocalDateTime next, @Param("error") String error);
+
+    /**
+     * Return rows whose dispatcher died mid-flight to the queue
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OutboxEvent e set e.status = 'PENDING', e.claimToken = null"
+        + " where e.status = 'IN_FLIGHT' and e.claimedUntil < :now")
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OutboxEvent e set e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now, e.lastError = null"
+        + " where e.id = :id and e.status = 'DEAD'")
+    int requeueDead(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("select e.status, count(e) from OutboxEvent e group by e.status")
+    List<Object[]> countByStatus();
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status in ('PENDING', 'IN_FLIGHT')")
+    LocalDateTime findOldestUndispatchedCreatedAt();
+}
@@ -1,12 +1,53 @@
 package com.hpcl.procurement.repository;
 
 import com.hpcl.procurement.model.PurchaseRequest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PurchaseRequestRepository extends JpaRepository<PurchaseRequest, Long> {
     Optional<PurchaseRequest> findByPrId(String prId);
-}
\ No newline at end of file
+
+    @Query("select p.prId, p.estimatedValueInr from PurchaseRequest p where p.prId in :prIds")
+    List<Object[]> findValuesByPrIdIn(@Param("prIds") Collection<String> prIds);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PurchaseRequest p set p.poId = :poId, p.poStatus = 'CREATED', p.version = p.version + 1"
+        + " where p.prId = :prId")
+    int assignPurchaseOrder(@Param("prId") String prId, @Param("poId") String poId);
+
+    /**
+     * Move a PR from one status to another; 0 if it is no longer in the expected status
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PurchaseRequest p set p.status = :to, p.version = p.version + 1 where p.prId = :prId and p.status = :from")
+    int transitionStatus(@Param("prId") String prId, @Param("from") String from, @Param("to") String to);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PurchaseRequest p set p.status = 'TENDERED', p.gemBidId = :bidId, p.version = p.version + 1"
+        + " where p.prId = :prId and p.status = :from")
+    int markTendered(@Param("prId") String prId, @Param("from") String from, @Param("bidId") String bidId);
+
+    /**
+     * Forward-only, read-only cursor over every PR in id order; consume inside a transaction
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select p from PurchaseRequest p order by p.id")
+    Stream<PurchaseRequest> streamAll();
+}
@@ -1,11 +1,17 @@
 package com.hpcl.procurement.repository;
 
 import com.hpcl.procurement.model.Rule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RuleRepository extends JpaRepository<Rule, Long> {
@@ -13,4 +19,17 @@ public interface RuleRepository extends JpaRepository<Rule, Long> {
     List<Rule> findByCategory(String category);
     List<Rule> findByActive(Boolean active);
     List<Rule> findByCategoryAndActive(String category, Boolean active);
+
+    /**
+     * Forward-only, read-only cursor over every rule in id order; consume inside a transaction
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select r from Rule r order by r.id")
+    Stream<Rule> streamAll();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select r from Rule r where r.active = :active order by r.id")
+    Stream<Rule> streamByActive(@Param("active") Boolean active);
 }
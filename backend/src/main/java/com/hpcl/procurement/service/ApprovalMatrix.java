@@ -0,0 +1,83 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.model.ApprovalMatrixEntry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, pre-compiled view of the approval matrix.
+ * Thresholds are sorted once; each threshold maps to the full approver chain for values at or above it,
+ * so a lookup is a single binary search with no per-call allocation.
+ */
+public final class ApprovalMatrix {
+
+    private static final Comparator<ApprovalMatrixEntry> CHAIN_ORDER =
+        Comparator.comparing(ApprovalMatrixEntry::getApprovalLevel)
+            .thenComparing(ApprovalMatrixEntry::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final BigDecimal[] thresholds;
+    private final List<List<ApprovalMatrixEntry>> chains;
+    private final List<ApprovalMatrixEntry> entries;
+
+    private ApprovalMatrix(BigDecimal[] thresholds, List<List<ApprovalMatrixEntry>> chains,
+                           List<ApprovalMatrixEntry> entries) {
+        this.thresholds = thresholds;
+        this.chains = chains;
+        this.entries = entries;
+    }
+
+    /**
+     * Compile active entries into threshold bands. Entries must be ordered by minimum value.
+     */
+    public static ApprovalMatrix compile(List<ApprovalMatrixEntry> activeEntries) {
+        List<BigDecimal> bounds = new ArrayList<>();
+        List<List<ApprovalMatrixEntry>> chains = new ArrayList<>();
+        List<ApprovalMatrixEntry> cumulative = new ArrayList<>();
+
+        int i = 0;
+        while (i < activeEntries.size()) {
+            BigDecimal bound = activeEntries.get(i).getMinValueInr();
+            while (i < activeEntries.size() && activeEntries.get(i).getMinValueInr().compareTo(bound) == 0) {
+                cumulative.add(activeEntries.get(i));
+                i++;
+            }
+            List<ApprovalMatrixEntry> chain = new ArrayList<>(cumulative);
+            chain.sort(CHAIN_ORDER);
+            bounds.add(bound);
+            chains.add(Collections.unmodifiableList(chain));
+        }
+        return new ApprovalMatrix(bounds.toArray(new BigDecimal[0]), Collections.unmodifiableList(chains),
+            Collections.unmodifiableList(new ArrayList<>(activeEntries)));
+    }
+
+    /**
+     * Approver chain for a PR value, ordered by level. Entries sharing a level approve in parallel.
+     */
+    public List<ApprovalMatrixEntry> chainFor(BigDecimal value) {
+        int lo = 0;
+        int hi = thresholds.length - 1;
+        int match = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (thresholds[mid].compareTo(value) <= 0) {
+                match = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        // Values below the lowest threshold still need the first band's approvers
+        if (match < 0) {
+            return chains.isEmpty() ? Collections.emptyList() : chains.get(0);
+        }
+        return chains.get(match);
+    }
+
+    public List<ApprovalMatrixEntry> getEntries() {
+        return entries;
+    }
+}
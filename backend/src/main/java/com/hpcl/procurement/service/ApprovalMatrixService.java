@@ -0,0 +1,99 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.model.ApprovalMatrixEntry;
+import com.hpcl.procurement.repository.ApprovalMatrixRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the compiled approval matrix and swaps it atomically whenever the approval_matrix table changes.
+ */
+@Service
+public class ApprovalMatrixService {
+
+    @Autowired
+    private ApprovalMatrixRepository matrixRepository;
+
+    private volatile ApprovalMatrix matrix = ApprovalMatrix.compile(List.of());
+    private volatile Object[] versionMarker;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    public List<ApprovalMatrixEntry> chainFor(BigDecimal estimatedValue) {
+        return matrix.chainFor(estimatedValue);
+    }
+
+    public List<ApprovalMatrixEntry> getActiveEntries() {
+        return matrix.getEntries();
+    }
+
+    public List<ApprovalMatrixEntry> getAllEntries() {
+        return matrixRepository.findAll();
+    }
+
+    public ApprovalMatrixEntry createEntry(ApprovalMatrixEntry entry) {
+        ApprovalMatrixEntry saved = matrixRepository.save(entry);
+        refresh();
+        return saved;
+    }
+
+    public ApprovalMatrixEntry updateEntry(Long id, ApprovalMatrixEntry updated) {
+        ApprovalMatrixEntry saved = matrixRepository.findById(id)
+            .map(existing -> {
+                existing.setRole(updated.getRole());
+                existing.setApprovalLevel(updated.getApprovalLevel());
+                existing.setApproverGroup(updated.getApproverGroup());
+                existing.setApproverId(updated.getApproverId());
+                existing.setMinValueInr(updated.getMinValueInr());
+                existing.setNotes(updated.getNotes());
+                existing.setActive(updated.getActive());
+                return matrixRepository.save(existing);
+            })
+            .orElseThrow(() -> new RuntimeException("Approval matrix entry not found with id: " + id));
+        refresh();
+        return saved;
+    }
+
+    /**
+     * Reload and recompile the matrix from the database; the lock (not a monitor, as it spans the query) keeps an
+     * older reload from overwriting a newer one
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            Object[] marker = currentMarker();
+            matrix = ApprovalMatrix.compile(matrixRepository.findByActiveOrderByMinValueInrAscApprovalLevelAscIdAsc(true));
+            versionMarker = marker;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Picks up edits made directly in the table (e.g. by a DBA) without reloading on every poll
+     */
+    @Scheduled(fixedDelayString = "${procurement.approval-matrix.refresh-interval-ms:60000}")
+    public void refreshIfChanged() {
+        Object[] marker = currentMarker();
+        Object[] known = versionMarker;
+        if (known == null || !Objects.equals(marker[0], known[0]) || !Objects.equals(marker[1], known[1])) {
+            refresh();
+        }
+    }
+
+    private Object[] currentMarker() {
+        List<Object[]> rows = matrixRepository.findVersionMarker();
+        return rows.isEmpty() ? new Object[2] : rows.get(0);
+    }
+}
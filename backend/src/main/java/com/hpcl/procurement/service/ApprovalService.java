@@ -1,101 +1,396 @@
 package com.hpcl.procurement.service;
 
+import com.hpcl.procurement.dto.BulkApprovalResponse;
 import com.hpcl.procurement.model.Approval;
+import com.hpcl.procurement.model.ApprovalMatrixEntry;
+import com.hpcl.procurement.model.AuditLog;
+import com.hpcl.procurement.model.PurchaseRequest;
 import com.hpcl.procurement.repository.ApprovalRepository;
+import com.hpcl.procurement.repository.PurchaseRequestRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PessimisticLockException;
+import org.hibernate.StaleStateException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+/**
+ * Approval chains run as an ordered state machine: only the lowest open level is PENDING, later levels wait
+ * as WAITING, and approvals sharing a level form a parallel stage. Every decision force-increments the parent
+ * PR's version, so concurrent decisions on one PR are serialized by optimistic version checks and retried
+ * instead of holding pessimistic locks; exactly one of them can close a stage and activate the next.
+ */
 @Service
 public class ApprovalService {
 
+    // Keeps IN (...) lists well below driver/optimizer limits
+    private static final int BULK_CHUNK_SIZE = 500;
+
     @Autowired
     private ApprovalRepository approvalRepository;
 
-    public List<Approval> getAllApprovals() {
-        return approvalRepository.findAll();
-    }
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private ApprovalMatrixService approvalMatrixService;
+
+    @Autowired
+    private ApprovalSlaService approvalSlaService;
+
+    @Autowired
+    private PurchaseRequestRepository purchaseRequestRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${procurement.approvals.bulk-max-size:1000}")
+    private int bulkMaxSize;
+
+    @Value("${procurement.approvals.max-decision-attempts:10}")
+    private int maxDecisionAttempts;
 
     public List<Approval> getApprovalsByPrId(String prId) {
         return approvalRepository.findByPrId(prId);
     }
 
-    public List<Approval> getApprovalInbox(String approverId) {
-        return approvalRepository.findByApproverIdAndStatus(approverId, "PENDING");
+    /**
+     * Every approval in id order as a database cursor; consume and close it inside a transaction, as the
+     * stream methods below
+     */
+    public Stream<Approval> streamAllApprovals() {
+        return approvalRepository.streamAll();
+    }
+
+    public Stream<Approval> streamApprovalInbox(String approverId) {
+        return approvalRepository.streamByApproverIdAndStatus(approverId, "PENDING");
     }
 
-    public List<Approval> getPendingApprovals() {
-        return approvalRepository.findByStatus("PENDING");
+    public Stream<Approval> streamPendingApprovals() {
+        return approvalRepository.streamByStatus("PENDING");
     }
 
     public Approval createApproval(Approval approval) {
         if (approval.getStatus() == null) {
             approval.setStatus("PENDING");
         }
-        return approvalRepository.save(approval);
+        BigDecimal prValue = purchaseRequestRepository.findByPrId(approval.getPrId())
+            .map(PurchaseRequest::getEstimatedValueInr)
+            .orElse(null);
+        approvalSlaService.applyDeadlines(List.of(approval), prValue);
+        Approval saved = approvalRepository.save(approval);
+        approvalSlaService.armAfterCommit(List.of(saved));
+        return saved;
     }
 
     public Approval approve(Long approvalId, String comments, String approverId) {
-        return approvalRepository.findById(approvalId)
-            .map(approval -> {
-                approval.setStatus("APPROVED");
-                approval.setComments(comments);
-                approval.setApprovedAt(LocalDateTime.now());
-                return approvalRepository.save(approval);
-            })
-            .orElseThrow(() -> new RuntimeException("Approval not found with id: " + approvalId));
+        return decide(approvalId, "APPROVED", comments);
     }
 
     public Approval reject(Long approvalId, String comments, String approverId) {
-        return approvalRepository.findById(approvalId)
-            .map(approval -> {
-                approval.setStatus("REJECTED");
-                approval.setComments(comments);
-                approval.setApprovedAt(LocalDateTime.now());
-                return approvalRepository.save(approval);
-            })
-            .orElseThrow(() -> new RuntimeException("Approval not found with id: " + approvalId));
+        return decide(approvalId, "REJECTED", comments);
+    }
+
+    private Approval decide(Long approvalId, String status, String comments) {
+        return withRetry(() -> {
+            Approval approval = approvalRepository.findById(approvalId)
+                .orElseThrow(() -> new RuntimeException("Approval not found with id: " + approvalId));
+            if (!"PENDING".equals(approval.getStatus())) {
+                throw new IllegalStateException("Approval " + approvalId + " is " + approval.getStatus() + ", not PENDING");
+            }
+            Optional<PurchaseRequest> pr = purchaseRequestRepository.findByPrId(approval.getPrId());
+            pr.ifPresent(p -> entityManager.lock(p, LockModeType.OPTIMISTIC_FORCE_INCREMENT));
+
+            approval.setStatus(status);
+            approval.setComments(comments);
+            approval.setApprovedAt(LocalDateTime.now());
+
+            List<Long> closed = new ArrayList<>();
+            closed.add(approvalId);
+            pr.ifPresent(p -> advance(p, approvalRepository.findByPrId(p.getPrId()), closed));
+            approvalSlaService.disarmAfterCommit(closed);
+            return approval;
+        });
+    }
+
+    /**
+     * Decide the PR's active stage as a whole (the legacy PR-level approve/reject): every PENDING approval of the
+     * stage takes the decision and the chain advances as if each approver had decided, so approving moves the PR
+     * one stage on and rejecting cancels the rest of the chain. Empty if the PR does not exist.
+     */
+    public Optional<PurchaseRequest> decideActiveStage(String prId, String status, String comments) {
+        return withRetry(() -> purchaseRequestRepository.findByPrId(prId).map(pr -> {
+            if (!"PENDING_APPROVAL".equals(pr.getStatus())) {
+                throw new IllegalStateException("PR " + prId + " is " + pr.getStatus() + ", not PENDING_APPROVAL");
+            }
+            entityManager.lock(pr, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            List<Approval> approvals = approvalRepository.findByPrId(prId);
+            List<Long> closed = new ArrayList<>();
+            LocalDateTime decidedAt = LocalDateTime.now();
+            for (Approval approval : approvals) {
+                if ("PENDING".equals(approval.getStatus())) {
+                    approval.setStatus(status);
+                    approval.setComments(comments);
+                    approval.setApprovedAt(decidedAt);
+                    closed.add(approval.getId());
+                }
+            }
+            if (closed.isEmpty()) {
+                throw new IllegalStateException("PR " + prId + " has no PENDING approvals");
+            }
+            advance(pr, approvals, closed);
+            approvalSlaService.disarmAfterCommit(closed);
+            return pr;
+        }));
     }
 
     /**
-     * Create approval workflow for a PR based on value thresholds
+     * Apply one decision (APPROVE or REJECT) to many approvals in a single transaction.
+     * Pending approvals are updated with one UPDATE per chunk of ids and audited with one batch insert;
+     * every requested id gets an outcome of APPLIED, ALREADY_DECIDED (approved or rejected), NOT_ACTIONABLE
+     * (its stage is not active yet, or the chain was cancelled) or NOT_FOUND.
      */
-    public List<Approval> createApprovalWorkflow(String prId, String category, java.math.BigDecimal estimatedValue) {
-        List<Approval> approvals = new java.util.ArrayList<>();
-        
-        // Level 1: Department Manager (always required)
-        Approval level1 = new Approval();
-        level1.setPrId(prId);
-        level1.setApprovalLevel(1);
-        level1.setApproverId("dept.manager@hpcl.co.in");
-        level1.setApproverName("Department Manager");
-        level1.setStatus("PENDING");
-        approvals.add(approvalRepository.save(level1));
-        
-        // Level 2: CFO (for values > 10 lakhs)
-        if (estimatedValue.compareTo(new java.math.BigDecimal("1000000")) > 0) {
-            Approval level2 = new Approval();
-            level2.setPrId(prId);
-            level2.setApprovalLevel(2);
-            level2.setApproverId("cfo@hpcl.co.in");
-            level2.setApproverName("Chief Financial Officer");
-            level2.setStatus("PENDING");
-            approvals.add(approvalRepository.save(level2));
-        }
-        
-        // Level 3: Board (for values > 5 Cr)
-        if (estimatedValue.compareTo(new java.math.BigDecimal("50000000")) > 0) {
-            Approval level3 = new Approval();
-            level3.setPrId(prId);
-            level3.setApprovalLevel(3);
-            level3.setApproverId("board@hpcl.co.in");
-            level3.setApproverName("Board of Directors");
-            level3.setStatus("PENDING");
-            approvals.add(approvalRepository.save(level3));
-        }
-        
-        return approvals;
+    public BulkApprovalResponse bulkDecide(List<Long> approvalIds, String decision, String comments, String approverId) {
+        if (approvalIds.size() > bulkMaxSize) {
+            throw new IllegalArgumentException("At most " + bulkMaxSize + " approvals can be decided at once");
+        }
+        return withRetry(() -> decideInBulk(approvalIds, decision, comments, approverId));
+    }
+
+    private BulkApprovalResponse decideInBulk(List<Long> approvalIds, String decision, String comments, String approverId) {
+        String status = "APPROVE".equals(decision) ? "APPROVED" : "REJECTED";
+        LocalDateTime decidedAt = LocalDateTime.now();
+        // Marks the rows this attempt updated, so concurrent bulk calls never claim each other's rows
+        String token = UUID.randomUUID().toString();
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(approvalIds));
+        Map<Long, String> outcomes = new HashMap<>();
+        Map<Long, String> prIds = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            decideChunk(chunk, status, comments, decidedAt, token, outcomes, prIds);
+        }
+
+        BulkApprovalResponse response = new BulkApprovalResponse(decision);
+        List<AuditLog> auditEntries = new ArrayList<>();
+        List<Long> appliedIds = new ArrayList<>();
+        for (Long id : ids) {
+            String outcome = outcomes.get(id);
+            response.add(id, outcome);
+            if (BulkApprovalResponse.APPLIED.equals(outcome)) {
+                appliedIds.add(id);
+                AuditLog entry = new AuditLog();
+                entry.setEntityType("APPROVAL");
+                entry.setEntityId(String.valueOf(id));
+                entry.setAction(decision);
+                entry.setPerformedBy(approverId);
+                entry.setPerformedAt(decidedAt);
+                entry.setOldValue("PENDING");
+                entry.setNewValue(status);
+                auditEntries.add(entry);
+            }
+        }
+        // One stage transition per affected PR, after all rows of the batch are decided
+        Set<String> affectedPrs = new LinkedHashSet<>();
+        appliedIds.forEach(id -> affectedPrs.add(prIds.get(id)));
+        List<Long> closed = new ArrayList<>(appliedIds);
+        for (String prId : affectedPrs) {
+            purchaseRequestRepository.findByPrId(prId).ifPresent(pr -> {
+                entityManager.lock(pr, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+                advance(pr, approvalRepository.findByPrId(prId), closed);
+            });
+        }
+
+        auditService.logActions(auditEntries);
+        approvalSlaService.disarmAfterCommit(closed);
+        return response;
+    }
+
+    private void decideChunk(List<Long> chunk, String status, String comments, LocalDateTime decidedAt, String token,
+                             Map<Long, String> outcomes, Map<Long, String> prIds) {
+        List<Long> pending = new ArrayList<>();
+        Set<Long> found = new HashSet<>();
+        for (Object[] row : approvalRepository.findStatusesByIdIn(chunk)) {
+            Long id = (Long) row[0];
+            found.add(id);
+            prIds.put(id, (String) row[2]);
+            if ("PENDING".equals(row[1])) {
+                pending.add(id);
+            } else {
+                outcomes.put(id, notPendingOutcome((String) row[1]));
+            }
+        }
+        for (Long id : chunk) {
+            if (!found.contains(id)) {
+                outcomes.put(id, BulkApprovalResponse.NOT_FOUND);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        int updated = approvalRepository.decidePending(pending, status, comments, decidedAt, token);
+        resourceVersions.changed(ResourceVersions.APPROVAL);
+        if (updated == pending.size()) {
+            pending.forEach(id -> outcomes.put(id, BulkApprovalResponse.APPLIED));
+            return;
+        }
+        // Someone changed part of the chunk between our read and the update; our rows carry this call's token
+        Set<Long> applied = new HashSet<>(approvalRepository.findIdsDecidedBy(pending, token));
+        pending.forEach(id -> outcomes.put(id, BulkApprovalResponse.NOT_FOUND));
+        for (Object[] row : approvalRepository.findStatusesByIdIn(pending)) {
+            Long id = (Long) row[0];
+            outcomes.put(id, applied.contains(id) ? BulkApprovalResponse.APPLIED : notPendingOutcome((String) row[1]));
+        }
+    }
+
+    private static String notPendingOutcome(String status) {
+        return "APPROVED".equals(status) || "REJECTED".equals(status)
+            ? BulkApprovalResponse.ALREADY_DECIDED : BulkApprovalResponse.NOT_ACTIONABLE;
+    }
+
+    /**
+     * Create approval workflow for a PR from the approval matrix.
+     * The chain comes from one in-memory lookup and is inserted with a single saveAll; the lowest level
+     * starts PENDING and the rest WAITING until their stage is reached.
+     */
+    @Transactional
+    public List<Approval> createApprovalWorkflow(String prId, String category, BigDecimal estimatedValue) {
+        boolean inProgress = approvalRepository.findByPrId(prId).stream()
+            .anyMatch(a -> "PENDING".equals(a.getStatus()) || "WAITING".equals(a.getStatus()));
+        if (inProgress) {
+            throw new IllegalStateException("PR " + prId + " already has an approval workflow in progress");
+        }
+
+        List<ApprovalMatrixEntry> chain = approvalMatrixService.chainFor(estimatedValue);
+        Integer firstLevel = chain.isEmpty() ? null : chain.get(0).getApprovalLevel();
+        List<Approval> approvals = new ArrayList<>();
+        for (ApprovalMatrixEntry entry : chain) {
+            Approval approval = new Approval();
+            approval.setPrId(prId);
+            approval.setApprovalLevel(entry.getApprovalLevel());
+            approval.setApproverId(entry.getApproverId());
+            approval.setApproverName(entry.getRole());
+            approval.setStatus(entry.getApprovalLevel().equals(firstLevel) ? "PENDING" : "WAITING");
+            approvals.add(approval);
+        }
+        approvalSlaService.applyDeadlines(approvals, estimatedValue);
+        List<Approval> saved = approvalRepository.saveAll(approvals);
+        approvalSlaService.armAfterCommit(saved);
+
+        purchaseRequestRepository.findByPrId(prId).ifPresent(pr -> {
+            entityManager.lock(pr, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            pr.setStatus(firstLevel == null ? "APPROVED" : "PENDING_APPROVAL");
+            pr.setCurrentApprovalLevel(firstLevel);
+            if (firstLevel == null) {
+                outboxService.enqueuePrApproved(pr);
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Move a PR's chain forward after a decision: a rejection cancels every open approval and rejects the PR,
+     * closing the last PENDING approval of a stage activates the next WAITING level, and closing the final
+     * stage approves the PR. Callers must hold the PR's version (OPTIMISTIC_FORCE_INCREMENT).
+     */
+    private void advance(PurchaseRequest pr, List<Approval> approvals, List<Long> closed) {
+        if (approvals.stream().anyMatch(a -> "REJECTED".equals(a.getStatus()))) {
+            for (Approval approval : approvals) {
+                if ("PENDING".equals(approval.getStatus()) || "WAITING".equals(approval.getStatus())) {
+                    approval.setStatus("CANCELLED");
+                    closed.add(approval.getId());
+                }
+            }
+            pr.setStatus("REJECTED");
+            pr.setCurrentApprovalLevel(null);
+            return;
+        }
+        if (approvals.stream().anyMatch(a -> "PENDING".equals(a.getStatus()))) {
+            return;
+        }
+        Integer nextLevel = approvals.stream()
+            .filter(a -> "WAITING".equals(a.getStatus()))
+            .map(Approval::getApprovalLevel)
+            .min(Integer::compare)
+            .orElse(null);
+        if (nextLevel == null) {
+            pr.setStatus("APPROVED");
+            pr.setCurrentApprovalLevel(null);
+            outboxService.enqueuePrApproved(pr);
+            return;
+        }
+        List<Approval> stage = new ArrayList<>();
+        for (Approval approval : approvals) {
+            if ("WAITING".equals(approval.getStatus()) && nextLevel.equals(approval.getApprovalLevel())) {
+                approval.setStatus("PENDING");
+                stage.add(approval);
+            }
+        }
+        approvalSlaService.applyDeadlines(stage, pr.getEstimatedValueInr());
+        approvalSlaService.armAfterCommit(stage);
+        pr.setCurrentApprovalLevel(nextLevel);
+    }
+
+    /**
+     * Run work in its own transaction, retrying with jittered backoff when it loses a version check
+     */
+    private <T> T withRetry(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (attempt >= maxDecisionAttempts || !isConcurrencyConflict(e)) {
+                    throw e;
+                }
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(1, 2L * attempt + 1) * 1_000_000L);
+            }
+        }
+    }
+
+    private static boolean isConcurrencyConflict(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConcurrencyFailureException || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException || t instanceof PessimisticLockException
+                    || t instanceof LockTimeoutException || t instanceof org.hibernate.PessimisticLockException
+                    || t instanceof org.hibernate.exception.LockAcquisitionException) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,281 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.model.Approval;
+import com.hpcl.procurement.model.AuditLog;
+import com.hpcl.procurement.model.ExceptionRecord;
+import com.hpcl.procurement.repository.ApprovalRepository;
+import com.hpcl.procurement.util.HierarchicalTimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SLA tracking for pending approvals.
+ * Each armed approval holds one timer in a hierarchical timing wheel driven by a single thread, so open
+ * deadlines cost memory but no database polling. Expired approvals are escalated in batches by raising an
+ * SLA_BREACH exception and stamping escalated_at. Deadlines are persisted on the approval row and re-armed on startup.
+ */
+@Service
+public class ApprovalSlaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApprovalSlaService.class);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private ExceptionService exceptionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Value("${procurement.sla.enabled:true}")
+    private boolean enabled;
+
+    @Value("${procurement.sla.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${procurement.sla.level-hours:24,48,72,96,120}")
+    private int[] levelHours;
+
+    @Value("${procurement.sla.high-value-threshold-inr:5000000}")
+    private BigDecimal highValueThreshold;
+
+    @Value("${procurement.sla.high-value-factor:0.5}")
+    private double highValueFactor;
+
+    @Value("${procurement.sla.escalation-batch-size:500}")
+    private int escalationBatchSize;
+
+    @Value("${procurement.sla.reload-page-size:5000}")
+    private int reloadPageSize;
+
+    private final Map<Long, HierarchicalTimingWheel.Timer<Long>> timers = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<long[]> registrations = new ConcurrentLinkedQueue<>();
+    private final AtomicLong escalatedCount = new AtomicLong();
+    private final AtomicLong lastTickLagMs = new AtomicLong();
+
+    private HierarchicalTimingWheel<Long> wheel;
+    private ScheduledExecutorService driver;
+    private ExecutorService escalator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        wheel = new HierarchicalTimingWheel<>(tickMs, 6, 4, System.currentTimeMillis());
+        reloadArmedDeadlines();
+        escalator = Executors.newSingleThreadExecutor(r -> new Thread(r, "approval-sla-escalation"));
+        driver = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "approval-sla-wheel"));
+        driver.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (driver != null) {
+            driver.shutdownNow();
+            escalator.shutdown();
+        }
+    }
+
+    /**
+     * Set slaDueAt on new approvals from their level and the PR value (high-value PRs get a tighter SLA)
+     */
+    public void applyDeadlines(Collection<Approval> approvals, BigDecimal prValue) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Approval approval : approvals) {
+            if ("PENDING".equals(approval.getStatus())) {
+                approval.setSlaDueAt(now.plusMinutes(slaMinutes(approval.getApprovalLevel(), prValue)));
+            }
+        }
+    }
+
+    /**
+     * Arm timers for saved approvals once the surrounding transaction commits
+     */
+    public void armAfterCommit(Collection<Approval> approvals) {
+        List<long[]> armed = new ArrayList<>();
+        for (Approval approval : approvals) {
+            if (approval.getSlaDueAt() != null && approval.getEscalatedAt() == null) {
+                armed.add(new long[]{approval.getId(), toEpochMs(approval.getSlaDueAt())});
+            }
+        }
+        afterCommit(() -> registrations.addAll(armed));
+    }
+
+    /**
+     * Drop timers of decided approvals once the surrounding transaction commits
+     */
+    public void disarmAfterCommit(Collection<Long> approvalIds) {
+        List<Long> ids = new ArrayList<>(approvalIds);
+        afterCommit(() -> ids.forEach(id -> {
+            HierarchicalTimingWheel.Timer<Long> timer = timers.remove(id);
+            if (timer != null) {
+                timer.cancel();
+            }
+        }));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("openTimers", timers.size());
+        stats.put("queuedRegistrations", registrations.size());
+        stats.put("escalated", escalatedCount.get());
+        stats.put("lastTickLagMs", lastTickLagMs.get());
+        return stats;
+    }
+
+    private long slaMinutes(Integer level, BigDecimal prValue) {
+        int index = Math.min(Math.max(level == null ? 1 : level, 1), levelHours.length) - 1;
+        double minutes = levelHours[index] * 60.0;
+        if (prValue != null && prValue.compareTo(highValueThreshold) >= 0) {
+            minutes *= highValueFactor;
+        }
+        return Math.max(1, Math.round(minutes));
+    }
+
+    private void tick() {
+        try {
+            long start = System.currentTimeMillis();
+            long[] registration;
+            while ((registration = registrations.poll()) != null) {
+                HierarchicalTimingWheel.Timer<Long> timer = wheel.schedule(registration[1], registration[0]);
+                HierarchicalTimingWheel.Timer<Long> previous = timers.put(registration[0], timer);
+                if (previous != null) {
+                    previous.cancel();
+                }
+            }
+
+            List<Long> due = new ArrayList<>();
+            wheel.advanceTo(start, approvalId -> {
+                HierarchicalTimingWheel.Timer<Long> timer = timers.get(approvalId);
+                if (timer != null && !timer.isCancelled() && timer.getDeadlineMs() <= start) {
+                    timers.remove(approvalId, timer);
+                    due.add(approvalId);
+                }
+            });
+            for (int from = 0; from < due.size(); from += escalationBatchSize) {
+                List<Long> batch = new ArrayList<>(due.subList(from, Math.min(from + escalationBatchSize, due.size())));
+                escalator.execute(() -> escalate(batch));
+            }
+            lastTickLagMs.set(System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("SLA wheel tick failed", e);
+        }
+    }
+
+    private void escalate(List<Long> approvalIds) {
+        try {
+            Integer escalated = new TransactionTemplate(transactionManager).execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<ExceptionRecord> breaches = new ArrayList<>();
+                List<Long> escalatedIds = new ArrayList<>();
+                for (Approval approval : approvalRepository.findAllById(approvalIds)) {
+                    // The row is the source of truth: skip anything decided or re-armed since the timer was set
+                    if (!"PENDING".equals(approval.getStatus()) || approval.getEscalatedAt() != null
+                            || approval.getSlaDueAt() == null || approval.getSlaDueAt().isAfter(now)) {
+                        continue;
+                    }
+                    breaches.add(toBreach(approval));
+                    escalatedIds.add(approval.getId());
+                }
+                if (escalatedIds.isEmpty()) {
+                    return 0;
+                }
+                exceptionService.raiseExceptions(breaches);
+                approvalRepository.markEscalated(escalatedIds, now);
+                List<AuditLog> audits = new ArrayList<>(escalatedIds.size());
+                for (Long id : escalatedIds) {
+                    audits.add(AuditService.systemEntry("APPROVAL", id, "UPDATE", "{\"escalatedAt\":null}",
+                        "{\"escalatedAt\":\"" + now + "\"}"));
+                }
+                auditService.logActions(audits);
+                resourceVersions.changed(ResourceVersions.APPROVAL);
+                return escalatedIds.size();
+            });
+            escalatedCount.addAndGet(escalated == null ? 0 : escalated);
+        } catch (RuntimeException e) {
+            log.error("Failed to escalate {} approvals past SLA", approvalIds.size(), e);
+        }
+    }
+
+    private ExceptionRecord toBreach(Approval approval) {
+        ExceptionRecord breach = new ExceptionRecord();
+        breach.setPrId(approval.getPrId());
+        breach.setExceptionType("SLA_BREACH");
+        Integer level = approval.getApprovalLevel();
+        breach.setSeverity(level != null && level >= 3 ? "HIGH" : "MEDIUM");
+        breach.setDescription(String.format("Approval %d (level %s, %s) pending past SLA due %s",
+            approval.getId(), level, approval.getApproverId(), approval.getSlaDueAt()));
+        return breach;
+    }
+
+    private void reloadArmedDeadlines() {
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<Approval> page = approvalRepository.findArmedSlaPage(afterId, PageRequest.of(0, reloadPageSize));
+            for (Approval approval : page) {
+                registrations.add(new long[]{approval.getId(), toEpochMs(approval.getSlaDueAt())});
+            }
+            loaded += page.size();
+            if (page.size() < reloadPageSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Re-armed {} approval SLA deadlines", loaded);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,348 @@
+package com.hpcl.procurement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hpcl.procurement.model.AuditLog;
+import com.hpcl.procurement.util.MpscRingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Moves audit writes off the request path. Producers publish into a bounded lock-free ring buffer (one CAS,
+ * no allocation beyond the event), and a single writer thread drains it into batch inserts whenever a batch
+ * fills or the flush interval elapses. When the buffer is full the configured backpressure mode applies.
+ * Batches that fail to insert are spilled to the local file as well and replayed once the database recovers.
+ * {@link #stop()} drains everything still buffered before returning.
+ */
+public final class AsyncAuditWriter {
+
+    public enum Backpressure { BLOCK, DROP, SPILL }
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAuditWriter.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SPILL_RETRY_MS = 10_000;
+
+    private final MpscRingBuffer<AuditLog> buffer;
+    private final Consumer<List<AuditLog>> sink;
+    private final ObjectMapper objectMapper;
+    private final Backpressure backpressure;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Path spillFile;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    // Serializes appends to the spill file with the replay's rename of it; held across file I/O, so not a monitor
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private volatile long lastBatchMicros;
+    private long droppedReported;
+    private long nextSpillReplayMs;
+    // Live batches written when a replay last failed outright; more since then means the database is up
+    private long batchesAtReplayFailure = Long.MAX_VALUE;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AsyncAuditWriter(Consumer<List<AuditLog>> sink, ObjectMapper objectMapper, int capacity, int batchSize,
+                            long flushIntervalMs, Backpressure backpressure, Path spillFile) {
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.sink = sink;
+        this.objectMapper = objectMapper;
+        this.backpressure = backpressure;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.spillFile = spillFile;
+    }
+
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer thread and flush whatever is still buffered
+     */
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything published after the writer exited
+        List<AuditLog> rest = new ArrayList<>();
+        buffer.drain(rest::add, Integer.MAX_VALUE);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+    }
+
+    public void enqueue(AuditLog entry) {
+        if (buffer.offer(entry)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        switch (backpressure) {
+            case DROP:
+                dropped.incrementAndGet();
+                return;
+            case SPILL:
+                spill(List.of(entry));
+                return;
+            default:
+                long start = System.nanoTime();
+                LockSupport.unpark(writer);
+                while (!buffer.offer(entry)) {
+                    if (!running) {
+                        // Writer is gone; do not lose the entry
+                        sink.accept(List.of(entry));
+                        written.incrementAndGet();
+                        return;
+                    }
+                    LockSupport.parkNanos(50_000);
+                }
+                enqueued.incrementAndGet();
+                blockedNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backpressure", backpressure.name());
+        stats.put("capacity", buffer.capacity());
+        stats.put("depth", buffer.size());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("dropped", dropped.get());
+        stats.put("spilled", spilled.get());
+        stats.put("replayedFromSpill", replayed.get());
+        stats.put("rejectedFromSpill", rejected.get());
+        stats.put("producerBlockedMs", TimeUnit.NANOSECONDS.toMillis(blockedNanos.get()));
+        stats.put("lastBatchMicros", lastBatchMicros);
+        return stats;
+    }
+
+    private void runWriter() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long batchStarted = System.nanoTime();
+        replaySpill();
+        while (running) {
+            int drained = buffer.drain(batch::add, batchSize - batch.size());
+            long now = System.nanoTime();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - batchStarted >= flushIntervalNanos)) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+                batchStarted = now;
+                continue;
+            }
+            if (batch.isEmpty()) {
+                batchStarted = now;
+                maintenance();
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        buffer.drain(batch::add, Integer.MAX_VALUE);
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.accept(batch);
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+            lastBatchMicros = (System.nanoTime() - start) / 1000;
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            log.error("Audit batch of {} entries failed; spilling to {}", batch.size(), spillFile, e);
+            spill(batch);
+        }
+    }
+
+    private void maintenance() {
+        long droppedNow = dropped.get();
+        if (droppedNow != droppedReported) {
+            log.warn("Audit buffer full: {} entries dropped so far", droppedNow);
+            droppedReported = droppedNow;
+        }
+        if (System.currentTimeMillis() >= nextSpillReplayMs) {
+            replaySpill();
+        }
+    }
+
+    private void spill(List<AuditLog> entries) {
+        spillLock.lock();
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditLog entry : entries) {
+                    out.write(objectMapper.writeValueAsString(entry));
+                    out.newLine();
+                }
+            }
+            spilled.addAndGet(entries.size());
+        } catch (IOException e) {
+            dropped.addAndGet(entries.size());
+            log.error("Could not spill {} audit entries to {}", entries.size(), spillFile, e);
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Re-insert spilled entries; the file is renamed first so concurrent spills start a fresh file.
+     * The number of lines already delivered is persisted next to it after every batch, so a replay that fails
+     * midway resumes where it stopped instead of inserting the earlier batches again. Lines that do not parse
+     * (e.g. torn by a crash mid-spill) and entries the sink rejects while the database is demonstrably up are
+     * moved to a .rejected file rather than retried forever.
+     */
+    private void replaySpill() {
+        nextSpillReplayMs = System.currentTimeMillis() + SPILL_RETRY_MS;
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        Path offsetFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay.offset");
+        try {
+            spillLock.lock();
+            try {
+                if (!Files.exists(replaying)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.deleteIfExists(offsetFile);
+                    Files.move(spillFile, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                spillLock.unlock();
+            }
+            long committed = Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0;
+            long lineNo = 0;
+            long count = 0;
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            List<String> lines = new ArrayList<>(batchSize);
+            try (BufferedReader in = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (lineNo++ < committed || line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        batch.add(objectMapper.readValue(line, AuditLog.class));
+                        lines.add(line);
+                    } catch (IOException e) {
+                        reject(List.of(line), "unparseable");
+                    }
+                    if (batch.size() >= batchSize) {
+                        count += replayBatch(batch, lines);
+                        commitOffset(offsetFile, lineNo);
+                        batch = new ArrayList<>(batchSize);
+                        lines = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                count += replayBatch(batch, lines);
+            }
+            Files.delete(replaying);
+            Files.deleteIfExists(offsetFile);
+            log.info("Replayed {} spilled audit entries", count);
+        } catch (IOException | RuntimeException e) {
+            // Keep the file and offset; the next attempt resumes after the last delivered batch
+            log.warn("Audit spill replay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deliver one replay batch; returns how many entries were written. When the batch insert fails the entries are
+     * retried one by one: those that fail while others (or live batches since the last failed replay) succeed are
+     * rejected, and if nothing gets through with no sign the database is up, the failure is rethrown to retry later.
+     */
+    private long replayBatch(List<AuditLog> batch, List<String> lines) {
+        try {
+            sink.accept(batch);
+            recordReplayed(batch.size());
+            batchesAtReplayFailure = Long.MAX_VALUE;
+            return batch.size();
+        } catch (RuntimeException batchFailure) {
+            List<String> failed = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    sink.accept(List.of(batch.get(i)));
+                } catch (RuntimeException e) {
+                    failed.add(lines.get(i));
+                }
+            }
+            long delivered = batch.size() - failed.size();
+            boolean databaseUp = delivered > 0 || batches.get() > batchesAtReplayFailure;
+            if (!databaseUp) {
+                batchesAtReplayFailure = batches.get();
+                throw batchFailure;
+            }
+            reject(failed, "rejected by the sink");
+            recordReplayed(delivered);
+            batchesAtReplayFailure = Long.MAX_VALUE;
+            return delivered;
+        }
+    }
+
+    private void recordReplayed(long count) {
+        replayed.addAndGet(count);
+        written.addAndGet(count);
+    }
+
+    private void commitOffset(Path offsetFile, long lineNo) throws IOException {
+        Path tmp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        Files.writeString(tmp, Long.toString(lineNo));
+        Files.move(tmp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void reject(List<String> lines, String reason) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Path rejectedFile = spillFile.resolveSibling(spillFile.getFileName() + ".rejected");
+        try {
+            Files.write(rejectedFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rejected.addAndGet(lines.size());
+        log.error("Moved {} spilled audit entries to {} ({})", lines.size(), rejectedFile, reason);
+    }
+}
@@ -0,0 +1,346 @@
+package com.hpcl.procurement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hpcl.procurement.model.AuditLog;
+import com.hpcl.procurement.repository.AuditLogQueryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retention for audit_logs: rows older than the hot window are moved to one NDJSON.gz file per month and then
+ * deleted from the table in short chunks. Each batch is appended to its month file as a new gzip member, so the
+ * files are never rewritten. manifest.json records every month's row count and id and time bounds.
+ *
+ * Crash safety: the manifest names the batch it is about to delete before the delete starts. A crash between the
+ * manifest write and the delete is finished on the next run without archiving the rows a second time. A crash
+ * before the manifest write can leave a batch in a month file twice; reads de-duplicate by id.
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveService.class);
+    private static final String MANIFEST = "manifest.json";
+
+    private static final String SELECT_EXPIRED_SQL =
+        "SELECT id, entity_type, entity_id, action, performed_by, performed_at, old_value, new_value, ip_address " +
+        "FROM audit_logs WHERE performed_at < ? ORDER BY id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${procurement.audit.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${procurement.audit.retention.hot-days:365}")
+    private int hotDays;
+
+    @Value("${procurement.audit.retention.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${procurement.audit.retention.delete-chunk:1000}")
+    private int deleteChunk;
+
+    @Value("${procurement.audit.retention.dir:./data/audit-archive}")
+    private String archiveDir;
+
+    private Path dir;
+    private volatile Manifest manifest = new Manifest();
+    private final AtomicLong runs = new AtomicLong();
+    private final ReentrantLock runLock = new ReentrantLock();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    @PostConstruct
+    public void loadManifest() throws IOException {
+        dir = Path.of(archiveDir);
+        Path file = dir.resolve(MANIFEST);
+        if (Files.exists(file)) {
+            manifest = objectMapper.readValue(file.toFile(), Manifest.class);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${procurement.audit.retention.interval-ms:3600000}",
+               initialDelayString = "${procurement.audit.retention.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveExpired();
+        } catch (IOException | RuntimeException e) {
+            log.error("Audit retention run failed", e);
+        }
+    }
+
+    /**
+     * Archive and delete every row older than the hot window, one batch at a time. One run at a time, under a
+     * ReentrantLock: a run holds it across file writes and deletes, where a monitor would pin a virtual thread.
+     */
+    public Map<String, Object> archiveExpired() throws IOException {
+        runLock.lock();
+        try {
+            return archiveBatches();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private Map<String, Object> archiveBatches() throws IOException {
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = hotCutoff();
+        long deleted = finishPendingDelete();
+        long archived = 0;
+        int batches = 0;
+        while (true) {
+            List<AuditLog> batch = jdbcTemplate.query(SELECT_EXPIRED_SQL, AuditLogQueryRepository.ROW_MAPPER, Timestamp.valueOf(cutoff), batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<YearMonth, List<AuditLog>> byMonth = new TreeMap<>();
+            for (AuditLog entry : batch) {
+                byMonth.computeIfAbsent(YearMonth.from(entry.getPerformedAt()), m -> new ArrayList<>()).add(entry);
+            }
+            for (Map.Entry<YearMonth, List<AuditLog>> month : byMonth.entrySet()) {
+                appendToMonth(month.getKey(), month.getValue());
+            }
+
+            List<Long> ids = new ArrayList<>(batch.size());
+            batch.forEach(entry -> ids.add(entry.getId()));
+            Manifest next = manifest.copy();
+            byMonth.forEach((month, entries) -> next.months.computeIfAbsent(month.toString(), MonthEntry::new).add(entries));
+            next.maxArchivedId = Math.max(next.maxArchivedId, Collections.max(ids));
+            next.pendingDeleteIds = ids;
+            saveManifest(next);
+
+            deleted += finishPendingDelete();
+            archived += batch.size();
+            batches++;
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        runs.incrementAndGet();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cutoff", cutoff);
+        stats.put("batches", batches);
+        stats.put("archived", archived);
+        stats.put("deleted", deleted);
+        stats.put("durationMs", System.currentTimeMillis() - start);
+        lastRun = stats;
+        if (archived > 0) {
+            log.info("Archived {} audit rows older than {} in {} ms", archived, cutoff, stats.get("durationMs"));
+        }
+        return stats;
+    }
+
+    /**
+     * Archived entries performed within [start, end]; only month files overlapping the range are read
+     */
+    public List<AuditLog> findByPerformedAtBetween(LocalDateTime start, LocalDateTime end) {
+        List<AuditLog> result = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (MonthEntry month : manifest.months.values()) {
+            if (month.maxPerformedAt.isBefore(start) || month.minPerformedAt.isAfter(end)) {
+                continue;
+            }
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(dir.resolve(month.file)), 1 << 16), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    AuditLog entry = objectMapper.readValue(line, AuditLog.class);
+                    if (!entry.getPerformedAt().isBefore(start) && !entry.getPerformedAt().isAfter(end)
+                            && seen.add(entry.getId())) {
+                        result.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read audit archive " + month.file, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether the archive can hold anything at or after {@code start}; lets callers skip it for recent ranges
+     */
+    public boolean covers(LocalDateTime start) {
+        return manifest.months.values().stream().anyMatch(month -> !month.maxPerformedAt.isBefore(start));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hotDays", hotDays);
+        stats.put("hotCutoff", hotCutoff());
+        stats.put("runs", runs.get());
+        stats.put("lastRun", lastRun);
+        stats.put("maxArchivedId", manifest.maxArchivedId);
+        stats.put("months", manifest.months);
+        return stats;
+    }
+
+    private LocalDateTime hotCutoff() {
+        return LocalDate.now().minusDays(hotDays).atStartOfDay();
+    }
+
+    private void appendToMonth(YearMonth month, List<AuditLog> entries) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(MonthEntry.fileName(month.toString()));
+        try (FileOutputStream out = new FileOutputStream(file.toFile(), true)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 1 << 16);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+            for (AuditLog entry : entries) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.newLine();
+            }
+            writer.flush();
+            gzip.finish();
+            out.getChannel().force(true);
+        }
+    }
+
+    /**
+     * Delete the batch recorded in the manifest in short chunks, then clear it
+     */
+    private long finishPendingDelete() throws IOException {
+        List<Long> ids = manifest.pendingDeleteIds;
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        long deleted = 0;
+        for (int from = 0; from < ids.size(); from += deleteChunk) {
+            List<Long> chunk = ids.subList(from, Math.min(from + deleteChunk, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            deleted += jdbcTemplate.update("DELETE FROM audit_logs WHERE id IN (" + placeholders + ")", chunk.toArray());
+        }
+        Manifest next = manifest.copy();
+        next.pendingDeleteIds = null;
+        saveManifest(next);
+        return deleted;
+    }
+
+    private void saveManifest(Manifest next) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), next);
+        Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        manifest = next;
+    }
+
+    /**
+     * Contents of manifest.json
+     */
+    public static class Manifest {
+        private long maxArchivedId;
+        private Map<String, MonthEntry> months = new TreeMap<>();
+        private List<Long> pendingDeleteIds;
+
+        Manifest copy() {
+            Manifest copy = new Manifest();
+            copy.maxArchivedId = maxArchivedId;
+            months.forEach((key, month) -> copy.months.put(key, month.copy()));
+            copy.pendingDeleteIds = pendingDeleteIds;
+            return copy;
+        }
+
+        public long getMaxArchivedId() { return maxArchivedId; }
+        public void setMaxArchivedId(long maxArchivedId) { this.maxArchivedId = maxArchivedId; }
+        public Map<String, MonthEntry> getMonths() { return months; }
+        public void setMonths(Map<String, MonthEntry> months) { this.months = new TreeMap<>(months); }
+        public List<Long> getPendingDeleteIds() { return pendingDeleteIds; }
+        public void setPendingDeleteIds(List<Long> pendingDeleteIds) { this.pendingDeleteIds = pendingDeleteIds; }
+    }
+
+    public static class MonthEntry {
+        private String file;
+        private long records;
+        private long minId = Long.MAX_VALUE;
+        private long maxId;
+        private LocalDateTime minPerformedAt;
+        private LocalDateTime maxPerformedAt;
+
+        public MonthEntry() {
+        }
+
+        MonthEntry(String month) {
+            this.file = fileName(month);
+        }
+
+        static String fileName(String month) {
+            return "audit-" + month + ".ndjson.gz";
+        }
+
+        void add(List<AuditLog> entries) {
+            for (AuditLog entry : entries) {
+                records++;
+                minId = Math.min(minId, entry.getId());
+                maxId = Math.max(maxId, entry.getId());
+                if (minPerformedAt == null || entry.getPerformedAt().isBefore(minPerformedAt)) {
+                    minPerformedAt = entry.getPerformedAt();
+                }
+                if (maxPerformedAt == null || entry.getPerformedAt().isAfter(maxPerformedAt)) {
+                    maxPerformedAt = entry.getPerformedAt();
+                }
+            }
+        }
+
+        MonthEntry copy() {
+            MonthEntry copy = new MonthEntry();
+            copy.file = file;
+            copy.records = records;
+            copy.minId = minId;
+            copy.maxId = maxId;
+            copy.minPerformedAt = minPerformedAt;
+            copy.maxPerformedAt = maxPerformedAt;
+            return copy;
+        }
+
+        public String getFile() { return file; }
+        public void setFile(String file) { this.file = file; }
+        public long getRecords() { return records; }
+        public void setRecords(long records) { this.records = records; }
+        public long getMinId() { return minId; }
+        public void setMinId(long minId) { this.minId = minId; }
+        public long getMaxId() { return maxId; }
+        public void setMaxId(long maxId) { this.maxId = maxId; }
+        public LocalDateTime getMinPerformedAt() { return minPerformedAt; }
+        public void setMinPerformedAt(LocalDateTime minPerformedAt) { this.minPerformedAt = minPerformedAt; }
+        public LocalDateTime getMaxPerformedAt() { return maxPerformedAt; }
+        public void setMaxPerformedAt(LocalDateTime maxPerformedAt) { this.maxPerformedAt = maxPerformedAt; }
+    }
+}
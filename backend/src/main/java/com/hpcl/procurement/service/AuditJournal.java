@@ -0,0 +1,587 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.model.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, tamper-evident audit store on memory-mapped segment files.
+ *
+ * Each record is [int bodyLength][body][SHA-256(previousHash || body)], so changing, removing or reordering any
+ * record breaks every later hash. Segments roll at a fixed size; a zero length marks the end of written data.
+ * Every {@code checkpointEvery} records the mapped segment is forced to disk and (seq, segment, offset, hash) is
+ * appended to checkpoints.log, which the verifier cross-checks.
+ *
+ * Queries use in-memory sparse indexes rebuilt by the startup scan: per segment the set of entities it contains
+ * and its time bounds, plus every {@code timeIndexEvery} records the running maximum timestamp, so a date range
+ * scan can start close to the first candidate record.
+ *
+ * A single writer (the audit writer thread) appends; readers share a read lock.
+ */
+public final class AuditJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+    private static final long MAGIC = 0x415544544A524E31L; // "AUDTJRN1"
+    private static final int HEADER_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final String CHECKPOINT_FILE = "checkpoints.log";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int checkpointEvery;
+    private final int timeIndexEvery;
+    private final MessageDigest digest = sha256();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Segment> segments = new ArrayList<>();
+
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private byte[] lastHash = new byte[HASH_BYTES];
+    private long nextSeq = 1;
+    private long sinceCheckpoint;
+
+    private AuditJournal(Path dir, int segmentBytes, int checkpointEvery, int timeIndexEvery) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.checkpointEvery = checkpointEvery;
+        this.timeIndexEvery = timeIndexEvery;
+    }
+
+    /**
+     * Open (or create) the journal in {@code dir}, re-verifying the chain and rebuilding the indexes.
+     * A torn record at the tail of the last segment is cut off; a broken chain anywhere else fails the open.
+     */
+    public static AuditJournal open(Path dir, int segmentBytes, int checkpointEvery, int timeIndexEvery) throws IOException {
+        AuditJournal journal = new AuditJournal(dir, segmentBytes, checkpointEvery, timeIndexEvery);
+        Files.createDirectories(dir);
+        List<Path> files = segmentFiles(dir);
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = journal.mapSegment(files.get(i), segmentNumber(files.get(i)), 0);
+            ScanResult scan = scanSegment(segment.map, journal.lastHash, journal.digest,
+                (seq, ts, key, offset, hash) -> segment.index(seq, ts, key, offset));
+            if (scan.broken && i < files.size() - 1) {
+                throw new IllegalStateException("Audit journal chain broken in " + files.get(i) + " at offset " + scan.endOffset);
+            }
+            if (scan.broken) {
+                log.warn("Truncating torn audit journal tail in {} at offset {}", files.get(i), scan.endOffset);
+                zeroTail(segment.map, scan.endOffset);
+            }
+            segment.writePos = scan.endOffset;
+            journal.lastHash = scan.lastHash;
+            if (scan.lastSeq > 0) {
+                journal.nextSeq = scan.lastSeq + 1;
+            }
+            journal.segments.add(segment);
+        }
+        if (journal.segments.isEmpty()) {
+            journal.roll();
+        }
+        log.info("Audit journal opened: {} segments, next seq {}", journal.segments.size(), journal.nextSeq);
+        return journal;
+    }
+
+    /**
+     * Append entries in order; each gets its journal sequence number as id
+     */
+    public void appendAll(List<AuditLog> entries) {
+        lock.writeLock().lock();
+        try {
+            for (AuditLog entry : entries) {
+                append(entry);
+            }
+            if (sinceCheckpoint >= checkpointEvery) {
+                checkpoint();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Audit journal append failed", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<AuditLog> findByEntity(String entityType, String entityId) {
+        String key = entityKey(entityType, entityId);
+        List<AuditLog> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment.entities.contains(key)) {
+                    segment.scanFrom(HEADER_BYTES, (view, bodyStart, seq, ts) -> {
+                        String type = readString(view);
+                        String id = readString(view);
+                        if (Objects.equals(type, entityType) && Objects.equals(id, entityId)) {
+                            result.add(decode(view, bodyStart));
+                        }
+                    });
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public List<AuditLog> findByPerformedAtBetween(LocalDateTime start, LocalDateTime end) {
+        long fromMs = toEpochMs(start);
+        long toMs = toEpochMs(end);
+        List<AuditLog> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment.records == 0 || segment.maxTs < fromMs || segment.minTs > toMs) {
+                    continue;
+                }
+                segment.scanFrom(segment.startOffsetFor(fromMs), (view, bodyStart, seq, ts) -> {
+                    if (ts >= fromMs && ts <= toMs) {
+                        result.add(decode(view, bodyStart));
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort((a, b) -> a.getPerformedAt().compareTo(b.getPerformedAt()));
+        return result;
+    }
+
+    /**
+     * Full scan for queries the sparse indexes do not cover (by user, by action)
+     */
+    public List<AuditLog> findAll(Predicate<AuditLog> filter) {
+        List<AuditLog> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments) {
+                segment.scanFrom(HEADER_BYTES, (view, bodyStart, seq, ts) -> {
+                    AuditLog entry = decode(view, bodyStart);
+                    if (filter.test(entry)) {
+                        result.add(entry);
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Re-walk the chain of the live journal; appends wait until it finishes
+     */
+    public Map<String, Object> verify() {
+        lock.readLock().lock();
+        try {
+            return verify(dir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Audit journal verification failed", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("directory", dir.toAbsolutePath().toString());
+            stats.put("segments", segments.size());
+            stats.put("segmentBytes", segmentBytes);
+            stats.put("records", nextSeq - 1);
+            stats.put("headHash", HexFormat.of().formatHex(lastHash));
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (sinceCheckpoint > 0) {
+                checkpoint();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Independent verifier: recomputes every hash from the files alone and checks them against checkpoints.log
+     */
+    public static Map<String, Object> verify(Path dir) throws IOException {
+        Map<Long, String> checkpoints = new HashMap<>();
+        Path checkpointFile = dir.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpointFile)) {
+            for (String line : Files.readAllLines(checkpointFile, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length == 4) {
+                    checkpoints.put(Long.parseLong(parts[0]), parts[3]);
+                }
+            }
+        }
+        MessageDigest digest = sha256();
+        byte[] hash = new byte[HASH_BYTES];
+        long records = 0;
+        int checkpointsMatched = 0;
+        List<String> problems = new ArrayList<>();
+        List<Path> files = segmentFiles(dir);
+        for (int i = 0; i < files.size(); i++) {
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (map.getLong(0) != MAGIC) {
+                    problems.add(files.get(i).getFileName() + ": bad segment header");
+                    break;
+                }
+                long[] counts = new long[2];
+                ScanResult scan = scanSegment(map, hash, digest, (seq, ts, key, offset, recordHash) -> {
+                    counts[0]++;
+                    String expected = checkpoints.get(seq);
+                    if (expected == null) {
+                        return;
+                    }
+                    if (expected.equals(HexFormat.of().formatHex(recordHash))) {
+                        counts[1]++;
+                    } else {
+                        problems.add("checkpoint at seq " + seq + " does not match the chain");
+                    }
+                });
+                records += counts[0];
+                checkpointsMatched += (int) counts[1];
+                hash = scan.lastHash;
+                if (scan.broken) {
+                    problems.add(files.get(i).getFileName() + ": chain broken after seq " + scan.lastSeq
+                        + " at offset " + scan.endOffset + (i == files.size() - 1 ? " (possibly a torn tail)" : ""));
+                    break;
+                }
+            }
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("valid", problems.isEmpty());
+        report.put("segments", files.size());
+        report.put("records", records);
+        report.put("checkpoints", checkpoints.size());
+        report.put("checkpointsMatched", checkpointsMatched);
+        report.put("headHash", HexFormat.of().formatHex(hash));
+        report.put("problems", problems);
+        return report;
+    }
+
+    /**
+     * Offline verification: {@code java -cp <app.jar> -Dloader.main=com.hpcl.procurement.service.AuditJournal
+     * org.springframework.boot.loader.launch.PropertiesLauncher <journal-dir>}
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, Object> report = verify(Path.of(args.length > 0 ? args[0] : "./data/audit-journal"));
+        report.forEach((key, value) -> System.out.println(key + ": " + value));
+        System.exit(Boolean.TRUE.equals(report.get("valid")) ? 0 : 1);
+    }
+
+    private void append(AuditLog entry) throws IOException {
+        if (entry.getPerformedAt() == null) {
+            entry.setPerformedAt(LocalDateTime.now());
+        }
+        long seq = nextSeq;
+        long ts = toEpochMs(entry.getPerformedAt());
+        ByteBuffer body = encode(seq, ts, entry);
+        int recordBytes = 4 + body.remaining() + HASH_BYTES;
+        if (recordBytes > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Audit record of " + recordBytes + " bytes exceeds the segment size");
+        }
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.writePos + recordBytes > segmentBytes) {
+            segment.map.force();
+            segment = roll();
+        }
+
+        digest.update(lastHash);
+        digest.update(body.duplicate());
+        byte[] hash = digest.digest();
+
+        int offset = segment.writePos;
+        segment.map.putInt(offset, body.remaining());
+        segment.map.put(offset + 4, body, 0, body.remaining());
+        segment.map.put(offset + 4 + body.remaining(), hash);
+        segment.writePos = offset + recordBytes;
+        segment.index(seq, ts, entityKey(entry.getEntityType(), entry.getEntityId()), offset);
+
+        lastHash = hash;
+        nextSeq = seq + 1;
+        sinceCheckpoint++;
+        entry.setId(seq);
+    }
+
+    private Segment roll() throws IOException {
+        int number = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).number + 1;
+        Path path = dir.resolve(String.format("segment-%06d.log", number));
+        Segment segment = mapSegment(path, number, nextSeq);
+        segment.writePos = HEADER_BYTES;
+        segments.add(segment);
+        return segment;
+    }
+
+    private Segment mapSegment(Path path, int number, long firstSeq) throws IOException {
+        boolean created = !Files.exists(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, channel.size()));
+            if (created) {
+                map.putLong(0, MAGIC);
+                map.putLong(8, firstSeq);
+            } else if (map.getLong(0) != MAGIC) {
+                throw new IllegalStateException("Not an audit journal segment: " + path);
+            }
+            return new Segment(number, map, timeIndexEvery);
+        }
+    }
+
+    private void checkpoint() throws IOException {
+        Segment segment = segments.get(segments.size() - 1);
+        segment.map.force();
+        String line = String.format("%d %d %d %s%n", nextSeq - 1, segment.number, segment.writePos,
+            HexFormat.of().formatHex(lastHash));
+        Files.writeString(dir.resolve(CHECKPOINT_FILE), line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        sinceCheckpoint = 0;
+    }
+
+    private ByteBuffer encode(long seq, long ts, AuditLog entry) {
+        scratch.clear();
+        scratch = ensure(scratch, 16);
+        scratch.putLong(seq);
+        scratch.putLong(ts);
+        for (String value : new String[]{entry.getEntityType(), entry.getEntityId(), entry.getAction(),
+                entry.getPerformedBy(), entry.getOldValue(), entry.getNewValue(), entry.getIpAddress()}) {
+            if (value == null) {
+                scratch = ensure(scratch, 4);
+                scratch.putInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                scratch = ensure(scratch, 4 + bytes.length);
+                scratch.putInt(bytes.length);
+                scratch.put(bytes);
+            }
+        }
+        scratch.flip();
+        return scratch;
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private static AuditLog decode(ByteBuffer view, int bodyStart) {
+        view.position(bodyStart);
+        AuditLog entry = new AuditLog();
+        entry.setId(view.getLong());
+        entry.setPerformedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(view.getLong()), ZONE));
+        entry.setEntityType(readString(view));
+        entry.setEntityId(readString(view));
+        entry.setAction(readString(view));
+        entry.setPerformedBy(readString(view));
+        entry.setOldValue(readString(view));
+        entry.setNewValue(readString(view));
+        entry.setIpAddress(readString(view));
+        return entry;
+    }
+
+    private static String readString(ByteBuffer view) {
+        int length = view.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Walk records from the segment header, checking each hash against the chain. Stops at the zero end marker
+     * (clean) or at the first record that is truncated or does not hash correctly (broken).
+     */
+    private static ScanResult scanSegment(ByteBuffer map, byte[] previousHash, MessageDigest digest, IndexVisitor visitor) {
+        ByteBuffer view = map.duplicate();
+        int offset = HEADER_BYTES;
+        byte[] hash = previousHash;
+        byte[] stored = new byte[HASH_BYTES];
+        long lastSeq = 0;
+        while (offset + 4 <= view.capacity()) {
+            int length = view.getInt(offset);
+            if (length == 0) {
+                return new ScanResult(offset, hash, lastSeq, false);
+            }
+            int end = offset + 4 + length + HASH_BYTES;
+            if (length < 16 || end > view.capacity()) {
+                return new ScanResult(offset, hash, lastSeq, true);
+            }
+            digest.update(hash);
+            digest.update(view.duplicate().position(offset + 4).limit(offset + 4 + length));
+            byte[] computed = digest.digest();
+            view.get(offset + 4 + length, stored);
+            if (!MessageDigest.isEqual(computed, stored)) {
+                return new ScanResult(offset, hash, lastSeq, true);
+            }
+            view.position(offset + 4);
+            long seq = view.getLong();
+            long ts = view.getLong();
+            String key = entityKey(readString(view), readString(view));
+            visitor.visit(seq, ts, key, offset, computed);
+            hash = computed;
+            lastSeq = seq;
+            offset = end;
+        }
+        return new ScanResult(offset, hash, lastSeq, false);
+    }
+
+    private static void zeroTail(MappedByteBuffer map, int from) {
+        for (int i = from; i < map.capacity(); i++) {
+            if (map.get(i) != 0) {
+                map.put(i, (byte) 0);
+            }
+        }
+        map.force();
+    }
+
+    private static List<Path> segmentFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().matches("segment-\\d+\\.log")).sorted().toList();
+        }
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length()));
+    }
+
+    private static String entityKey(String entityType, String entityId) {
+        return entityType + "|" + entityId;
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexVisitor {
+        void visit(long seq, long ts, String entityKey, int offset, byte[] hash);
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(ByteBuffer view, int bodyStart, long seq, long ts);
+    }
+
+    private static final class ScanResult {
+        private final int endOffset;
+        private final byte[] lastHash;
+        private final long lastSeq;
+        private final boolean broken;
+
+        private ScanResult(int endOffset, byte[] lastHash, long lastSeq, boolean broken) {
+            this.endOffset = endOffset;
+            this.lastHash = lastHash;
+            this.lastSeq = lastSeq;
+            this.broken = broken;
+        }
+    }
+
+    private static final class Segment {
+        private final int number;
+        private final MappedByteBuffer map;
+        private final int timeIndexEvery;
+        private final Set<String> entities = new HashSet<>();
+        private final List<long[]> timeIndex = new ArrayList<>(); // {offset, max timestamp of all earlier records}
+        private int writePos;
+        private long records;
+        private long minTs = Long.MAX_VALUE;
+        private long maxTs = Long.MIN_VALUE;
+
+        private Segment(int number, MappedByteBuffer map, int timeIndexEvery) {
+            this.number = number;
+            this.map = map;
+            this.timeIndexEvery = timeIndexEvery;
+        }
+
+        private void index(long seq, long ts, String entityKey, int offset) {
+            if (records % timeIndexEvery == 0) {
+                timeIndex.add(new long[]{offset, maxTs});
+            }
+            entities.add(entityKey);
+            minTs = Math.min(minTs, ts);
+            maxTs = Math.max(maxTs, ts);
+            records++;
+        }
+
+        /**
+         * Latest sparse point before which every record is older than {@code fromMs}
+         */
+        private int startOffsetFor(long fromMs) {
+            int offset = HEADER_BYTES;
+            for (long[] point : timeIndex) {
+                if (point[1] >= fromMs) {
+                    break;
+                }
+                offset = (int) point[0];
+            }
+            return offset;
+        }
+
+        private void scanFrom(int start, RecordVisitor visitor) {
+            ByteBuffer view = map.duplicate();
+            int offset = start;
+            while (offset < writePos) {
+                int length = view.getInt(offset);
+                int bodyStart = offset + 4;
+                view.position(bodyStart);
+                long seq = view.getLong();
+                long ts = view.getLong();
+                visitor.visit(view, bodyStart, seq, ts);
+                offset = bodyStart + length + HASH_BYTES;
+            }
+        }
+    }
+}
@@ -1,19 +1,122 @@
 package com.hpcl.procurement.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hpcl.procurement.dto.AuditLogFilter;
+import com.hpcl.procurement.dto.AuditLogPage;
 import com.hpcl.procurement.model.AuditLog;
+import com.hpcl.procurement.repository.AuditLogQueryRepository;
 import com.hpcl.procurement.repository.AuditLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+/**
+ * Audit trail. With procurement.audit.async (the default) logAction only publishes to the in-memory
+ * AsyncAuditWriter and returns; entries reach storage in batches shortly after.
+ * Storage is the audit_logs table, or with procurement.audit.storage=JOURNAL the hash-chained AuditJournal,
+ * which then also serves the queries below.
+ */
 @Service
 public class AuditService {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (entity_type, entity_id, action, performed_by, performed_at, " +
+        "old_value, new_value, ip_address) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditArchiveService archiveService;
+
+    @Autowired
+    private AuditLogQueryRepository queryRepository;
+
+    @Value("${procurement.audit.async:true}")
+    private boolean async;
+
+    @Value("${procurement.audit.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    @Value("${procurement.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${procurement.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${procurement.audit.backpressure:BLOCK}")
+    private AsyncAuditWriter.Backpressure backpressure;
+
+    @Value("${procurement.audit.spill-file:./data/audit-spill.ndjson}")
+    private String spillFile;
+
+    @Value("${procurement.audit.storage:DATABASE}")
+    private String storage;
+
+    @Value("${procurement.audit.journal.dir:./data/audit-journal}")
+    private String journalDir;
+
+    @Value("${procurement.audit.journal.segment-mb:64}")
+    private int journalSegmentMb;
+
+    @Value("${procurement.audit.journal.checkpoint-every:1000}")
+    private int journalCheckpointEvery;
+
+    @Value("${procurement.audit.journal.time-index-every:256}")
+    private int journalTimeIndexEvery;
+
+    private AsyncAuditWriter writer;
+    private AuditJournal journal;
+
+    @PostConstruct
+    public void startWriter() throws IOException {
+        if ("JOURNAL".equalsIgnoreCase(storage)) {
+            journal = AuditJournal.open(Path.of(journalDir), journalSegmentMb * 1024 * 1024,
+                journalCheckpointEvery, journalTimeIndexEvery);
+        }
+        if (async) {
+            writer = new AsyncAuditWriter(this::logActions, objectMapper, bufferCapacity, batchSize,
+                flushIntervalMs, backpressure, Path.of(spillFile));
+            writer.start();
+        }
+    }
+
+    @PreDestroy
+    public void stopWriter() throws IOException {
+        if (writer != null) {
+            writer.stop();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
     public void logAction(String entityType, String entityId, String action, String performedBy, 
                          String oldValue, String newValue, String ipAddress) {
         AuditLog log = new AuditLog();
@@ -24,22 +127,209 @@ public class AuditService {
         log.setOldValue(oldValue);
         log.setNewValue(newValue);
         log.setIpAddress(ipAddress);
-        auditLogRepository.save(log);
+        log.setPerformedAt(LocalDateTime.now());
+        if (writer != null) {
+            writer.enqueue(log);
+        } else if (journal != null) {
+            journal.appendAll(List.of(log));
+        } else {
+            auditLogRepository.save(log);
+        }
+    }
+
+    /**
+     * Non-blocking hand-off for entries captured outside a transaction (entity listeners); requires async mode
+     */
+    public void capture(AuditLog entry) {
+        if (writer == null) {
+            throw new IllegalStateException("Audit capture requires procurement.audit.async=true");
+        }
+        writer.enqueue(entry);
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * A system entry for a write the entity listener cannot see (JPQL bulk updates, native upserts), in the
+     * listener's shape: UPDATE/INSERT with JSON objects of the changed columns
+     */
+    public static AuditLog systemEntry(String entityType, Object entityId, String action, String oldValue, String newValue) {
+        AuditLog entry = new AuditLog();
+        entry.setEntityType(entityType);
+        entry.setEntityId(String.valueOf(entityId));
+        entry.setAction(action);
+        entry.setPerformedBy("system");
+        entry.setPerformedAt(LocalDateTime.now());
+        entry.setOldValue(oldValue);
+        entry.setNewValue(newValue);
+        return entry;
+    }
+
+    /**
+     * Write many audit entries as a single JDBC batch insert (or one journal append)
+     */
+    public void logActions(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        if (journal != null) {
+            journal.appendAll(logs);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getEntityType());
+            ps.setString(2, log.getEntityId());
+            ps.setString(3, log.getAction());
+            ps.setString(4, log.getPerformedBy());
+            ps.setTimestamp(5, Timestamp.valueOf(log.getPerformedAt() != null ? log.getPerformedAt() : now));
+            ps.setString(6, log.getOldValue());
+            ps.setString(7, log.getNewValue());
+            ps.setString(8, log.getIpAddress());
+        });
+    }
+
+    public Map<String, Object> getWriterStats() {
+        return writer != null ? writer.getStats() : Map.of("async", false);
+    }
+
+    public Map<String, Object> getJournalStats() {
+        return journal != null ? journal.getStats() : Map.of("storage", storage);
+    }
+
+    /**
+     * Re-walk the journal hash chain and cross-check it against the stored checkpoints
+     */
+    public Map<String, Object> verifyJournal() {
+        if (journal == null) {
+            throw new IllegalStateException("Audit storage is " + storage + ", not JOURNAL");
+        }
+        return journal.verify();
+    }
+
+    /**
+     * One keyset page in (performedAt, id) order; the cursor is opaque to clients, and one that does not decode
+     * is an IllegalArgumentException
+     */
+    public AuditLogPage getPage(AuditLogFilter filter, String cursor, int limit) {
+        requireDatabaseStorage();
+        LocalDateTime afterPerformedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("expected 2 parts, got " + parts.length);
+                }
+                afterPerformedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        // Fetch one extra row to know whether another page exists
+        List<AuditLog> rows = queryRepository.findPage(filter, afterPerformedAt, afterId, limit + 1);
+        if (rows.size() <= limit) {
+            return new AuditLogPage(rows, null);
+        }
+        List<AuditLog> items = rows.subList(0, limit);
+        AuditLog last = items.get(limit - 1);
+        String next = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            (last.getPerformedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        return new AuditLogPage(new ArrayList<>(items), next);
+    }
+
+    /**
+     * Stream every matching entry as CSV or NDJSON; rows are written as they are read, so heap use stays flat
+     */
+    public void export(AuditLogFilter filter, String format, OutputStream out) throws IOException {
+        requireDatabaseStorage();
+        boolean csv = "csv".equalsIgnoreCase(format);
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        if (csv) {
+            writer.write("id,entity_type,entity_id,action,performed_by,performed_at,old_value,new_value,ip_address\n");
+        }
+        try {
+            queryRepository.stream(filter, entry -> {
+                try {
+                    if (csv) {
+                        writer.write(String.valueOf(entry.getId()));
+                        for (Object value : new Object[]{entry.getEntityType(), entry.getEntityId(), entry.getAction(),
+                                entry.getPerformedBy(), entry.getPerformedAt(), entry.getOldValue(), entry.getNewValue(),
+                                entry.getIpAddress()}) {
+                            writer.write(',');
+                            writer.write(csvField(value));
+                        }
+                        writer.write('\n');
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(entry));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; surfacing it closes the cursor
+            throw e.getCause();
+        }
+        writer.flush();
     }
 
     public List<AuditLog> getAuditTrail(String entityType, String entityId) {
+        if (journal != null) {
+            return journal.findByEntity(entityType, entityId);
+        }
         return auditLogRepository.findByEntityTypeAndEntityId(entityType, entityId);
     }
 
     public List<AuditLog> getAuditLogsByUser(String userId) {
+        if (journal != null) {
+            return journal.findAll(log -> Objects.equals(userId, log.getPerformedBy()));
+        }
         return auditLogRepository.findByPerformedBy(userId);
     }
 
     public List<AuditLog> getAuditLogsByAction(String action) {
+        if (journal != null) {
+            return journal.findAll(log -> Objects.equals(action, log.getAction()));
+        }
         return auditLogRepository.findByAction(action);
     }
 
+    private void requireDatabaseStorage() {
+        if (journal != null) {
+            throw new IllegalStateException("Keyset pages and exports read audit_logs; audit storage is JOURNAL");
+        }
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Hot rows plus, when the range reaches back past the retention window, the matching archived rows
+     */
     public List<AuditLog> getAuditLogsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return auditLogRepository.findByPerformedAtBetween(start, end);
+        if (journal != null) {
+            return journal.findByPerformedAtBetween(start, end);
+        }
+        List<AuditLog> hot = auditLogRepository.findByPerformedAtBetween(start, end);
+        if (!archiveService.covers(start)) {
+            return hot;
+        }
+        List<AuditLog> merged = new ArrayList<>(archiveService.findByPerformedAtBetween(start, end));
+        merged.addAll(hot);
+        merged.sort(Comparator.comparing(AuditLog::getPerformedAt).thenComparing(AuditLog::getId));
+        return merged;
     }
 }
@@ -0,0 +1,189 @@
+package com.hpcl.procurement.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hpcl.procurement.model.BidEvaluation;
+import com.hpcl.procurement.repository.BidEvaluationRepository;
+import com.hpcl.procurement.repository.PurchaseRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ranks the quotes of a GeM bid for a PR. Quotes are consumed as a stream, from the GeM adapter or an NDJSON
+ * upload, by a BidEvaluator that keeps only per-vendor and per-item aggregates, so a 100k-quote tender is
+ * evaluated in one pass without holding the quotes. The result is stored against the PR in bid_evaluations.
+ */
+@Service
+public class BidEvaluationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BidEvaluationService.class);
+
+    @Autowired
+    private IntegrationService integrationService;
+
+    @Autowired
+    private BidEvaluationRepository bidEvaluationRepository;
+
+    @Autowired
+    private PurchaseRequestRepository purchaseRequestRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${procurement.bid-evaluation.extremes-per-item:5}")
+    private int extremesPerItem;
+
+    @Value("${procurement.bid-evaluation.iqr-factor:1.5}")
+    private double iqrFactor;
+
+    @Value("${procurement.bid-evaluation.min-quotes-for-outliers:8}")
+    private int minQuotesForOutliers;
+
+    @Value("${procurement.bid-evaluation.max-vendors:2000}")
+    private int maxVendors;
+
+    @Value("${procurement.bid-evaluation.max-items:25000}")
+    private int maxItems;
+
+    /**
+     * Stream the bid's quotes from GeM and evaluate them; IntegrationUnavailableException when GeM is down
+     */
+    public Optional<Map<String, Object>> evaluateFromGem(String prId, String bidId) {
+        if (purchaseRequestRepository.findByPrId(prId).isEmpty()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        BidEvaluator evaluator = newEvaluator();
+        integrationService.streamBidQuotes(bidId, evaluator);
+        return Optional.of(save(prId, bidId, "GEM", evaluator, start));
+    }
+
+    /**
+     * Evaluate quotes uploaded as NDJSON, one {"vendorId", "itemCode", "unitPriceInr", "quantity"} object per line.
+     * The body is read with a streaming parser, one quote at a time.
+     */
+    public Optional<Map<String, Object>> evaluateUpload(String prId, String bidId, InputStream quotes) throws IOException {
+        if (purchaseRequestRepository.findByPrId(prId).isEmpty()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        BidEvaluator evaluator = newEvaluator();
+        try (JsonParser parser = objectMapper.getFactory().createParser(quotes)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a quote object at line "
+                        + parser.currentLocation().getLineNr());
+                }
+                readQuote(parser, evaluator);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed quote at line " + e.getLocation().getLineNr()
+                + ": " + e.getOriginalMessage());
+        }
+        return Optional.of(save(prId, bidId, "UPLOAD", evaluator, start));
+    }
+
+    public Optional<Map<String, Object>> getLatest(String prId) {
+        return bidEvaluationRepository.findFirstByPrIdOrderByEvaluatedAtDescIdDesc(prId).map(this::toResponse);
+    }
+
+    private BidEvaluator newEvaluator() {
+        return new BidEvaluator(extremesPerItem, iqrFactor, minQuotesForOutliers, maxVendors, maxItems);
+    }
+
+    private static void readQuote(JsonParser parser, BidEvaluator evaluator) throws IOException {
+        String vendorId = null;
+        String itemCode = null;
+        double unitPrice = Double.NaN;
+        double quantity = 1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "vendorId" -> vendorId = parser.getValueAsString();
+                case "itemCode" -> itemCode = parser.getValueAsString();
+                case "unitPriceInr" -> unitPrice = parser.getValueAsDouble(Double.NaN);
+                case "quantity" -> quantity = parser.getValueAsDouble(Double.NaN);
+                default -> parser.skipChildren();
+            }
+        }
+        evaluator.accept(vendorId, itemCode, unitPrice, quantity);
+    }
+
+    private Map<String, Object> save(String prId, String bidId, String source, BidEvaluator evaluator, long start) {
+        List<Map<String, Object>> ranking = evaluator.ranking();
+        Map<String, Object> vendors = new LinkedHashMap<>();
+        vendors.put("ranked", ranking);
+        vendors.put("incomplete", evaluator.incompleteVendors());
+
+        BidEvaluation evaluation = new BidEvaluation();
+        evaluation.setPrId(prId);
+        evaluation.setBidId(bidId);
+        evaluation.setSource(source);
+        evaluation.setQuoteCount(evaluator.getQuoteCount());
+        evaluation.setRejectedCount(evaluator.getRejectedCount());
+        evaluation.setVendorCount(evaluator.getVendorCount());
+        evaluation.setItemCount(evaluator.getItemCount());
+        if (!ranking.isEmpty()) {
+            evaluation.setL1Vendor((String) ranking.get(0).get("vendorId"));
+            evaluation.setL1TotalInr(BigDecimal.valueOf((Double) ranking.get(0).get("totalInr")));
+        }
+        try {
+            evaluation.setRankingJson(objectMapper.writeValueAsString(vendors));
+            evaluation.setItemsJson(objectMapper.writeValueAsString(evaluator.itemStatistics()));
+            evaluation.setOutliersJson(objectMapper.writeValueAsString(evaluator.outliers()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        evaluation.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        bidEvaluationRepository.save(evaluation);
+
+        log.info("Bid {} for PR {} evaluated: {} quotes, {} vendors, {} items in {} ms", bidId, prId,
+            evaluation.getQuoteCount(), evaluation.getVendorCount(), evaluation.getItemCount(), evaluation.getElapsedMs());
+        auditService.logAction("PR", prId, "BID_EVALUATED", "system", null,
+            "bidId=" + bidId + ", quotes=" + evaluation.getQuoteCount() + ", l1=" + evaluation.getL1Vendor(), null);
+        return toResponse(evaluation);
+    }
+
+    private Map<String, Object> toResponse(BidEvaluation evaluation) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", evaluation.getId());
+        response.put("prId", evaluation.getPrId());
+        response.put("bidId", evaluation.getBidId());
+        response.put("source", evaluation.getSource());
+        response.put("quotes", evaluation.getQuoteCount());
+        response.put("rejectedQuotes", evaluation.getRejectedCount());
+        response.put("vendors", evaluation.getVendorCount());
+        response.put("items", evaluation.getItemCount());
+        response.put("l1VendorId", evaluation.getL1Vendor());
+        response.put("l1TotalInr", evaluation.getL1TotalInr());
+        try {
+            response.put("ranking", objectMapper.readTree(evaluation.getRankingJson()));
+            response.put("itemStatistics", objectMapper.readTree(evaluation.getItemsJson()));
+            response.put("outliers", objectMapper.readTree(evaluation.getOutliersJson()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        response.put("elapsedMillis", evaluation.getElapsedMs());
+        response.put("evaluatedAt", evaluation.getEvaluatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,262 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.integration.BidQuoteConsumer;
+import com.hpcl.procurement.util.P2Quantile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-pass evaluation of a bid's line-item quotes. Quotes are folded into per-vendor and per-item aggregates
+ * held in primitive arrays indexed by dense vendor and item ids, plus P² sketches for each item's quartiles,
+ * and then dropped, so memory never grows with quotes: the aggregates grow with vendors + items, and the
+ * coverage bitsets with vendors x items bits (at most maxVendors x maxItems / 8 bytes).
+ * - L1 ranking: vendors that quoted every item, by total quoted value (unit price x quantity)
+ * - per item: count, min, Q1, median, Q3, max, mean and the L1 vendor
+ * - outliers: quotes outside the Tukey fences Q1 - f*IQR / Q3 + f*IQR of their item; only the k lowest and k
+ *   highest quotes per item are retained, which is where outliers are, so at most k per side are reported
+ * Each vendor's coverage is a bitset over the dense item ids, so a repeated quote for the same vendor and item is
+ * rejected (only the first counts) and cannot make an incomplete vendor look complete.
+ * Not thread-safe; use one evaluator per stream.
+ * Vendor and item counts are capped, so a malformed stream fails fast instead of growing the heap.
+ */
+public class BidEvaluator implements BidQuoteConsumer {
+
+    private final int extremes;
+    private final double iqrFactor;
+    private final int minQuotesForOutliers;
+    private final int maxVendors;
+    private final int maxItems;
+
+    private final Map<String, Integer> vendorIndex = new HashMap<>();
+    private final List<String> vendorIds = new ArrayList<>();
+    private double[] vendorTotal = new double[16];
+    private BitSet[] vendorCoverage = new BitSet[16];
+
+    private final Map<String, Integer> itemIndex = new HashMap<>();
+    private final List<String> itemCodes = new ArrayList<>();
+    private long[] itemCount = new long[16];
+    private double[] itemMin = new double[16];
+    private double[] itemMax = new double[16];
+    private double[] itemSum = new double[16];
+    private P2Quantile[] itemQ1 = new P2Quantile[16];
+    private P2Quantile[] itemMedian = new P2Quantile[16];
+    private P2Quantile[] itemQ3 = new P2Quantile[16];
+    // k lowest quotes per item, ascending, and k highest, descending; slots [item * k, item * k + k)
+    private double[] lowPrice;
+    private int[] lowVendor;
+    private double[] highPrice;
+    private int[] highVendor;
+    private int[] lowSize = new int[16];
+    private int[] highSize = new int[16];
+
+    private long quotes;
+    private long rejected;
+
+    public BidEvaluator(int extremes, double iqrFactor, int minQuotesForOutliers, int maxVendors, int maxItems) {
+        this.extremes = extremes;
+        this.iqrFactor = iqrFactor;
+        this.minQuotesForOutliers = minQuotesForOutliers;
+        this.maxVendors = maxVendors;
+        this.maxItems = maxItems;
+        this.lowPrice = new double[16 * extremes];
+        this.lowVendor = new int[16 * extremes];
+        this.highPrice = new double[16 * extremes];
+        this.highVendor = new int[16 * extremes];
+    }
+
+    @Override
+    public void accept(String vendorId, String itemCode, double unitPriceInr, double quantity) {
+        if (vendorId == null || itemCode == null || !(unitPriceInr > 0) || Double.isInfinite(unitPriceInr)
+                || !(quantity > 0) || Double.isInfinite(quantity)) {
+            rejected++;
+            return;
+        }
+        int vendor = vendorIndex.computeIfAbsent(vendorId, this::addVendor);
+        int item = itemIndex.computeIfAbsent(itemCode, this::addItem);
+        if (vendorCoverage[vendor].get(item)) {
+            rejected++;
+            return;
+        }
+        vendorCoverage[vendor].set(item);
+        quotes++;
+
+        vendorTotal[vendor] += unitPriceInr * quantity;
+
+        if (itemCount[item]++ == 0) {
+            itemMin[item] = unitPriceInr;
+            itemMax[item] = unitPriceInr;
+        } else {
+            itemMin[item] = Math.min(itemMin[item], unitPriceInr);
+            itemMax[item] = Math.max(itemMax[item], unitPriceInr);
+        }
+        itemSum[item] += unitPriceInr;
+        itemQ1[item].add(unitPriceInr);
+        itemMedian[item].add(unitPriceInr);
+        itemQ3[item].add(unitPriceInr);
+        lowSize[item] = insert(lowPrice, lowVendor, item * extremes, lowSize[item], unitPriceInr, vendor, true);
+        highSize[item] = insert(highPrice, highVendor, item * extremes, highSize[item], unitPriceInr, vendor, false);
+    }
+
+    public long getQuoteCount() { return quotes; }
+    public long getRejectedCount() { return rejected; }
+    public int getVendorCount() { return vendorIds.size(); }
+    public int getItemCount() { return itemCodes.size(); }
+
+    /**
+     * Vendors that quoted every item, cheapest first, as rank/vendorId/totalInr/itemsQuoted
+     */
+    public List<Map<String, Object>> ranking() {
+        return vendorsBy(true);
+    }
+
+    /**
+     * Vendors that skipped some items; they cannot be L1 but are listed with their coverage
+     */
+    public List<Map<String, Object>> incompleteVendors() {
+        return vendorsBy(false);
+    }
+
+    public List<Map<String, Object>> itemStatistics() {
+        List<Map<String, Object>> items = new ArrayList<>(itemCodes.size());
+        for (int item = 0; item < itemCodes.size(); item++) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("itemCode", itemCodes.get(item));
+            stats.put("quotes", itemCount[item]);
+            stats.put("min", round(itemMin[item]));
+            stats.put("q1", round(itemQ1[item].get()));
+            stats.put("median", round(itemMedian[item].get()));
+            stats.put("q3", round(itemQ3[item].get()));
+            stats.put("max", round(itemMax[item]));
+            stats.put("mean", round(itemSum[item] / itemCount[item]));
+            stats.put("l1VendorId", vendorIds.get(lowVendor[item * extremes]));
+            items.add(stats);
+        }
+        return items;
+    }
+
+    public List<Map<String, Object>> outliers() {
+        List<Map<String, Object>> outliers = new ArrayList<>();
+        for (int item = 0; item < itemCodes.size(); item++) {
+            if (itemCount[item] < minQuotesForOutliers) {
+                continue;
+            }
+            double q1 = itemQ1[item].get();
+            double q3 = itemQ3[item].get();
+            double lowerFence = q1 - iqrFactor * (q3 - q1);
+            double upperFence = q3 + iqrFactor * (q3 - q1);
+            int base = item * extremes;
+            for (int i = 0; i < lowSize[item] && lowPrice[base + i] < lowerFence; i++) {
+                outliers.add(outlier(item, lowVendor[base + i], lowPrice[base + i], "LOW", lowerFence, upperFence));
+            }
+            for (int i = 0; i < highSize[item] && highPrice[base + i] > upperFence; i++) {
+                outliers.add(outlier(item, highVendor[base + i], highPrice[base + i], "HIGH", lowerFence, upperFence));
+            }
+        }
+        return outliers;
+    }
+
+    private List<Map<String, Object>> vendorsBy(boolean complete) {
+        int items = itemCodes.size();
+        List<Integer> selected = new ArrayList<>();
+        for (int vendor = 0; vendor < vendorIds.size(); vendor++) {
+            if ((vendorCoverage[vendor].cardinality() == items) == complete) {
+                selected.add(vendor);
+            }
+        }
+        selected.sort((a, b) -> Double.compare(vendorTotal[a], vendorTotal[b]));
+        List<Map<String, Object>> rows = new ArrayList<>(selected.size());
+        for (int vendor : selected) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            if (complete) {
+                row.put("rank", "L" + (rows.size() + 1));
+            }
+            row.put("vendorId", vendorIds.get(vendor));
+            row.put("totalInr", round(vendorTotal[vendor]));
+            row.put("itemsQuoted", vendorCoverage[vendor].cardinality());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private Map<String, Object> outlier(int item, int vendor, double price, String side, double lowerFence, double upperFence) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("itemCode", itemCodes.get(item));
+        row.put("vendorId", vendorIds.get(vendor));
+        row.put("unitPriceInr", round(price));
+        row.put("side", side);
+        row.put("lowerFence", round(lowerFence));
+        row.put("upperFence", round(upperFence));
+        return row;
+    }
+
+    /**
+     * Insert into a bounded sorted run of slots, dropping the last one when full; returns the new run length
+     */
+    private int insert(double[] prices, int[] vendors, int base, int size, double price, int vendor, boolean ascending) {
+        int position = size;
+        while (position > 0 && (ascending ? price < prices[base + position - 1] : price > prices[base + position - 1])) {
+            position--;
+        }
+        if (position >= extremes) {
+            return size;
+        }
+        int last = Math.min(size, extremes - 1);
+        System.arraycopy(prices, base + position, prices, base + position + 1, last - position);
+        System.arraycopy(vendors, base + position, vendors, base + position + 1, last - position);
+        prices[base + position] = price;
+        vendors[base + position] = vendor;
+        return Math.min(size + 1, extremes);
+    }
+
+    private int addVendor(String vendorId) {
+        int index = vendorIds.size();
+        if (index == maxVendors) {
+            throw new IllegalArgumentException("Bid has more than " + maxVendors + " vendors");
+        }
+        vendorIds.add(vendorId);
+        if (index == vendorTotal.length) {
+            vendorTotal = Arrays.copyOf(vendorTotal, index * 2);
+            vendorCoverage = Arrays.copyOf(vendorCoverage, index * 2);
+        }
+        vendorCoverage[index] = new BitSet();
+        return index;
+    }
+
+    private int addItem(String itemCode) {
+        int index = itemCodes.size();
+        if (index == maxItems) {
+            throw new IllegalArgumentException("Bid has more than " + maxItems + " items");
+        }
+        itemCodes.add(itemCode);
+        if (index == itemCount.length) {
+            int capacity = index * 2;
+            itemCount = Arrays.copyOf(itemCount, capacity);
+            itemMin = Arrays.copyOf(itemMin, capacity);
+            itemMax = Arrays.copyOf(itemMax, capacity);
+            itemSum = Arrays.copyOf(itemSum, capacity);
+            itemQ1 = Arrays.copyOf(itemQ1, capacity);
+            itemMedian = Arrays.copyOf(itemMedian, capacity);
+            itemQ3 = Arrays.copyOf(itemQ3, capacity);
+            lowSize = Arrays.copyOf(lowSize, capacity);
+            highSize = Arrays.copyOf(highSize, capacity);
+            lowPrice = Arrays.copyOf(lowPrice, capacity * extremes);
+            lowVendor = Arrays.copyOf(lowVendor, capacity * extremes);
+            highPrice = Arrays.copyOf(highPrice, capacity * extremes);
+            highVendor = Arrays.copyOf(highVendor, capacity * extremes);
+        }
+        itemQ1[index] = new P2Quantile(0.25);
+        itemMedian[index] = new P2Quantile(0.5);
+        itemQ3[index] = new P2Quantile(0.75);
+        return index;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
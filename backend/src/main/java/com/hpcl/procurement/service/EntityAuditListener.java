@@ -0,0 +1,236 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Field-level audit capture for entity inserts, updates and deletes, fired only after the transaction commits.
+ * Updates record just the dirty columns from Hibernate's dirty-property and state arrays, as two small JSON
+ * objects (old and new values), instead of serializing whole entities. Associations and the @Version column are
+ * skipped. Entries are handed to the async audit writer, so the only cost on the committing thread is building
+ * the diff strings and one ring-buffer publish.
+ *
+ * JPQL bulk updates and native SQL bypass Hibernate events; those paths write their own entries in the same shape
+ * (bulk approvals, SLA escalation, exception auto-escalation, the exception upsert, SAP PO assignment).
+ */
+@Component
+public class EntityAuditListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityAuditListener.class);
+    private static final int MAX_VALUE_CHARS = 512;
+
+    private static final Map<String, String> ENTITY_TYPES = Map.of(
+        "PurchaseRequest", "PR",
+        "Approval", "APPROVAL",
+        "Rule", "RULE",
+        "ExceptionRecord", "EXCEPTION",
+        "ApprovalMatrixEntry", "APPROVAL_MATRIX");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Value("${procurement.audit.capture.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong captureNanos = new AtomicLong();
+    private final AtomicLong maxCaptureNanos = new AtomicLong();
+
+    @PostConstruct
+    public void register() {
+        if (!enabled) {
+            return;
+        }
+        if (!auditService.isAsync()) {
+            // A synchronous insert from a post-commit callback would run on the just-committed connection
+            log.warn("Entity audit capture needs procurement.audit.async=true; capture is disabled");
+            enabled = false;
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return enabled && ENTITY_TYPES.containsKey(simpleName(persister));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        long start = System.nanoTime();
+        EntityPersister persister = event.getPersister();
+        capture(persister, event.getId(), "CREATE", null, diff(persister, event.getState(), null, null, false), start);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        long start = System.nanoTime();
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        int[] dirty = event.getDirtyProperties();
+        String before = oldState == null ? null : diff(persister, oldState, event.getState(), dirty, true);
+        // Without a loaded snapshot there is nothing to diff against, so record the full new state
+        String after = oldState == null && dirty == null
+            ? diff(persister, event.getState(), null, null, false)
+            : diff(persister, event.getState(), oldState, dirty, true);
+        if ("{}".equals(after)) {
+            return;
+        }
+        capture(persister, event.getId(), "UPDATE", before, after, start);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        long start = System.nanoTime();
+        EntityPersister persister = event.getPersister();
+        capture(persister, event.getId(), "DELETE", diff(persister, event.getDeletedState(), null, null, false), null, start);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    /**
+     * Per-event capture cost on the committing thread, i.e. the overhead audit adds to each write
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = captured.get();
+        stats.put("enabled", enabled);
+        stats.put("captured", count);
+        stats.put("avgCaptureMicros", count == 0 ? 0.0 : captureNanos.get() / 1000.0 / count);
+        stats.put("maxCaptureMicros", maxCaptureNanos.get() / 1000.0);
+        return stats;
+    }
+
+    private void capture(EntityPersister persister, Object id, String action, String oldValue, String newValue, long start) {
+        AuditLog entry = new AuditLog();
+        entry.setEntityType(ENTITY_TYPES.get(simpleName(persister)));
+        entry.setEntityId(String.valueOf(id));
+        entry.setAction(action);
+        entry.setPerformedBy("system");
+        entry.setPerformedAt(LocalDateTime.now());
+        entry.setOldValue(oldValue);
+        entry.setNewValue(newValue);
+        auditService.capture(entry);
+
+        long elapsed = System.nanoTime() - start;
+        captured.incrementAndGet();
+        captureNanos.addAndGet(elapsed);
+        maxCaptureNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    /**
+     * Compact JSON object of the selected properties of {@code state}. With {@code changedOnly}, properties come
+     * from the dirty array, or from comparing against {@code other} when Hibernate did not compute one.
+     * Without it, every non-null property is included (inserts and deletes).
+     */
+    private static String diff(EntityPersister persister, Object[] state, Object[] other, int[] dirty, boolean changedOnly) {
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        int versionIndex = persister.isVersioned() ? persister.getVersionProperty() : -1;
+        StringBuilder json = new StringBuilder(64).append('{');
+        if (changedOnly && dirty != null) {
+            for (int index : dirty) {
+                append(json, names, types, state, index, versionIndex);
+            }
+        } else {
+            for (int index = 0; index < names.length; index++) {
+                boolean selected = changedOnly
+                    ? other != null && !Objects.equals(state[index], other[index])
+                    : state[index] != null;
+                if (selected) {
+                    append(json, names, types, state, index, versionIndex);
+                }
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static void append(StringBuilder json, String[] names, Type[] types, Object[] state, int index, int versionIndex) {
+        if (index == versionIndex || types[index].isAssociationType() || types[index].isCollectionType()) {
+            return;
+        }
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        json.append('"').append(names[index]).append("\":");
+        Object value = state == null ? null : state[index];
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            String text = value.toString();
+            if (text.length() > MAX_VALUE_CHARS) {
+                text = text.substring(0, MAX_VALUE_CHARS) + "...";
+            }
+            appendQuoted(json, text);
+        }
+    }
+
+    private static void appendQuoted(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String simpleName(EntityPersister persister) {
+        String name = persister.getEntityName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
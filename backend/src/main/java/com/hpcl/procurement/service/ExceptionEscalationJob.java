@@ -0,0 +1,259 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.model.AuditLog;
+import com.hpcl.procurement.model.ExceptionRecord;
+import com.hpcl.procurement.model.JobCheckpoint;
+import com.hpcl.procurement.repository.ExceptionRecordRepository;
+import com.hpcl.procurement.repository.JobCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escalates exceptions left OPEN past their per-severity SLA.
+ * Walks OPEN rows in keyset order on (status, created_at, id) one chunk at a time, escalates each chunk with a
+ * single UPDATE and stores the cursor in job_checkpoints in the same transaction, so a crash resumes at the last
+ * committed chunk. A run that finishes clears the checkpoint and the next run starts from the oldest row again.
+ */
+@Service
+public class ExceptionEscalationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ExceptionEscalationJob.class);
+    private static final String JOB_NAME = "exception-auto-escalation";
+    private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String[] SEVERITIES = {"CRITICAL", "HIGH", "MEDIUM", "LOW"};
+
+    @Autowired
+    private ExceptionRecordRepository exceptionRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ExceptionWorkQueue workQueue;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Value("${procurement.exceptions.escalation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${procurement.exceptions.escalation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${procurement.exceptions.escalation.critical-hours:4}")
+    private double criticalHours;
+
+    @Value("${procurement.exceptions.escalation.high-hours:24}")
+    private double highHours;
+
+    @Value("${procurement.exceptions.escalation.medium-hours:72}")
+    private double mediumHours;
+
+    @Value("${procurement.exceptions.escalation.low-hours:168}")
+    private double lowHours;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong resumedRuns = new AtomicLong();
+    private final AtomicLong totalEscalated = new AtomicLong();
+    private final ReentrantLock runLock = new ReentrantLock();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    @Scheduled(fixedDelayString = "${procurement.exceptions.escalation.interval-ms:300000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Exception auto-escalation run failed; it resumes from the last checkpoint", e);
+        }
+    }
+
+    /**
+     * Run (or resume) one full pass and return its statistics. Passes are serialized with a ReentrantLock rather
+     * than synchronized: the manual trigger runs on request threads, and a pass holds the lock across JDBC calls.
+     */
+    public Map<String, Object> run() {
+        runLock.lock();
+        try {
+            return runPass();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private Map<String, Object> runPass() {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, LocalDateTime> cutoffs = cutoffs(now);
+        LocalDateTime scanCutoff = cutoffs.values().stream().max(LocalDateTime::compareTo).orElse(now);
+
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseGet(() -> {
+            JobCheckpoint created = new JobCheckpoint();
+            created.setJobName(JOB_NAME);
+            return created;
+        });
+        boolean resumed = checkpoint.getRunStartedAt() != null;
+        if (resumed) {
+            resumedRuns.incrementAndGet();
+            log.info("Resuming exception auto-escalation after ({}, {})", checkpoint.getCursorCreatedAt(), checkpoint.getCursorId());
+        } else {
+            checkpoint.setRunStartedAt(now);
+            checkpoint.setCursorCreatedAt(SCAN_START);
+            checkpoint.setCursorId(0L);
+            checkpoint.setProcessedCount(0L);
+            checkpoint.setAffectedCount(0L);
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long scanned = 0;
+        long escalated = 0;
+        int chunks = 0;
+        while (true) {
+            List<Object[]> page = exceptionRepository.findOpenCreatedBeforePage(scanCutoff,
+                checkpoint.getCursorCreatedAt(), checkpoint.getCursorId(), PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> due = new ArrayList<>();
+            for (Object[] row : page) {
+                LocalDateTime cutoff = cutoffs.get((String) row[1]);
+                if (cutoff != null && ((LocalDateTime) row[2]).isBefore(cutoff)) {
+                    due.add((Long) row[0]);
+                }
+            }
+            Object[] last = page.get(page.size() - 1);
+            JobCheckpoint current = checkpoint;
+            // Cursor and escalation commit together, so a crash never skips or repeats a chunk
+            Integer updated = transaction.execute(status -> {
+                int count = due.isEmpty() ? 0 : escalate(due);
+                // Only a real change may move the exceptions ETag, or every scan would defeat clients' 304s
+                if (count > 0) {
+                    resourceVersions.changed(ResourceVersions.EXCEPTION);
+                }
+                current.setCursorCreatedAt((LocalDateTime) last[2]);
+                current.setCursorId((Long) last[0]);
+                current.setProcessedCount(current.getProcessedCount() + page.size());
+                current.setAffectedCount(current.getAffectedCount() + count);
+                checkpointRepository.save(current);
+                return count;
+            });
+            if (!due.isEmpty()) {
+                workQueue.offerAll(exceptionRepository.findAllById(due));
+            }
+            scanned += page.size();
+            escalated += updated == null ? 0 : updated;
+            chunks++;
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+
+        checkpoint.setRunStartedAt(null);
+        checkpoint.setCursorCreatedAt(null);
+        checkpoint.setCursorId(null);
+        checkpointRepository.save(checkpoint);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        runs.incrementAndGet();
+        totalEscalated.addAndGet(escalated);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("startedAt", now);
+        stats.put("resumed", resumed);
+        stats.put("chunks", chunks);
+        stats.put("scanned", scanned);
+        stats.put("escalated", escalated);
+        stats.put("durationMs", elapsedMs);
+        stats.put("scannedPerSecond", scanned * 1000 / elapsedMs);
+        lastRun = stats;
+        if (escalated > 0) {
+            log.info("Auto-escalated {} of {} overdue exceptions in {} ms", escalated, scanned, elapsedMs);
+        }
+        return stats;
+    }
+
+    /**
+     * Throughput of past runs plus the current backlog of OPEN exceptions already past their SLA
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("runs", runs.get());
+        stats.put("resumedRuns", resumedRuns.get());
+        stats.put("totalEscalated", totalEscalated.get());
+        stats.put("lastRun", lastRun);
+
+        Map<String, Long> backlog = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, LocalDateTime> cutoff : cutoffs(LocalDateTime.now()).entrySet()) {
+            long overdue = exceptionRepository.countByStatusAndSeverityAndCreatedAtBefore("OPEN", cutoff.getKey(), cutoff.getValue());
+            backlog.put(cutoff.getKey(), overdue);
+            total += overdue;
+        }
+        stats.put("overdueBacklog", backlog);
+        stats.put("overdueTotal", total);
+        checkpointRepository.findById(JOB_NAME).ifPresent(checkpoint -> stats.put("checkpoint", Map.of(
+            "inProgress", checkpoint.getRunStartedAt() != null,
+            "processed", checkpoint.getProcessedCount(),
+            "escalated", checkpoint.getAffectedCount(),
+            "updatedAt", String.valueOf(checkpoint.getUpdatedAt()))));
+        return stats;
+    }
+
+    /**
+     * Bulk-escalate one chunk and audit the rows the update actually changed (it skips rows no longer OPEN),
+     * comparing severities read before and after within the chunk's transaction
+     */
+    private int escalate(List<Long> due) {
+        Map<Long, String> openSeverities = new HashMap<>();
+        for (ExceptionRecord exception : exceptionRepository.findAllById(due)) {
+            if ("OPEN".equals(exception.getStatus())) {
+                openSeverities.put(exception.getId(), exception.getSeverity());
+            }
+        }
+        int count = exceptionRepository.escalateOpen(due);
+        List<AuditLog> audits = new ArrayList<>(count);
+        for (ExceptionRecord exception : exceptionRepository.findAllById(openSeverities.keySet())) {
+            if ("ESCALATED".equals(exception.getStatus())) {
+                audits.add(AuditService.systemEntry("EXCEPTION", exception.getId(), "UPDATE",
+                    "{\"status\":\"OPEN\",\"severity\":\"" + openSeverities.get(exception.getId()) + "\"}",
+                    "{\"status\":\"ESCALATED\",\"severity\":\"" + exception.getSeverity() + "\"}"));
+            }
+        }
+        auditService.logActions(audits);
+        return count;
+    }
+
+    private Map<String, LocalDateTime> cutoffs(LocalDateTime now) {
+        double[] hours = {criticalHours, highHours, mediumHours, lowHours};
+        Map<String, LocalDateTime> cutoffs = new LinkedHashMap<>();
+        for (int i = 0; i < SEVERITIES.length; i++) {
+            cutoffs.put(SEVERITIES[i], now.minusSeconds(Math.round(hours[i] * 3600)));
+        }
+        return cutoffs;
+    }
+}
@@ -1,56 +1,234 @@
 package com.hpcl.procurement.service;
 
+import com.hpcl.procurement.model.AuditLog;
 import com.hpcl.procurement.model.ExceptionRecord;
 import com.hpcl.procurement.repository.ExceptionRecordRepository;
+import com.hpcl.procurement.repository.ExceptionUpsertRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
+/**
+ * Unresolved exceptions are coalesced per (prId, ruleId, exceptionType): repeats bump occurrence_count and
+ * last_seen_at on the existing row instead of inserting duplicates. Rule-driven occurrences are buffered in
+ * memory and flushed as one batched upsert; a unique index on dedup_key enforces the invariant across instances.
+ */
 @Service
 public class ExceptionService {
 
+    private static final Logger log = LoggerFactory.getLogger(ExceptionService.class);
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
     @Autowired
     private ExceptionRecordRepository exceptionRepository;
 
+    @Autowired
+    private ExceptionUpsertRepository upsertRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExceptionWorkQueue workQueue;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${procurement.exceptions.flush-threshold:1000}")
+    private int flushThreshold;
+
     private final AtomicInteger exceptionSequence = new AtomicInteger(1);
+    private final Map<String, ExceptionRecord> pendingOccurrences = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
 
-    public List<ExceptionRecord> getAllExceptions() {
-        return exceptionRepository.findAll();
+    /**
+     * Continue after the highest sequence number already issued today, so a restart never re-issues an
+     * exception_id (on MySQL a colliding insert would silently update that other row through ON DUPLICATE KEY)
+     */
+    @PostConstruct
+    public void initSequence() {
+        String prefix = exceptionIdPrefix();
+        exceptionRepository.findExceptionIdsWithPrefix(prefix, PageRequest.of(0, 1)).stream()
+            .findFirst()
+            .ifPresent(latest -> {
+                try {
+                    exceptionSequence.set(Integer.parseInt(latest.substring(prefix.length())) + 1);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unparseable exception id {} when seeding the sequence", latest);
+                }
+            });
     }
 
     public List<ExceptionRecord> getExceptionsByPrId(String prId) {
         return exceptionRepository.findByPrId(prId);
     }
 
-    public List<ExceptionRecord> getOpenExceptions() {
-        return exceptionRepository.findByStatus("OPEN");
+    /**
+     * Every exception in id order as a database cursor; consume and close it inside a transaction, as the
+     * stream methods below
+     */
+    public Stream<ExceptionRecord> streamAllExceptions() {
+        return exceptionRepository.streamAll();
     }
 
-    public List<ExceptionRecord> getExceptionsBySeverity(String severity) {
-        return exceptionRepository.findBySeverity(severity);
+    public Stream<ExceptionRecord> streamOpenExceptions() {
+        return exceptionRepository.streamByStatus("OPEN");
+    }
+
+    public Stream<ExceptionRecord> streamExceptionsBySeverity(String severity) {
+        return exceptionRepository.streamBySeverity(severity);
     }
 
     public ExceptionRecord createException(ExceptionRecord exception) {
-        if (exception.getExceptionId() == null) {
-            exception.setExceptionId(generateExceptionId());
-        }
         if (exception.getStatus() == null) {
             exception.setStatus("OPEN");
         }
-        return exceptionRepository.save(exception);
+        String key = dedupKey(exception);
+        ExceptionRecord saved;
+        if (key == null || !"OPEN".equals(exception.getStatus())) {
+            if (exception.getExceptionId() == null) {
+                exception.setExceptionId(generateExceptionId());
+            }
+            saved = exceptionRepository.save(exception);
+        } else {
+            ExceptionRecord occurrence = newOccurrence(exception, key);
+            occurrence.setExceptionId(exception.getExceptionId());
+            Set<String> existingKeys = assignExceptionIds(List.of(occurrence));
+            upsert(List.of(occurrence));
+            saved = exceptionRepository.findByDedupKey(key)
+                .orElseThrow(() -> new IllegalStateException("Upserted exception not found: " + key));
+            auditUpserted(List.of(saved), existingKeys);
+        }
+        workQueue.offer(saved);
+        return saved;
+    }
+
+    /**
+     * Buffer one occurrence; it is merged with earlier occurrences of the same key and written on the next flush
+     */
+    public void recordOccurrence(ExceptionRecord exception) {
+        String key = dedupKey(exception);
+        if (key == null) {
+            createException(exception);
+            return;
+        }
+        pendingOccurrences.merge(key, newOccurrence(exception, key), (buffered, latest) -> {
+            buffered.setOccurrenceCount(buffered.getOccurrenceCount() + latest.getOccurrenceCount());
+            buffered.setLastSeenAt(latest.getLastSeenAt());
+            return buffered;
+        });
+        if (pendingOccurrences.size() >= flushThreshold) {
+            flushOccurrences();
+        }
+    }
+
+    public void recordViolations(List<RuleService.RuleViolation> violations) {
+        for (RuleService.RuleViolation violation : violations) {
+            ExceptionRecord exception = new ExceptionRecord();
+            exception.setPrId(violation.getPr().getPrId());
+            exception.setRuleId(violation.getRule().getRuleId());
+            exception.setExceptionType("RULE_VIOLATION");
+            exception.setSeverity(violation.getSeverity());
+            exception.setDescription(violation.getRule().getDescription());
+            recordOccurrence(exception);
+        }
+    }
+
+    /**
+     * Write all buffered occurrences as one batched upsert. Guarded by a ReentrantLock rather than synchronized:
+     * request threads can get here, and on virtual threads a monitor held across JDBC I/O pins the carrier.
+     */
+    @Scheduled(fixedDelayString = "${procurement.exceptions.flush-interval-ms:500}")
+    @PreDestroy
+    public void flushOccurrences() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        if (pendingOccurrences.isEmpty()) {
+            return;
+        }
+        List<ExceptionRecord> batch = new ArrayList<>();
+        for (String key : pendingOccurrences.keySet()) {
+            ExceptionRecord occurrence = pendingOccurrences.remove(key);
+            if (occurrence != null) {
+                batch.add(occurrence);
+            }
+        }
+        try {
+            Set<String> existingKeys = assignExceptionIds(batch);
+            upsert(batch);
+            List<String> keys = new ArrayList<>();
+            batch.forEach(occurrence -> keys.add(occurrence.getDedupKey()));
+            List<ExceptionRecord> upserted = exceptionRepository.findByDedupKeyIn(keys);
+            auditUpserted(upserted, existingKeys);
+            workQueue.offerAll(upserted);
+        } catch (RuntimeException e) {
+            // Put the counts back so the next flush retries them
+            log.error("Failed to flush {} exception occurrences", batch.size(), e);
+            batch.forEach(occurrence -> pendingOccurrences.merge(occurrence.getDedupKey(), occurrence, (buffered, failed) -> {
+                buffered.setOccurrenceCount(buffered.getOccurrenceCount() + failed.getOccurrenceCount());
+                return buffered;
+            }));
+        }
+    }
+
+    /**
+     * Raise many exceptions in one call (used by background jobs such as SLA escalation)
+     */
+    public List<ExceptionRecord> raiseExceptions(List<ExceptionRecord> exceptions) {
+        for (ExceptionRecord exception : exceptions) {
+            if (exception.getExceptionId() == null) {
+                exception.setExceptionId(generateExceptionId());
+            }
+            if (exception.getStatus() == null) {
+                exception.setStatus("OPEN");
+            }
+        }
+        List<ExceptionRecord> saved = exceptionRepository.saveAll(exceptions);
+        workQueue.offerAll(saved);
+        return saved;
     }
 
     public ExceptionRecord resolveException(String exceptionId, String resolution, String resolvedBy) {
         return exceptionRepository.findByExceptionId(exceptionId)
             .map(exception -> {
                 exception.setStatus("RESOLVED");
+                exception.setDedupKey(null);
                 exception.setResolution(resolution);
                 exception.setResolvedBy(resolvedBy);
                 exception.setResolvedAt(LocalDateTime.now());
-                return exceptionRepository.save(exception);
+                ExceptionRecord saved = exceptionRepository.save(exception);
+                workQueue.remove(exceptionId);
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Exception not found: " + exceptionId));
     }
@@ -60,15 +238,103 @@ public class ExceptionService {
             .map(exception -> {
                 exception.setStatus("ESCALATED");
                 exception.setSeverity(escalateSeverity(exception.getSeverity()));
-                return exceptionRepository.save(exception);
+                ExceptionRecord saved = exceptionRepository.save(exception);
+                workQueue.offer(saved);
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Exception not found: " + exceptionId));
     }
 
+    private void upsert(List<ExceptionRecord> occurrences) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    upsertRepository.upsertAll(occurrences);
+                    resourceVersions.changed(ResourceVersions.EXCEPTION);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Another writer inserted one of the keys first; on retry those rows take the update branch
+                if (attempt >= MAX_FLUSH_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * The native upsert bypasses Hibernate events, so audit its rows here: new rows as INSERT, repeats of an existing
+     * row as UPDATE of its occurrence count
+     */
+    private void auditUpserted(List<ExceptionRecord> upserted, Set<String> existingKeys) {
+        List<AuditLog> audits = new ArrayList<>(upserted.size());
+        for (ExceptionRecord exception : upserted) {
+            if (existingKeys.contains(exception.getDedupKey())) {
+                audits.add(AuditService.systemEntry("EXCEPTION", exception.getId(), "UPDATE", null,
+                    "{\"occurrenceCount\":" + exception.getOccurrenceCount() + ",\"lastSeenAt\":\"" + exception.getLastSeenAt() + "\"}"));
+            } else {
+                audits.add(AuditService.systemEntry("EXCEPTION", exception.getId(), "INSERT", null,
+                    "{\"exceptionId\":\"" + exception.getExceptionId() + "\",\"exceptionType\":\"" + exception.getExceptionType()
+                        + "\",\"severity\":\"" + exception.getSeverity() + "\",\"status\":\"" + exception.getStatus() + "\"}"));
+            }
+        }
+        auditService.logActions(audits);
+    }
+
+    /**
+     * Give each occurrence the exception_id of its existing unresolved row, or a fresh one if the upsert will insert
+     * it, so the sequence only advances for rows actually created. A row inserted concurrently by another writer
+     * just leaves a gap: the upsert takes its update branch and ignores the fresh id.
+     *
+     * @return dedup keys that already had a row
+     */
+    private Set<String> assignExceptionIds(List<ExceptionRecord> occurrences) {
+        List<String> keys = new ArrayList<>();
+        occurrences.forEach(occurrence -> keys.add(occurrence.getDedupKey()));
+        Map<String, String> existingIds = new HashMap<>();
+        exceptionRepository.findByDedupKeyIn(keys)
+            .forEach(existing -> existingIds.put(existing.getDedupKey(), existing.getExceptionId()));
+        for (ExceptionRecord occurrence : occurrences) {
+            String existingId = existingIds.get(occurrence.getDedupKey());
+            if (existingId != null) {
+                occurrence.setExceptionId(existingId);
+            } else if (occurrence.getExceptionId() == null) {
+                occurrence.setExceptionId(generateExceptionId());
+            }
+        }
+        return existingIds.keySet();
+    }
+
+    private static ExceptionRecord newOccurrence(ExceptionRecord source, String key) {
+        LocalDateTime now = LocalDateTime.now();
+        ExceptionRecord occurrence = new ExceptionRecord();
+        occurrence.setDedupKey(key);
+        occurrence.setPrId(source.getPrId());
+        occurrence.setRuleId(source.getRuleId());
+        occurrence.setExceptionType(source.getExceptionType());
+        occurrence.setSeverity(source.getSeverity());
+        occurrence.setDescription(source.getDescription());
+        occurrence.setOccurrenceCount(1);
+        occurrence.setCreatedAt(now);
+        occurrence.setLastSeenAt(now);
+        return occurrence;
+    }
+
+    private static String dedupKey(ExceptionRecord exception) {
+        if (exception.getPrId() == null || exception.getRuleId() == null) {
+            return null;
+        }
+        String type = exception.getExceptionType() == null ? "" : exception.getExceptionType();
+        return exception.getPrId() + "|" + exception.getRuleId() + "|" + type;
+    }
+
     private String generateExceptionId() {
-        return String.format("EXC-%s-%03d", 
-            LocalDateTime.now().toLocalDate().toString().replace("-", ""),
-            exceptionSequence.getAndIncrement());
+        return String.format("%s%03d", exceptionIdPrefix(), exceptionSequence.getAndIncrement());
+    }
+
+    private static String exceptionIdPrefix() {
+        return "EXC-" + LocalDateTime.now().toLocalDate().toString().replace("-", "") + "-";
     }
 
     private String escalateSeverity(String currentSeverity) {
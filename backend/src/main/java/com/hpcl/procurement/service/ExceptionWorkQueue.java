@@ -0,0 +1,230 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.dto.ExceptionQueueItem;
+import com.hpcl.procurement.model.ExceptionRecord;
+import com.hpcl.procurement.repository.ExceptionRecordRepository;
+import com.hpcl.procurement.repository.PurchaseRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory priority index over unresolved exceptions, ordered by severity, then age, then PR value.
+ * Backed by a concurrent skip list, so top-K is O(log n + K) and reviewers can read and claim concurrently.
+ * Claims are time-bound leases: a reviewer owns an item until it is resolved, released or the lease expires.
+ * ExceptionService keeps the index in step with create/resolve/escalate; it is rebuilt from the table on startup.
+ */
+@Service
+public class ExceptionWorkQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ExceptionWorkQueue.class);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    private static final Comparator<Entry> PRIORITY = Comparator
+        .comparingInt((Entry e) -> -e.severityRank)
+        .thenComparing(e -> e.createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(e -> e.prValue, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparingLong(e -> e.id);
+
+    @Autowired
+    private ExceptionRecordRepository exceptionRepository;
+
+    @Autowired
+    private PurchaseRequestRepository purchaseRequestRepository;
+
+    private final ConcurrentSkipListSet<Entry> index = new ConcurrentSkipListSet<>(PRIORITY);
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        while (true) {
+            List<ExceptionRecord> page = exceptionRepository.findUnresolvedPage(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            offerAll(page);
+            if (page.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Exception work queue loaded with {} unresolved exceptions", entries.size());
+    }
+
+    /**
+     * Add or re-rank exceptions; resolved ones are removed. PR values are fetched with one query.
+     */
+    public void offerAll(Collection<ExceptionRecord> exceptions) {
+        if (exceptions.isEmpty()) {
+            return;
+        }
+        Set<String> prIds = new HashSet<>();
+        exceptions.forEach(e -> {
+            if (e.getPrId() != null) {
+                prIds.add(e.getPrId());
+            }
+        });
+        Map<String, BigDecimal> values = new HashMap<>();
+        if (!prIds.isEmpty()) {
+            for (Object[] row : purchaseRequestRepository.findValuesByPrIdIn(prIds)) {
+                values.put((String) row[0], (BigDecimal) row[1]);
+            }
+        }
+        for (ExceptionRecord exception : exceptions) {
+            if ("OPEN".equals(exception.getStatus()) || "ESCALATED".equals(exception.getStatus())) {
+                put(new Entry(exception, values.get(exception.getPrId())));
+            } else {
+                remove(exception.getExceptionId());
+            }
+        }
+    }
+
+    public void offer(ExceptionRecord exception) {
+        offerAll(List.of(exception));
+    }
+
+    public void remove(String exceptionId) {
+        entries.computeIfPresent(exceptionId, (id, previous) -> {
+            index.remove(previous);
+            return null;
+        });
+        leases.remove(exceptionId);
+    }
+
+    /**
+     * The K most urgent unresolved exceptions, claimed or not
+     */
+    public List<ExceptionQueueItem> top(int k) {
+        List<ExceptionQueueItem> items = new ArrayList<>(k);
+        long now = System.currentTimeMillis();
+        for (Entry entry : index) {
+            if (items.size() >= k) {
+                break;
+            }
+            items.add(toItem(entry, activeLease(entry.exceptionId, now)));
+        }
+        return items;
+    }
+
+    /**
+     * Lease up to K of the most urgent unclaimed exceptions to a reviewer.
+     * Each lease is taken with an atomic compute on the lease map, so two reviewers never get the same item.
+     */
+    public List<ExceptionQueueItem> claim(String reviewer, int k, long leaseMs) {
+        List<ExceptionQueueItem> claimed = new ArrayList<>(k);
+        long now = System.currentTimeMillis();
+        for (Entry entry : index) {
+            if (claimed.size() >= k) {
+                break;
+            }
+            Lease candidate = new Lease(reviewer, now + leaseMs);
+            Lease granted = leases.compute(entry.exceptionId, (id, existing) ->
+                existing == null || existing.expiresAtMs <= now ? candidate : existing);
+            // The entry may have been resolved while we were leasing it
+            if (granted == candidate && entries.get(entry.exceptionId) == entry) {
+                claimed.add(toItem(entry, granted));
+            } else if (granted == candidate) {
+                leases.remove(entry.exceptionId, candidate);
+            }
+        }
+        return claimed;
+    }
+
+    public boolean release(String exceptionId, String reviewer) {
+        Lease lease = leases.get(exceptionId);
+        return lease != null && lease.reviewer.equals(reviewer) && leases.remove(exceptionId, lease);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Swap the key's entry in the map and the index as one step: compute runs serially per key, so concurrent
+     * offers of the same exception (flush, escalation job, create) can never leave a stale entry in the index
+     */
+    private void put(Entry entry) {
+        entries.compute(entry.exceptionId, (id, previous) -> {
+            if (previous != null) {
+                index.remove(previous);
+            }
+            index.add(entry);
+            return entry;
+        });
+    }
+
+    private Lease activeLease(String exceptionId, long now) {
+        Lease lease = leases.get(exceptionId);
+        return lease != null && lease.expiresAtMs > now ? lease : null;
+    }
+
+    private static ExceptionQueueItem toItem(Entry entry, Lease lease) {
+        return new ExceptionQueueItem(entry.exceptionId, entry.prId, entry.severity, entry.status, entry.createdAt,
+            entry.prValue, lease == null ? null : lease.reviewer,
+            lease == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(lease.expiresAtMs), ZONE));
+    }
+
+    private static int severityRank(String severity) {
+        if (severity == null) {
+            return 0;
+        }
+        switch (severity) {
+            case "CRITICAL": return 4;
+            case "HIGH": return 3;
+            case "MEDIUM": return 2;
+            case "LOW": return 1;
+            default: return 0;
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String exceptionId;
+        private final String prId;
+        private final String severity;
+        private final int severityRank;
+        private final String status;
+        private final LocalDateTime createdAt;
+        private final BigDecimal prValue;
+
+        private Entry(ExceptionRecord exception, BigDecimal prValue) {
+            this.id = exception.getId();
+            this.exceptionId = exception.getExceptionId();
+            this.prId = exception.getPrId();
+            this.severity = exception.getSeverity();
+            this.severityRank = severityRank(exception.getSeverity());
+            this.status = exception.getStatus();
+            this.createdAt = exception.getCreatedAt();
+            this.prValue = prValue;
+        }
+    }
+
+    private static final class Lease {
+        private final String reviewer;
+        private final long expiresAtMs;
+
+        private Lease(String reviewer, long expiresAtMs) {
+            this.reviewer = reviewer;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hpcl.procurement.service;
+
+import java.util.Map;
+
+/**
+ * Responses to POSTs sent with an Idempotency-Key, so a retried request replays the first response instead of
+ * running again. Keys and fingerprints arrive already hashed (client + key, method + URI + body). The first request
+ * for a key claims it and runs; a duplicate that arrives while it runs waits for its response, up to a deadline.
+ * A claim that ends without a stored response (exception, 5xx) is released so the next retry runs afresh.
+ * Each claim carries an owner token; complete and abandon only act on the caller's own claim, so a request whose
+ * claim was taken over can no longer overwrite or delete the new owner's.
+ */
+public interface IdempotencyStore {
+
+    enum Decision { EXECUTE, REPLAY, MISMATCH, IN_PROGRESS }
+
+    /**
+     * Claim {@code key} or wait up to {@code waitMillis} for the response of whoever holds it
+     */
+    Outcome begin(String key, String fingerprint, long waitMillis);
+
+    /**
+     * Store the response of the claim {@code owner} holds; a no-op if the claim is no longer theirs
+     */
+    void complete(String key, String owner, StoredResponse response);
+
+    /**
+     * Release the claim {@code owner} holds without a response; a no-op if the claim is no longer theirs
+     */
+    void abandon(String key, String owner);
+
+    Map<String, Object> getStats();
+
+    final class StoredResponse {
+
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public int getStatus() { return status; }
+        public String getContentType() { return contentType; }
+        public byte[] getBody() { return body; }
+    }
+
+    final class Outcome {
+
+        private static final Outcome MISMATCH = new Outcome(Decision.MISMATCH, null, null);
+        private static final Outcome IN_PROGRESS = new Outcome(Decision.IN_PROGRESS, null, null);
+
+        private final Decision decision;
+        private final StoredResponse response;
+        private final String owner;
+
+        private Outcome(Decision decision, StoredResponse response, String owner) {
+            this.decision = decision;
+            this.response = response;
+            this.owner = owner;
+        }
+
+        public static Outcome execute(String owner) { return new Outcome(Decision.EXECUTE, null, owner); }
+        public static Outcome mismatch() { return MISMATCH; }
+        public static Outcome inProgress() { return IN_PROGRESS; }
+        public static Outcome replay(StoredResponse response) { return new Outcome(Decision.REPLAY, response, null); }
+
+        public Decision getDecision() { return decision; }
+        public StoredResponse getResponse() { return response; }
+        public String getOwner() { return owner; }
+    }
+}
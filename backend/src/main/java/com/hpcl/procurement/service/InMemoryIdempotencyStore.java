@@ -0,0 +1,135 @@
+package com.hpcl.procurement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency store for a single instance. Each key maps to a future that the executing request completes with
+ * its response, so in-flight duplicates simply wait on it. Claims never lapse here (the owner lives in this JVM),
+ * so the owner token only guards against stray calls. An abandoned claim completes the future with null and
+ * its waiters race to claim the key again. Completed keys live ttl-minutes; the sweep drops expired keys and, past
+ * max-entries, the completed keys closest to expiry.
+ */
+@Component
+@ConditionalOnProperty(name = "procurement.idempotency.store", havingValue = "MEMORY", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    @Value("${procurement.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${procurement.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong owners = new AtomicLong();
+
+    @Override
+    public Outcome begin(String key, String fingerprint, long waitMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        for (;;) {
+            Entry claim = new Entry(fingerprint, Long.toString(owners.incrementAndGet()));
+            Entry existing = entries.putIfAbsent(key, claim);
+            if (existing == null) {
+                return Outcome.execute(claim.owner);
+            }
+            if (existing.isExpired(System.currentTimeMillis())) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return Outcome.mismatch();
+            }
+            try {
+                StoredResponse response = existing.response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (response != null) {
+                    return Outcome.replay(response);
+                }
+            } catch (TimeoutException e) {
+                return Outcome.inProgress();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Outcome.inProgress();
+            } catch (ExecutionException e) {
+                // Never completed exceptionally; treat like an abandoned claim
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String owner, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.owner.equals(owner)) {
+            entry.expiresAtMillis = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes);
+            entry.response.complete(response);
+        }
+    }
+
+    @Override
+    public void abandon(String key, String owner) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.owner.equals(owner) && entries.remove(key, entry)) {
+            entry.response.complete(null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${procurement.idempotency.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        entries.forEach((key, entry) -> {
+            if (entry.isExpired(now) && entries.remove(key, entry)) {
+                evicted.incrementAndGet();
+            }
+        });
+        int excess = entries.size() - maxEntries;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                .filter(e -> e.getValue().response.isDone())
+                .sorted(Comparator.comparingLong(e -> e.getValue().expiresAtMillis))
+                .limit(excess)
+                .forEach(e -> {
+                    if (entries.remove(e.getKey(), e.getValue())) {
+                        evicted.incrementAndGet();
+                    }
+                });
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", "MEMORY");
+        stats.put("keys", entries.size());
+        stats.put("evicted", evicted.get());
+        return stats;
+    }
+
+    private static final class Entry {
+
+        final String fingerprint;
+        final String owner;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        volatile long expiresAtMillis = Long.MAX_VALUE;
+
+        Entry(String fingerprint, String owner) {
+            this.fingerprint = fingerprint;
+            this.owner = owner;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return response.isDone() && expiresAtMillis <= nowMillis;
+        }
+    }
+}
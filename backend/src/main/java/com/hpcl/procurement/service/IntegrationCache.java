@@ -0,0 +1,218 @@
+package com.hpcl.procurement.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * TTL cache in front of one slow-changing integration read.
+ * - Negative answers (e.g. "not registered") are kept for the shorter negativeTtl so a fix on the portal shows up soon.
+ * - A key read at least hotHits times is reloaded in the background once refreshAhead of its TTL has passed, so hot
+ *   keys never expire in front of a caller.
+ * - Concurrent misses for one key share a single load.
+ * - Responses rejected by {@code cacheable} (gateway fallbacks) are never stored; if a stale entry exists it is
+ *   served instead, since day-old reference data beats an UNAVAILABLE answer.
+ */
+public class IntegrationCache<K, V> {
+
+    private final String name;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final Predicate<V> negative;
+    private final Predicate<V> cacheable;
+    private final int maxEntries;
+    private final double refreshAhead;
+    private final int hotHits;
+    private final Executor refresher;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    public IntegrationCache(String name, Duration ttl, Duration negativeTtl, Predicate<V> negative, Predicate<V> cacheable,
+                            int maxEntries, double refreshAhead, int hotHits, Executor refresher) {
+        this.name = name;
+        this.ttlMs = ttl.toMillis();
+        this.negativeTtlMs = negativeTtl.toMillis();
+        this.negative = negative;
+        this.cacheable = cacheable;
+        this.maxEntries = maxEntries;
+        this.refreshAhead = refreshAhead;
+        this.hotHits = hotHits;
+        this.refresher = refresher;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now < entry.expiresAt) {
+            hits.incrementAndGet();
+            if (entry.negative) {
+                negativeHits.incrementAndGet();
+            }
+            if (entry.hits.incrementAndGet() >= hotHits && now >= entry.refreshAt
+                    && entry.refreshing.compareAndSet(false, true)) {
+                refreshInBackground(key, loader, entry);
+            }
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        return load(key, loader, entry);
+    }
+
+    /**
+     * Load and store a key unless a fresh entry is already cached; used for bulk warm-up
+     */
+    public void warm(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || System.currentTimeMillis() >= entry.expiresAt) {
+            load(key, loader, entry);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        long loadCount = loads.get();
+        stats.put("size", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("negativeHits", negativeHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("coalescedLoads", coalesced.get());
+        stats.put("backgroundRefreshes", refreshes.get());
+        stats.put("staleServed", staleServed.get());
+        stats.put("evictions", evictions.get());
+        stats.put("avgLoadMillis", loadCount == 0 ? 0.0 : loadNanos.get() / 1_000_000.0 / loadCount);
+        stats.put("ttlMinutes", ttlMs / 60_000);
+        stats.put("negativeTtlMinutes", negativeTtlMs / 60_000);
+        return stats;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private V load(K key, Function<K, V> loader, Entry<V> stale) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running.join();
+        }
+        try {
+            V value = store(key, timedLoad(key, loader), stale);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private V store(K key, V value, Entry<V> stale) {
+        if (!cacheable.test(value)) {
+            if (stale != null) {
+                staleServed.incrementAndGet();
+                return stale.value;
+            }
+            return value;
+        }
+        boolean isNegative = negative.test(value);
+        long now = System.currentTimeMillis();
+        long ttl = isNegative ? negativeTtlMs : ttlMs;
+        entries.put(key, new Entry<>(value, isNegative, now + ttl, now + (long) (ttl * refreshAhead)));
+        if (entries.size() > maxEntries) {
+            evict(now);
+        }
+        return value;
+    }
+
+    private void refreshInBackground(K key, Function<K, V> loader, Entry<V> entry) {
+        try {
+            refresher.execute(() -> {
+                try {
+                    V value = timedLoad(key, loader);
+                    refreshes.incrementAndGet();
+                    store(key, value, entry);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh queue is full; the entry is reloaded on expiry instead
+            entry.refreshing.set(false);
+        }
+    }
+
+    private V timedLoad(K key, Function<K, V> loader) {
+        long start = System.nanoTime();
+        try {
+            return loader.apply(key);
+        } finally {
+            loadNanos.addAndGet(System.nanoTime() - start);
+            loads.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop expired entries, then, if still over the limit, arbitrary ones until 10% below it
+     */
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean expired = now >= e.getValue().expiresAt;
+            if (expired) {
+                evictions.incrementAndGet();
+            }
+            return expired;
+        });
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() > maxEntries * 0.9 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final boolean negative;
+        final long expiresAt;
+        final long refreshAt;
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(V value, boolean negative, long expiresAt, long refreshAt) {
+            this.value = value;
+            this.negative = negative;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
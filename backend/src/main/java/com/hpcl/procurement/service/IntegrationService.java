@@ -0,0 +1,253 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.integration.BidQuoteConsumer;
+import com.hpcl.procurement.integration.CPPPAdapter;
+import com.hpcl.procurement.integration.GeMAdapter;
+import com.hpcl.procurement.integration.IntegrationGateway;
+import com.hpcl.procurement.integration.IntegrationUnavailableException;
+import com.hpcl.procurement.integration.SAPAdapter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Entry point for calls to SAP, GeM and CPPP; every call goes through the IntegrationGateway.
+ * Reads degrade to a fallback response marked {@code "fallback": true} with status UNAVAILABLE so screens keep
+ * working while a portal is down. Writes throw IntegrationUnavailableException so the caller (the outbox) retries.
+ *
+ * GeM supplier registrations and CPPP category guidelines change daily at most, so they are served from
+ * IntegrationCaches with per-endpoint TTLs, warmed at startup from the vendors and categories already in pr_records.
+ */
+@Service
+public class IntegrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(IntegrationService.class);
+
+    @Autowired
+    private IntegrationGateway gateway;
+
+    @Autowired
+    private SAPAdapter sapAdapter;
+
+    @Autowired
+    private GeMAdapter gemAdapter;
+
+    @Autowired
+    private CPPPAdapter cpppAdapter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${procurement.integrations.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${procurement.integrations.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${procurement.integrations.cache.refresh-ahead:0.8}")
+    private double refreshAhead;
+
+    @Value("${procurement.integrations.cache.hot-hits:2}")
+    private int hotHits;
+
+    @Value("${procurement.integrations.cache.warm-on-startup:true}")
+    private boolean warmOnStartup;
+
+    @Value("${procurement.integrations.cache.warm-concurrency:4}")
+    private int warmConcurrency;
+
+    @Value("${procurement.integrations.cache.gem-supplier.ttl-minutes:1440}")
+    private long supplierTtlMinutes;
+
+    @Value("${procurement.integrations.cache.gem-supplier.negative-ttl-minutes:60}")
+    private long supplierNegativeTtlMinutes;
+
+    @Value("${procurement.integrations.cache.cppp-guidelines.ttl-minutes:1440}")
+    private long guidelinesTtlMinutes;
+
+    @Value("${procurement.integrations.cache.cppp-guidelines.negative-ttl-minutes:60}")
+    private long guidelinesNegativeTtlMinutes;
+
+    private ThreadPoolExecutor refresher;
+    private IntegrationCache<String, Map<String, Object>> supplierCache;
+    private IntegrationCache<String, Map<String, Object>> guidelinesCache;
+    private volatile Map<String, Object> lastWarmUp = Map.of();
+
+    @PostConstruct
+    public void initCaches() {
+        AtomicInteger threadIds = new AtomicInteger();
+        refresher = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1000), r -> {
+            Thread thread = new Thread(r, "integration-cache-refresh-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.allowCoreThreadTimeOut(true);
+        supplierCache = new IntegrationCache<>("GEM.checkSupplierRegistration",
+            Duration.ofMinutes(supplierTtlMinutes), Duration.ofMinutes(supplierNegativeTtlMinutes),
+            response -> Boolean.FALSE.equals(response.get("registered")), IntegrationService::isCacheable,
+            cacheMaxEntries, refreshAhead, hotHits, refresher);
+        guidelinesCache = new IntegrationCache<>("CPPP.getGuidelinesForCategory",
+            Duration.ofMinutes(guidelinesTtlMinutes), Duration.ofMinutes(guidelinesNegativeTtlMinutes),
+            response -> response.get("guidelines") == null, IntegrationService::isCacheable,
+            cacheMaxEntries, refreshAhead, hotHits, refresher);
+    }
+
+    @PreDestroy
+    public void stopRefresher() {
+        refresher.shutdownNow();
+    }
+
+    public Map<String, Object> syncPurchaseRequest(String prId, Map<String, Object> prData) {
+        return gateway.call("SAP", "syncPurchaseRequest", () -> sapAdapter.syncPurchaseRequest(prId, prData));
+    }
+
+    public Map<String, Object> createPurchaseOrder(String prId) {
+        return gateway.call("SAP", "createPurchaseOrder", () -> sapAdapter.createPurchaseOrder(prId));
+    }
+
+    public Map<String, Object> getPOStatus(String poNumber) {
+        return gateway.call("SAP", "getPOStatus", () -> sapAdapter.getPOStatus(poNumber),
+            e -> fallback(e, "poNumber", poNumber));
+    }
+
+    public Map<String, Object> publishBid(String prId, Map<String, Object> bidDetails) {
+        return gateway.call("GEM", "publishBid", () -> gemAdapter.publishBid(prId, bidDetails));
+    }
+
+    /**
+     * Stream a bid's quotes from GeM; runs on the GeM bulkhead, so the whole stream is bound by its timeout
+     */
+    public long streamBidQuotes(String bidId, BidQuoteConsumer consumer) {
+        return gateway.call("GEM", "streamBidQuotes", () -> gemAdapter.streamBidQuotes(bidId, consumer));
+    }
+
+    /**
+     * One batched SAP status request; throws IntegrationUnavailableException so the caller can skip the batch
+     */
+    public Map<String, Map<String, Object>> getPOStatuses(Collection<String> poNumbers) {
+        return gateway.call("SAP", "getPOStatuses", () -> sapAdapter.getPOStatuses(poNumbers));
+    }
+
+    public Map<String, Object> checkSupplierRegistration(String supplierName) {
+        return cacheEnabled ? supplierCache.get(supplierName, this::loadSupplierRegistration)
+            : loadSupplierRegistration(supplierName);
+    }
+
+    public Map<String, Object> getGuidelinesForCategory(String category) {
+        return cacheEnabled ? guidelinesCache.get(category, this::loadGuidelines) : loadGuidelines(category);
+    }
+
+    private Map<String, Object> loadSupplierRegistration(String supplierName) {
+        return gateway.call("GEM", "checkSupplierRegistration", () -> gemAdapter.checkSupplierRegistration(supplierName),
+            e -> fallback(e, "supplierName", supplierName));
+    }
+
+    private Map<String, Object> loadGuidelines(String category) {
+        return gateway.call("CPPP", "getGuidelinesForCategory", () -> cpppAdapter.getGuidelinesForCategory(category),
+            e -> fallback(e, "category", category));
+    }
+
+    public Map<String, Object> checkCompliance(String contractId) {
+        return gateway.call("CPPP", "checkCompliance", () -> cpppAdapter.checkCompliance(contractId),
+            e -> fallback(e, "contractId", contractId));
+    }
+
+    public Map<String, Object> getStats() {
+        return gateway.getStats();
+    }
+
+    /**
+     * Hit ratio, negative hits, background refreshes and stale serves per cached adapter method
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", cacheEnabled);
+        stats.put(supplierCache.getName(), supplierCache.getStats());
+        stats.put(guidelinesCache.getName(), guidelinesCache.getStats());
+        stats.put("lastWarmUp", lastWarmUp);
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (cacheEnabled && warmOnStartup) {
+            Thread thread = new Thread(this::warmCaches, "integration-cache-warm");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Preload registrations for every vendor and guidelines for every category seen on PRs. Loads run
+     * warm-concurrency at a time, and still pass through the adapters' bulkheads.
+     */
+    public Map<String, Object> warmCaches() {
+        long start = System.nanoTime();
+        List<String> vendors = jdbcTemplate.queryForList(
+            "SELECT DISTINCT vendor_name FROM pr_records WHERE vendor_name IS NOT NULL", String.class);
+        List<String> categories = jdbcTemplate.queryForList(
+            "SELECT DISTINCT category FROM pr_records WHERE category IS NOT NULL", String.class);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, warmConcurrency));
+        List<Future<?>> loads = new ArrayList<>(vendors.size() + categories.size());
+        try {
+            vendors.forEach(vendor -> loads.add(pool.submit(() -> supplierCache.warm(vendor, this::loadSupplierRegistration))));
+            categories.forEach(category -> loads.add(pool.submit(() -> guidelinesCache.warm(category, this::loadGuidelines))));
+            for (Future<?> load : loads) {
+                load.get();
+            }
+        } catch (Exception e) {
+            log.warn("Integration cache warm-up stopped early", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("vendors", vendors.size());
+        result.put("categories", categories.size());
+        result.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        lastWarmUp = result;
+        log.info("Integration caches warmed: {} vendors, {} categories in {} ms",
+            vendors.size(), categories.size(), result.get("elapsedMillis"));
+        return result;
+    }
+
+    public void invalidateCaches() {
+        supplierCache.invalidateAll();
+        guidelinesCache.invalidateAll();
+    }
+
+    private static boolean isCacheable(Map<String, Object> response) {
+        return !Boolean.TRUE.equals(response.get("fallback"));
+    }
+
+    private static Map<String, Object> fallback(IntegrationUnavailableException e, String key, String value) {
+        Map<String, Object> response = new HashMap<>();
+        response.put(key, value);
+        response.put("status", "UNAVAILABLE");
+        response.put("fallback", true);
+        response.put("reason", e.getReason().name());
+        response.put("message", e.getAdapter() + " is unavailable; try again later");
+        return response;
+    }
+}
@@ -0,0 +1,156 @@
+package com.hpcl.procurement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency store in the idempotency_keys table, shared by every instance. The primary key insert is the claim;
+ * a duplicate on any instance polls the row until it is COMPLETED or its wait runs out. A claim whose lease has
+ * lapsed (the instance died mid-request) is taken over with a compare-and-set on locked_until, which also writes a
+ * new owner token. Leases of requests still running here are renewed every renew-interval-ms, so a slow request is
+ * not taken over while alive, and complete/abandon match on the owner, so a superseded request changes nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "procurement.idempotency.store", havingValue = "DATABASE")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${procurement.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${procurement.idempotency.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${procurement.idempotency.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong leasesLost = new AtomicLong();
+    // Claims held by requests running on this instance, key -> owner token
+    private final Map<String, String> activeClaims = new ConcurrentHashMap<>();
+
+    @Override
+    public Outcome begin(String key, String fingerprint, long waitMillis) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        for (;;) {
+            long now = System.currentTimeMillis();
+            String owner = UUID.randomUUID().toString();
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (idem_key, fingerprint, status, owner, locked_until, " +
+                        "created_at, expires_at) VALUES (?, ?, 'IN_PROGRESS', ?, ?, ?, ?)",
+                    key, fingerprint, owner, new Timestamp(now + leaseMs), new Timestamp(now), new Timestamp(now + ttl()));
+                return claimed(key, owner);
+            } catch (DuplicateKeyException e) {
+                // Claimed already; decide from the row below
+            }
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT fingerprint, status, response_status, " +
+                "content_type, response_body, locked_until, expires_at FROM idempotency_keys WHERE idem_key = ?", key);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> row = rows.get(0);
+            String status = (String) row.get("status");
+            if ("COMPLETED".equals(status) && ((Timestamp) row.get("expires_at")).getTime() <= now) {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idem_key = ? AND expires_at <= ?", key, new Timestamp(now));
+                continue;
+            }
+            if (!fingerprint.equals(row.get("fingerprint"))) {
+                return Outcome.mismatch();
+            }
+            if ("COMPLETED".equals(status)) {
+                return Outcome.replay(new StoredResponse(((Number) row.get("response_status")).intValue(),
+                    (String) row.get("content_type"), (byte[]) row.get("response_body")));
+            }
+            Timestamp lockedUntil = (Timestamp) row.get("locked_until");
+            if (lockedUntil.getTime() <= now && jdbcTemplate.update("UPDATE idempotency_keys SET owner = ?, " +
+                    "locked_until = ? WHERE idem_key = ? AND status = 'IN_PROGRESS' AND locked_until = ?",
+                    owner, new Timestamp(now + leaseMs), key, lockedUntil) == 1) {
+                return claimed(key, owner);
+            }
+            if (now >= deadline) {
+                return Outcome.inProgress();
+            }
+            try {
+                Thread.sleep(Math.min(pollIntervalMs, deadline - now));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Outcome.inProgress();
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String owner, StoredResponse response) {
+        activeClaims.remove(key, owner);
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = 'COMPLETED', response_status = ?, content_type = ?, " +
+                "response_body = ?, locked_until = NULL, expires_at = ? WHERE idem_key = ? AND status = 'IN_PROGRESS' " +
+                "AND owner = ?",
+            response.getStatus(), response.getContentType(), response.getBody(), new Timestamp(now + ttl()), key, owner);
+    }
+
+    @Override
+    public void abandon(String key, String owner) {
+        activeClaims.remove(key, owner);
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idem_key = ? AND status = 'IN_PROGRESS' AND owner = ?",
+            key, owner);
+    }
+
+    /**
+     * Extend the leases of claims whose requests are still running here; a claim another instance took over
+     * meanwhile (this one stalled past its lease) is dropped and counted
+     */
+    @Scheduled(fixedDelayString = "${procurement.idempotency.renew-interval-ms:20000}")
+    public void renewLeases() {
+        Timestamp lockedUntil = new Timestamp(System.currentTimeMillis() + leaseMs);
+        activeClaims.forEach((key, owner) -> {
+            int renewed = jdbcTemplate.update("UPDATE idempotency_keys SET locked_until = ? WHERE idem_key = ? " +
+                "AND status = 'IN_PROGRESS' AND owner = ?", lockedUntil, key, owner);
+            if (renewed == 0 && activeClaims.remove(key, owner)) {
+                leasesLost.incrementAndGet();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${procurement.idempotency.sweep-interval-ms:60000}")
+    public void sweep() {
+        evicted.addAndGet(jdbcTemplate.update("DELETE FROM idempotency_keys WHERE status = 'COMPLETED' AND expires_at <= ?",
+            new Timestamp(System.currentTimeMillis())));
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", "DATABASE");
+        stats.put("keys", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Long.class));
+        stats.put("evicted", evicted.get());
+        stats.put("activeClaims", activeClaims.size());
+        stats.put("leasesLost", leasesLost.get());
+        return stats;
+    }
+
+    private Outcome claimed(String key, String owner) {
+        activeClaims.put(key, owner);
+        return Outcome.execute(owner);
+    }
+
+    private long ttl() {
+        return TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+}
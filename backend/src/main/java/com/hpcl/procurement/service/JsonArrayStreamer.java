@@ -0,0 +1,109 @@
+package com.hpcl.procurement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a JPA result stream as one JSON array, element by element, with the application's ObjectMapper, so large
+ * list responses never hold the full list or the full JSON. The query runs in a read-only transaction on the
+ * response thread; each entity is detached once written, so the persistence context stays empty. Sparse-fieldset
+ * projections (Tuple rows) are written the same way, one object per row. The first element is flushed straight
+ * away, after that the generator and servlet buffers decide when bytes go out.
+ *
+ * Once the first bytes are sent the status is committed: a failure mid-stream leaves a truncated array, which the
+ * client sees as invalid JSON.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> query) {
+        return stream(query, Function.identity());
+    }
+
+    /**
+     * Stream the query's entities, each serialized as {@code view.apply(entity)}
+     */
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> query, Function<? super T, ?> view) {
+        return write(query, (json, row) -> {
+            json.writeObject(view.apply(row));
+            entityManager.detach(row);
+        });
+    }
+
+    /**
+     * Stream projected rows, each as an object keyed by the tuple's aliases in select order
+     */
+    public StreamingResponseBody streamTuples(Supplier<Stream<Tuple>> query) {
+        return write(query, (json, row) -> {
+            json.writeStartObject();
+            List<TupleElement<?>> elements = row.getElements();
+            for (int i = 0; i < elements.size(); i++) {
+                json.writeFieldName(elements.get(i).getAlias());
+                json.writeObject(row.get(i));
+            }
+            json.writeEndObject();
+        });
+    }
+
+    private <T> StreamingResponseBody write(Supplier<Stream<T>> query, RowWriter<T> writer) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return out -> {
+            try {
+                readOnly.executeWithoutResult(status -> {
+                    try (Stream<T> rows = query.get();
+                         JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                             .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                        json.writeStartArray();
+                        Iterator<T> iterator = rows.iterator();
+                        boolean first = true;
+                        while (iterator.hasNext()) {
+                            writer.write(json, iterator.next());
+                            if (first) {
+                                json.flush();
+                                first = false;
+                            }
+                        }
+                        json.writeEndArray();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; rethrowing closes the cursor and lets the container log it once
+                throw e.getCause();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(JsonGenerator json, T row) throws IOException;
+    }
+}
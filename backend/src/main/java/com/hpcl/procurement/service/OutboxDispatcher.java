@@ -0,0 +1,340 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.integration.OutboxHandler;
+import com.hpcl.procurement.model.OutboxEvent;
+import com.hpcl.procurement.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox_events to their OutboxHandler.
+ * Each poll claims due PENDING rows per destination (mark IN_FLIGHT under a claim token, then re-read by token, so
+ * concurrent dispatchers never share a row) and hands them to "lanes" on a bounded pool. A destination runs at most
+ * procurement.outbox.destinations.&lt;name&gt;.max-concurrency lanes at once; a lane works through its chunk in id
+ * order and keeps claiming further chunks while the backlog lasts. Per-aggregate order holds across lanes and
+ * dispatchers: a claim skips events whose aggregate has an earlier event still in flight or backing off, and the
+ * events of one aggregate in a claim go to the same lane, where once one of them fails the rest are deferred
+ * behind it. Dead-lettered events do not hold back later ones.
+ * Successes are marked DISPATCHED with one bulk update per chunk; failures are retried with exponential backoff
+ * and jitter and moved to DEAD after max-attempts. Claims older than claim-timeout (dispatcher crashed) are released.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final int MAX_ERROR_CHARS = 1000;
+    private static final long THROUGHPUT_WINDOW_MS = 10_000;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private List<OutboxHandler> handlers;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${procurement.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${procurement.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${procurement.outbox.threads:8}")
+    private int threads;
+
+    @Value("${procurement.outbox.max-concurrency:4}")
+    private int defaultMaxConcurrency;
+
+    @Value("${procurement.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${procurement.outbox.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    @Value("${procurement.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${procurement.outbox.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    private final Map<String, OutboxHandler> handlersByDestination = new HashMap<>();
+    private final Map<String, Semaphore> lanes = new HashMap<>();
+    private final Map<String, Integer> maxConcurrency = new HashMap<>();
+    private ExecutorService pool;
+    private TransactionTemplate transaction;
+    private volatile long lastRecoveryMs;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong handleNanos = new AtomicLong();
+    private final AtomicLong deliveryLagMs = new AtomicLong();
+    private final AtomicLong maxDeliveryLagMs = new AtomicLong();
+    private long windowStartMs = System.currentTimeMillis();
+    private long windowCount;
+    private volatile double throughputPerSecond;
+
+    @PostConstruct
+    public void start() {
+        for (OutboxHandler handler : handlers) {
+            String destination = handler.destination();
+            int limit = environment.getProperty("procurement.outbox.destinations." + destination + ".max-concurrency",
+                Integer.class, defaultMaxConcurrency);
+            handlersByDestination.put(destination, handler);
+            lanes.put(destination, new Semaphore(limit));
+            maxConcurrency.put(destination, limit);
+        }
+        AtomicInteger threadIds = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "outbox-dispatch-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        pool.shutdown();
+        // Unfinished lanes leave rows IN_FLIGHT; they are released after claim-timeout on the next start
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${procurement.outbox.poll-interval-ms:200}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (now - lastRecoveryMs >= Math.min(60_000, claimTimeoutSeconds * 1000)) {
+                lastRecoveryMs = now;
+                int released = transaction.execute(status ->
+                    outboxRepository.releaseExpiredClaims(LocalDateTime.now()));
+                if (released > 0) {
+                    recovered.addAndGet(released);
+                    log.warn("Released {} outbox events whose dispatch claim expired", released);
+                }
+            }
+            for (String destination : handlersByDestination.keySet()) {
+                startLanes(destination);
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox poll failed", e);
+        }
+    }
+
+    /**
+     * Claim one chunk per free lane of the destination and start those lanes
+     */
+    private void startLanes(String destination) {
+        Semaphore permits = lanes.get(destination);
+        int free = permits.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        List<OutboxEvent> claimed = claim(destination, free * batchSize);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        boolean backlog = claimed.size() == free * batchSize;
+        List<List<OutboxEvent>> chunks = new ArrayList<>();
+        int laneCount = Math.min(free, claimed.size());
+        for (int i = 0; i < laneCount; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        for (OutboxEvent event : claimed) {
+            chunks.get(Math.floorMod(String.valueOf(event.getAggregateId()).hashCode(), laneCount)).add(event);
+        }
+        for (List<OutboxEvent> chunk : chunks) {
+            if (chunk.isEmpty() || !permits.tryAcquire()) {
+                // Only this poller acquires permits, so this is just an empty hash bucket; the rows are still claimed
+                if (!chunk.isEmpty()) {
+                    release(chunk);
+                }
+                continue;
+            }
+            pool.execute(() -> runLane(destination, chunk, backlog, permits));
+        }
+    }
+
+    private void runLane(String destination, List<OutboxEvent> first, boolean backlog, Semaphore permits) {
+        try {
+            List<OutboxEvent> chunk = first;
+            while (true) {
+                deliver(handlersByDestination.get(destination), chunk);
+                if (!backlog || !enabled) {
+                    return;
+                }
+                chunk = claim(destination, batchSize);
+                backlog = chunk.size() == batchSize;
+                if (chunk.isEmpty()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox lane for {} failed; its claimed events are released after the claim timeout", destination, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private List<OutboxEvent> claim(String destination, int limit) {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = transaction.execute(status -> {
+            List<Long> ids = outboxRepository.findDueIds(destination, now, PageRequest.of(0, limit));
+            if (ids.isEmpty() || outboxRepository.claim(ids, token, now.plusSeconds(claimTimeoutSeconds)) == 0) {
+                return List.<OutboxEvent>of();
+            }
+            return outboxRepository.findByClaimToken(token);
+        });
+        List<OutboxEvent> sorted = new ArrayList<>(events);
+        sorted.sort(Comparator.comparing(OutboxEvent::getId));
+        return sorted;
+    }
+
+    private void deliver(OutboxHandler handler, List<OutboxEvent> chunk) {
+        List<Long> succeeded = new ArrayList<>(chunk.size());
+        Map<String, LocalDateTime> blocked = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        long lagSum = 0;
+        for (OutboxEvent event : chunk) {
+            LocalDateTime blockedUntil = blocked.get(event.getAggregateId());
+            if (blockedUntil != null) {
+                // Keep per-aggregate order: wait for the earlier failed event instead of overtaking it
+                transaction.executeWithoutResult(status -> outboxRepository.markFailed(event.getId(), "PENDING",
+                    event.getAttempts(), blockedUntil, "Deferred behind an earlier failed event of " + event.getAggregateId()));
+                deferred.incrementAndGet();
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                handler.handle(event);
+                succeeded.add(event.getId());
+                lagSum += Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis();
+            } catch (Exception e) {
+                blocked.put(event.getAggregateId(), fail(event, e));
+            } finally {
+                handleNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+        if (succeeded.isEmpty()) {
+            return;
+        }
+        transaction.executeWithoutResult(status -> outboxRepository.markDispatched(succeeded, now));
+        dispatched.addAndGet(succeeded.size());
+        deliveryLagMs.addAndGet(lagSum);
+        maxDeliveryLagMs.accumulateAndGet(lagSum / succeeded.size(), Math::max);
+        recordThroughput(succeeded.size());
+    }
+
+    /**
+     * Schedule the next attempt (or dead-letter the event) and return when the aggregate may proceed
+     */
+    private LocalDateTime fail(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        boolean dead = attempts >= maxAttempts || error instanceof IllegalArgumentException;
+        long delayMs = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 30));
+        // Full jitter on the upper half spreads retries of events that failed together
+        delayMs = delayMs / 2 + ThreadLocalRandom.current().nextLong(delayMs / 2 + 1);
+        LocalDateTime next = LocalDateTime.now().plus(Duration.ofMillis(delayMs));
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (message.length() > MAX_ERROR_CHARS) {
+            message = message.substring(0, MAX_ERROR_CHARS);
+        }
+        String lastError = message;
+        transaction.executeWithoutResult(status ->
+            outboxRepository.markFailed(event.getId(), dead ? "DEAD" : "PENDING", attempts, next, lastError));
+        failedAttempts.incrementAndGet();
+        if (dead) {
+            deadLettered.incrementAndGet();
+            log.warn("Outbox event {} ({} {} for {}) dead-lettered after {} attempts: {}", event.getId(),
+                event.getDestination(), event.getEventType(), event.getAggregateId(), attempts, lastError);
+            return LocalDateTime.now();
+        }
+        return next;
+    }
+
+    private void release(List<OutboxEvent> events) {
+        transaction.executeWithoutResult(status -> {
+            for (OutboxEvent event : events) {
+                outboxRepository.markFailed(event.getId(), "PENDING", event.getAttempts(), event.getNextAttemptAt(),
+                    event.getLastError());
+            }
+        });
+    }
+
+    private synchronized void recordThroughput(int count) {
+        long now = System.currentTimeMillis();
+        windowCount += count;
+        if (now - windowStartMs >= THROUGHPUT_WINDOW_MS) {
+            throughputPerSecond = windowCount * 1000.0 / (now - windowStartMs);
+            windowStartMs = now;
+            windowCount = 0;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = dispatched.get();
+        LocalDateTime oldest = outboxRepository.findOldestUndispatchedCreatedAt();
+        recordThroughput(0);
+        stats.put("enabled", enabled);
+        stats.put("dispatched", count);
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("deadLettered", deadLettered.get());
+        stats.put("deferred", deferred.get());
+        stats.put("recoveredClaims", recovered.get());
+        stats.put("throughputPerSecond", throughputPerSecond);
+        stats.put("lagSeconds", oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+        stats.put("avgDeliveryLagMs", count == 0 ? 0.0 : (double) deliveryLagMs.get() / count);
+        stats.put("maxChunkDeliveryLagMs", maxDeliveryLagMs.get());
+        long attempts = count + failedAttempts.get();
+        stats.put("avgHandleMillis", attempts == 0 ? 0.0 : handleNanos.get() / 1_000_000.0 / attempts);
+        Map<String, Object> destinations = new LinkedHashMap<>();
+        for (Map.Entry<String, Semaphore> entry : lanes.entrySet()) {
+            int limit = maxConcurrency.get(entry.getKey());
+            destinations.put(entry.getKey(), Map.of(
+                "handler", handlersByDestination.get(entry.getKey()).getClass().getSimpleName(),
+                "maxConcurrency", limit,
+                "activeLanes", limit - entry.getValue().availablePermits()));
+        }
+        stats.put("destinations", destinations);
+        return stats;
+    }
+}
@@ -0,0 +1,131 @@
+package com.hpcl.procurement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hpcl.procurement.model.OutboxEvent;
+import com.hpcl.procurement.model.PurchaseRequest;
+import com.hpcl.procurement.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records integration calls in outbox_events. Enqueueing joins the caller's transaction (and refuses to run
+ * without one), so an event exists exactly when the state change that produced it committed; OutboxDispatcher
+ * delivers it afterwards.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent enqueue(String destination, String eventType, String aggregateId, Map<String, Object> payload) {
+        return enqueue(destination, eventType, aggregateId, null, payload);
+    }
+
+    /**
+     * Enqueue an event that may exist only once per dedup key; the unique index on dedup_key rejects a second one
+     * even when two transactions race past the caller's check
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent enqueue(String destination, String eventType, String aggregateId, String dedupKey,
+                               Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setDestination(destination);
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId);
+        event.setDedupKey(dedupKey);
+        try {
+            event.setPayload(payload == null ? null : objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload for " + aggregateId + " is not serializable", e);
+        }
+        return outboxRepository.save(event);
+    }
+
+    /**
+     * Push the PR's current state to SAP
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePrSync(PurchaseRequest pr) {
+        enqueue("SAP", "PR_SYNC", pr.getPrId(), prPayload(pr));
+    }
+
+    /**
+     * A fully approved PR is synced to SAP and a purchase order is raised for it, once per PR
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePrApproved(PurchaseRequest pr) {
+        String dedupKey = "PO_CREATE|" + pr.getPrId();
+        if (outboxRepository.existsByDedupKey(dedupKey)) {
+            return;
+        }
+        enqueuePrSync(pr);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("prId", pr.getPrId());
+        payload.put("category", pr.getCategory());
+        payload.put("estimatedValueInr", pr.getEstimatedValueInr());
+        enqueue("SAP", "PO_CREATE", pr.getPrId(), dedupKey, payload);
+    }
+
+    public List<OutboxEvent> getDeadLetters(int limit) {
+        return outboxRepository.findByStatusOrderByIdDesc("DEAD", PageRequest.of(0, limit));
+    }
+
+    /**
+     * Put a dead-lettered event back in the queue with a fresh retry budget
+     */
+    @Transactional
+    public boolean retryDead(Long id) {
+        return outboxRepository.requeueDead(id, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Row counts by status plus dispatcher throughput, lag and per-destination concurrency
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("events", countByStatus());
+        stats.putAll(dispatcher.getStats());
+        return stats;
+    }
+
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String status : new String[]{"PENDING", "IN_FLIGHT", "DISPATCHED", "DEAD"}) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : outboxRepository.countByStatus()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static Map<String, Object> prPayload(PurchaseRequest pr) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("prId", pr.getPrId());
+        payload.put("description", pr.getDescription());
+        payload.put("category", pr.getCategory());
+        payload.put("department", pr.getDepartment());
+        payload.put("estimatedValueInr", pr.getEstimatedValueInr());
+        payload.put("currency", pr.getCurrency());
+        payload.put("requiredByDate", pr.getRequiredByDate() == null ? null : pr.getRequiredByDate().toString());
+        payload.put("status", pr.getStatus());
+        return payload;
+    }
+}
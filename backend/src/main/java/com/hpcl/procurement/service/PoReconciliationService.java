@@ -0,0 +1,287 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.integration.PoStatusLookup;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mirrors SAP purchase order status onto pr_records.po_status.
+ * A run walks PRs with a non-terminal PO in keyset pages of page-size rows and splits each page's PO numbers into
+ * batched status requests of batch-size, at most max-concurrent-batches of them in flight. Lookups are coalesced:
+ * a PO already being fetched (by an overlapping run or an ad-hoc lookup) joins that request instead of sending
+ * another. Only rows whose status actually changed are written, as one JDBC batch per page; rows in a failed
+ * batch keep their status and are retried next run.
+ */
+@Service
+public class PoReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PoReconciliationService.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE pr_records SET po_status = ?, po_status_checked_at = ?, version = version + 1 WHERE id = ?";
+
+    @Autowired
+    private PoStatusLookup statusLookup;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${procurement.po-reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${procurement.po-reconciliation.page-size:10000}")
+    private int pageSize;
+
+    @Value("${procurement.po-reconciliation.batch-size:100}")
+    private int batchSize;
+
+    @Value("${procurement.po-reconciliation.max-concurrent-batches:4}")
+    private int maxConcurrentBatches;
+
+    @Value("${procurement.po-reconciliation.terminal-statuses:CLOSED,CANCELLED}")
+    private List<String> terminalStatuses;
+
+    private String openPoPageSql;
+    private ExecutorService batchPool;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong coalescedLookups = new AtomicLong();
+    private final AtomicLong rowsUpdated = new AtomicLong();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    @PostConstruct
+    public void start() {
+        openPoPageSql = "SELECT id, po_id, po_status FROM pr_records WHERE po_id IS NOT NULL AND id > ?"
+            + " AND (po_status IS NULL OR po_status NOT IN (" + String.join(",", Collections.nCopies(terminalStatuses.size(), "?")) + "))"
+            + " ORDER BY id LIMIT ?";
+        AtomicInteger threadIds = new AtomicInteger();
+        batchPool = new ThreadPoolExecutor(maxConcurrentBatches, maxConcurrentBatches, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "po-status-batch-" + threadIds.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void stop() {
+        batchPool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${procurement.po-reconciliation.interval-ms:900000}",
+        initialDelayString = "${procurement.po-reconciliation.interval-ms:900000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            log.debug("Skipping scheduled PO reconciliation: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("PO reconciliation run failed", e);
+        }
+    }
+
+    /**
+     * Reconcile every open PO once
+     *
+     * @throws IllegalStateException when a run is already in progress
+     */
+    public Map<String, Object> run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("PO reconciliation is already running");
+        }
+        try {
+            return reconcile();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Current SAP status of the given POs; lookups already in flight are shared. POs SAP did not answer for
+     * (unknown PO or failed batch) map to null.
+     */
+    public Map<String, String> lookup(Collection<String> poNumbers) {
+        Map<String, CompletableFuture<String>> futures = submit(poNumbers);
+        Map<String, String> statuses = new LinkedHashMap<>();
+        futures.forEach((poNumber, future) -> statuses.put(poNumber, future.handle((status, e) -> status).join()));
+        return statuses;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("batchesSent", batchesSent.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("coalescedLookups", coalescedLookups.get());
+        stats.put("rowsUpdated", rowsUpdated.get());
+        stats.put("inFlightLookups", inFlight.size());
+        stats.put("batchSize", batchSize);
+        stats.put("maxConcurrentBatches", maxConcurrentBatches);
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    private Map<String, Object> reconcile() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        long scanned = 0;
+        long changed = 0;
+        long unanswered = 0;
+        long failedBefore = failedBatches.get();
+        while (true) {
+            List<Object> args = new ArrayList<>(terminalStatuses.size() + 2);
+            args.add(afterId);
+            args.addAll(terminalStatuses);
+            args.add(pageSize);
+            List<Object[]> open = jdbcTemplate.query(openPoPageSql,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)}, args.toArray());
+            if (open.isEmpty()) {
+                break;
+            }
+            afterId = (Long) open.get(open.size() - 1)[0];
+            Collection<String> poNumbers = new LinkedHashSet<>();
+            for (Object[] row : open) {
+                poNumbers.add((String) row[1]);
+            }
+            scanned += open.size();
+            Map<String, String> statuses = lookup(poNumbers);
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> updates = new ArrayList<>();
+            for (Object[] row : open) {
+                String status = statuses.get((String) row[1]);
+                if (status == null) {
+                    unanswered++;
+                } else if (!Objects.equals(status, row[2])) {
+                    updates.add(new Object[]{status, now, row[0]});
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                resourceVersions.changed(ResourceVersions.PR);
+                changed += updates.size();
+            }
+            if (open.size() < pageSize) {
+                break;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        runs.incrementAndGet();
+        rowsUpdated.addAndGet(changed);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("finishedAt", LocalDateTime.now().toString());
+        result.put("openPos", scanned);
+        result.put("changed", changed);
+        result.put("unanswered", unanswered);
+        result.put("failedBatches", failedBatches.get() - failedBefore);
+        result.put("elapsedMillis", elapsedMs);
+        result.put("millisPer10kPos", scanned == 0 ? 0.0 : elapsedMs * 10_000.0 / scanned);
+        lastRun = result;
+        if (changed > 0) {
+            auditService.logAction("PO_RECONCILIATION", String.valueOf(runs.get()), "RECONCILE", "system",
+                null, result.toString(), null);
+        }
+        log.info("PO reconciliation: {} open POs, {} changed, {} unanswered in {} ms", scanned, changed, unanswered, elapsedMs);
+        return result;
+    }
+
+    /**
+     * Register a future per PO, joining in-flight ones, and send the new ones out in batches
+     */
+    private Map<String, CompletableFuture<String>> submit(Collection<String> poNumbers) {
+        Map<String, CompletableFuture<String>> futures = new LinkedHashMap<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String poNumber : poNumbers) {
+            if (futures.containsKey(poNumber)) {
+                continue;
+            }
+            CompletableFuture<String> created = new CompletableFuture<>();
+            CompletableFuture<String> existing = inFlight.putIfAbsent(poNumber, created);
+            if (existing != null) {
+                coalescedLookups.incrementAndGet();
+                futures.put(poNumber, existing);
+                continue;
+            }
+            futures.put(poNumber, created);
+            batch.add(poNumber);
+            if (batch.size() == batchSize) {
+                send(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+        return futures;
+    }
+
+    private void send(List<String> batch) {
+        batchesSent.incrementAndGet();
+        batchPool.execute(() -> {
+            Map<String, String> statuses = null;
+            RuntimeException failure = null;
+            try {
+                statuses = statusLookup.getStatuses(batch);
+            } catch (RuntimeException e) {
+                failure = e;
+                failedBatches.incrementAndGet();
+                log.warn("PO status batch of {} failed: {}", batch.size(), e.getMessage());
+            }
+            for (String poNumber : batch) {
+                // Remove before completing so a lookup arriving afterwards fetches fresh data
+                CompletableFuture<String> future = inFlight.remove(poNumber);
+                if (future == null) {
+                    continue;
+                }
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(statuses.get(poNumber));
+                }
+            }
+        });
+    }
+}
@@ -10,21 +10,34 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 @Service
 public class PurchaseRequestService {
 
     private final PurchaseRequestRepository repository;
+    private final ApprovalService approvalService;
+    private final OutboxService outboxService;
     private final AtomicInteger dailyCounter = new AtomicInteger(0);
 
-    public PurchaseRequestService(PurchaseRequestRepository repository) {
+    public PurchaseRequestService(PurchaseRequestRepository repository, ApprovalService approvalService,
+                                  OutboxService outboxService) {
         this.repository = repository;
+        this.approvalService = approvalService;
+        this.outboxService = outboxService;
     }
 
     public List<PurchaseRequest> listAll() {
         return repository.findAll();
     }
 
+    /**
+     * Every PR in id order as a database cursor; the caller consumes and closes it inside a transaction
+     */
+    public Stream<PurchaseRequest> streamAll() {
+        return repository.streamAll();
+    }
+
     public Optional<PurchaseRequest> findByBusinessId(String prId) {
         return repository.findByPrId(prId);
     }
@@ -41,23 +54,40 @@ public class PurchaseRequestService {
         pr.setRequiredByDate(requiredByDate);
         pr.setPrId(generateBusinessId());
         pr.setStatus("DRAFT");
-        return repository.save(pr);
+        PurchaseRequest saved = repository.save(pr);
+        outboxService.enqueuePrSync(saved);
+        return saved;
     }
 
+    /**
+     * Submit a DRAFT PR for approval: builds its approval chain and moves it to PENDING_APPROVAL
+     */
     @Transactional
-    public Optional<PurchaseRequest> approve(String prId, String comments) {
+    public Optional<PurchaseRequest> submit(String prId) {
         return repository.findByPrId(prId).map(pr -> {
-            pr.setStatus("APPROVED");
-            return repository.save(pr);
+            // A PENDING_APPROVAL PR whose chain is missing (created outside the workflow) can be resubmitted;
+            // createApprovalWorkflow still refuses one with an open chain
+            if (!"DRAFT".equals(pr.getStatus()) && !"PENDING_APPROVAL".equals(pr.getStatus())) {
+                throw new IllegalStateException("PR " + prId + " is " + pr.getStatus() + ", only DRAFT PRs can be submitted");
+            }
+            approvalService.createApprovalWorkflow(pr.getPrId(), pr.getCategory(), pr.getEstimatedValueInr());
+            return pr;
         });
     }
 
-    @Transactional
+    /**
+     * Approve the PR's active approval stage through the approval state machine; not transactional here, since
+     * ApprovalService runs each attempt in its own transaction and retries lost version checks
+     */
+    public Optional<PurchaseRequest> approve(String prId, String comments) {
+        return approvalService.decideActiveStage(prId, "APPROVED", comments);
+    }
+
+    /**
+     * Reject the PR's active approval stage, which cancels the rest of its chain and rejects the PR
+     */
     public Optional<PurchaseRequest> reject(String prId, String reason) {
-        return repository.findByPrId(prId).map(pr -> {
-            pr.setStatus("REJECTED");
-            return repository.save(pr);
-        });
+        return approvalService.decideActiveStage(prId, "REJECTED", reason);
     }
 
     private String generateBusinessId() {
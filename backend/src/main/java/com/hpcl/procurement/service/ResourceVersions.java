@@ -0,0 +1,131 @@
+package com.hpcl.procurement.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregate version counters for the polled collections (PRs, approvals, exceptions, rules), used as ETags so an
+ * unchanged list answers If-None-Match with 304 without querying. The ETags are weak: the same version is served
+ * gzipped or not, and Tomcat will not compress a response that carries a strong ETag.
+ * Counters move after commit: entity inserts, updates and deletes are counted through Hibernate post-commit events,
+ * and the bulk JPQL/JDBC write paths, which bypass those events, call {@link #changed}.
+ *
+ * The counters live in this process, and the ETag carries a per-process epoch so a restart never revalidates an
+ * old body. That is correct for a single instance; behind a load balancer, writes on another instance are not seen.
+ */
+@Component
+public class ResourceVersions implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    public static final String PR = "pr";
+    public static final String APPROVAL = "approval";
+    public static final String EXCEPTION = "exception";
+    public static final String RULE = "rule";
+
+    private static final Map<String, String> ENTITY_RESOURCES = Map.of(
+        "PurchaseRequest", PR,
+        "Approval", APPROVAL,
+        "ExceptionRecord", EXCEPTION,
+        "Rule", RULE);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, AtomicLong> versions = Map.of(
+        PR, new AtomicLong(), APPROVAL, new AtomicLong(), EXCEPTION, new AtomicLong(), RULE, new AtomicLong());
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * ETag for the resource's current state, e.g. {@code W/"pr-3f2a9c1d-42"}
+     */
+    public String etag(String resource) {
+        return "W/\"" + resource + "-" + epoch + "-" + versions.get(resource).get() + "\"";
+    }
+
+    /**
+     * Record a bulk change to the resource; within a transaction it counts once the transaction commits
+     */
+    public void changed(String resource) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.get(resource).incrementAndGet();
+                }
+            });
+        } else {
+            versions.get(resource).incrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return ENTITY_RESOURCES.containsKey(simpleName(persister));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void bump(EntityPersister persister) {
+        String resource = ENTITY_RESOURCES.get(simpleName(persister));
+        if (resource != null) {
+            versions.get(resource).incrementAndGet();
+        }
+    }
+
+    private static String simpleName(EntityPersister persister) {
+        String name = persister.getEntityName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
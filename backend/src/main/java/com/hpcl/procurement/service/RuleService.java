@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class RuleService {
@@ -18,12 +19,15 @@ public class RuleService {
     @Autowired
     private RuleRepository ruleRepository;
 
-    public List<Rule> getAllRules() {
-        return ruleRepository.findAll();
+    /**
+     * Every rule in id order as a database cursor; consume and close it inside a transaction, as streamActiveRules
+     */
+    public Stream<Rule> streamAllRules() {
+        return ruleRepository.streamAll();
     }
 
-    public List<Rule> getActiveRules() {
-        return ruleRepository.findByActive(true);
+    public Stream<Rule> streamActiveRules() {
+        return ruleRepository.streamByActive(true);
     }
 
     public List<Rule> getRulesByCategory(String category) {
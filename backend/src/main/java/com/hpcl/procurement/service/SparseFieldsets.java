@@ -0,0 +1,100 @@
+package com.hpcl.procurement.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * {@code ?fields=} support for the streamed list endpoints: only the named attributes go into the SQL select list
+ * (a Criteria tuple query), so TEXT columns such as comments, description and resolution are not read unless asked
+ * for. Rows come back in id order, like the full-entity lists, and each is written as an object with just those
+ * fields, under the same names and formats as the entity's JSON.
+ *
+ * Field names are checked against the entity's basic attributes before the response starts, so a typo is a 400
+ * rather than a truncated body.
+ */
+@Component
+public class SparseFieldsets {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JsonArrayStreamer streamer;
+
+    /**
+     * Stream {@code fields} of every {@code entity} row whose attributes equal {@code where}
+     */
+    public StreamingResponseBody select(Class<?> entity, String fields, Map<String, ?> where) {
+        return select(entity, basicAttributes(entity), fields, where);
+    }
+
+    /**
+     * As {@link #select(Class, String, Map)}, with fields limited to {@code allowed}, for lists served through a DTO
+     */
+    public StreamingResponseBody select(Class<?> entity, Set<String> allowed, String fields, Map<String, ?> where) {
+        List<String> selected = parse(entity, allowed, fields);
+        return streamer.streamTuples(() -> query(entity, selected, where).getResultStream());
+    }
+
+    private TypedQuery<Tuple> query(Class<?> entity, List<String> selected, Map<String, ?> where) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<?> root = criteria.from(entity);
+        List<Selection<?>> columns = new ArrayList<>(selected.size());
+        selected.forEach(field -> columns.add(root.get(field).alias(field)));
+        criteria.multiselect(columns);
+        List<Predicate> predicates = new ArrayList<>();
+        where.forEach((attribute, value) -> predicates.add(cb.equal(root.get(attribute), value)));
+        criteria.where(predicates.toArray(new Predicate[0]));
+        criteria.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(criteria).setHint(HibernateHints.HINT_FETCH_SIZE, 1000);
+    }
+
+    private List<String> parse(Class<?> entity, Set<String> allowed, String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "' for " + entity.getSimpleName()
+                    + "; available: " + String.join(",", new TreeSet<>(allowed)));
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private Set<String> basicAttributes(Class<?> entity) {
+        EntityType<?> type = entityManager.getMetamodel().entity(entity);
+        return type.getSingularAttributes().stream()
+            .filter(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC)
+            .map(Attribute::getName)
+            .collect(Collectors.toSet());
+    }
+}
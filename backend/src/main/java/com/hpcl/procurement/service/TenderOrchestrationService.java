@@ -0,0 +1,325 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.dto.TenderRequest;
+import com.hpcl.procurement.dto.TenderResponse;
+import com.hpcl.procurement.model.PurchaseRequest;
+import com.hpcl.procurement.repository.PurchaseRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes an approved PR as a GeM tender. The portal calls run concurrently, so the request takes about as long
+ * as the compliance check plus the bid publication rather than the sum of every call:
+ * - mandatory: CPPP checkCompliance, then GeM publishBid once compliance passed (publishing is the one
+ *   non-idempotent write, so a non-compliant PR never gets a live bid)
+ * - optional: CPPP getGuidelinesForCategory and GeM checkSupplierRegistration per shortlisted vendor
+ * The calls form one scope: the first mandatory failure (or the deadline) cancels every call still running,
+ * interrupting it down to the adapter, and the response is FAILED. Optional failures only leave gaps and make
+ * the response PARTIAL. A gateway fallback answer counts as a failure of that call.
+ *
+ * The PR moves APPROVED -> TENDERING with a conditional update before any call, so concurrent or repeated
+ * requests cannot publish twice. A published bid makes it TENDERED with its GeM bid id. A FAILED fan-out returns
+ * it to APPROVED only if publishBid was never attempted; a publishBid that failed, timed out or was cancelled may
+ * still have created a bid on GeM, so the PR is parked in TENDER_UNKNOWN until an operator checks the portal and
+ * resolves it with {@link #resolveTender}.
+ */
+@Service
+public class TenderOrchestrationService {
+
+    @Autowired
+    private IntegrationService integrationService;
+
+    @Autowired
+    private PurchaseRequestRepository purchaseRequestRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${procurement.tender.threads:32}")
+    private int threads;
+
+    @Value("${procurement.tender.deadline-ms:10000}")
+    private long deadlineMs;
+
+    @Value("${procurement.tender.max-vendors:50}")
+    private int maxVendors;
+
+    private ExecutorService pool;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIds = new AtomicInteger();
+        // Bounded queue: a burst beyond it fails the affected calls instead of piling up waiting threads
+        pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 8), r -> {
+            Thread thread = new Thread(r, "tender-call-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public Optional<TenderResponse> publishTender(String prId, TenderRequest request) {
+        Optional<PurchaseRequest> found = purchaseRequestRepository.findByPrId(prId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        PurchaseRequest pr = found.get();
+        if ("TENDERED".equals(pr.getStatus())) {
+            throw new IllegalStateException("PR " + prId + " is already tendered as GeM bid " + pr.getGemBidId());
+        }
+        if ("TENDER_UNKNOWN".equals(pr.getStatus())) {
+            throw new IllegalStateException("PR " + prId + " has a GeM bid of unknown outcome; resolve it before retrying");
+        }
+        if (!"APPROVED".equals(pr.getStatus())) {
+            throw new IllegalStateException("PR " + prId + " is " + pr.getStatus() + "; only APPROVED PRs can be tendered");
+        }
+        List<String> vendors = new ArrayList<>(new LinkedHashSet<>(request.getVendors()));
+        if (vendors.size() > maxVendors) {
+            throw new IllegalArgumentException("At most " + maxVendors + " vendors can be shortlisted, got " + vendors.size());
+        }
+        if (purchaseRequestRepository.transitionStatus(prId, "APPROVED", "TENDERING") == 0) {
+            throw new IllegalStateException("PR " + prId + " is already being tendered");
+        }
+        resourceVersions.changed(ResourceVersions.PR);
+        AtomicBoolean bidAttempted = new AtomicBoolean();
+        TenderResponse response;
+        try {
+            response = fanOut(prId, pr, vendors, request, bidAttempted);
+        } catch (RuntimeException e) {
+            purchaseRequestRepository.transitionStatus(prId, "TENDERING", bidAttempted.get() ? "TENDER_UNKNOWN" : "APPROVED");
+            resourceVersions.changed(ResourceVersions.PR);
+            throw e;
+        }
+
+        // A bid the portal accepted is live whatever else failed, so it is always recorded
+        Object bidId = response.getBid() == null ? null : response.getBid().get("bidId");
+        if (bidId != null) {
+            purchaseRequestRepository.markTendered(prId, "TENDERING", bidId.toString());
+            auditService.logAction("PR", prId, "TENDER_PUBLISHED", "system", "APPROVED",
+                "bidId=" + bidId + ", vendors=" + vendors.size() + ", status=" + response.getStatus(), null);
+        } else if (bidAttempted.get()) {
+            purchaseRequestRepository.transitionStatus(prId, "TENDERING", "TENDER_UNKNOWN");
+            auditService.logAction("PR", prId, "TENDER_UNKNOWN", "system", "APPROVED",
+                "errors=" + response.getErrors() + ", cancelled=" + response.getCancelled(), null);
+        } else {
+            purchaseRequestRepository.transitionStatus(prId, "TENDERING", "APPROVED");
+            auditService.logAction("PR", prId, "TENDER_FAILED", "system", null,
+                "errors=" + response.getErrors() + ", cancelled=" + response.getCancelled(), null);
+        }
+        resourceVersions.changed(ResourceVersions.PR);
+        return Optional.of(response);
+    }
+
+    /**
+     * Settle a TENDER_UNKNOWN PR after checking GeM: with the bid id found on the portal the PR becomes TENDERED,
+     * without one (no bid was created) it returns to APPROVED and can be tendered again. Empty if the PR does not exist.
+     */
+    public Optional<PurchaseRequest> resolveTender(String prId, String bidId, String resolvedBy) {
+        Optional<PurchaseRequest> found = purchaseRequestRepository.findByPrId(prId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        boolean published = bidId != null && !bidId.isBlank();
+        int updated = published
+            ? purchaseRequestRepository.markTendered(prId, "TENDER_UNKNOWN", bidId)
+            : purchaseRequestRepository.transitionStatus(prId, "TENDER_UNKNOWN", "APPROVED");
+        if (updated == 0) {
+            throw new IllegalStateException("PR " + prId + " is " + found.get().getStatus() + ", not TENDER_UNKNOWN");
+        }
+        auditService.logAction("PR", prId, "TENDER_RESOLVED", resolvedBy, "TENDER_UNKNOWN",
+            published ? "TENDERED, bidId=" + bidId : "APPROVED, no bid on GeM", null);
+        resourceVersions.changed(ResourceVersions.PR);
+        return purchaseRequestRepository.findByPrId(prId);
+    }
+
+    private TenderResponse fanOut(String prId, PurchaseRequest pr, List<String> vendors, TenderRequest request,
+                                  AtomicBoolean bidAttempted) {
+
+        Map<String, Object> bidDetails = new LinkedHashMap<>();
+        bidDetails.put("description", pr.getDescription());
+        bidDetails.put("category", pr.getCategory());
+        bidDetails.put("estimatedValueInr", pr.getEstimatedValueInr());
+        bidDetails.put("requiredByDate", pr.getRequiredByDate() == null ? null : pr.getRequiredByDate().toString());
+        bidDetails.put("shortlistedVendors", vendors);
+        String contractId = request.getContractId() != null ? request.getContractId() : prId;
+
+        long start = System.nanoTime();
+        TenderResponse response = new TenderResponse();
+        response.setPrId(prId);
+        try (Scope scope = new Scope()) {
+            Fork compliance = scope.fork("checkCompliance", true,
+                () -> answered(integrationService.checkCompliance(contractId)));
+            // Forked after compliance, so its task is always queued behind the one it waits for
+            Fork bid = scope.fork("publishBid", true, () -> {
+                compliance.await();
+                bidAttempted.set(true);
+                return answered(integrationService.publishBid(prId, bidDetails));
+            });
+            Fork guidelines = scope.fork("getGuidelinesForCategory", false,
+                () -> answered(integrationService.getGuidelinesForCategory(pr.getCategory())));
+            Map<String, Fork> suppliers = new LinkedHashMap<>();
+            for (String vendor : vendors) {
+                suppliers.put(vendor, scope.fork("checkSupplierRegistration:" + vendor, false,
+                    () -> answered(integrationService.checkSupplierRegistration(vendor))));
+            }
+            scope.join(deadlineMs);
+
+            response.setBid(bid.value());
+            response.setCompliance(compliance.value());
+            response.setGuidelines(guidelines.value());
+            suppliers.forEach((vendor, fork) -> {
+                if (fork.value() != null) {
+                    response.getSuppliers().put(vendor, fork.value());
+                }
+            });
+            boolean mandatoryFailed = false;
+            for (Fork fork : scope.forks) {
+                if (fork.result.isDone() && !fork.result.isCompletedExceptionally()) {
+                    response.getCallMillis().put(fork.name, fork.millis);
+                } else if (fork.result.isCompletedExceptionally()) {
+                    response.getErrors().put(fork.name, fork.error());
+                    mandatoryFailed |= fork.mandatory;
+                } else {
+                    response.getCancelled().add(fork.name);
+                    mandatoryFailed |= fork.mandatory;
+                }
+            }
+            response.setStatus(mandatoryFailed ? "FAILED"
+                : response.getErrors().isEmpty() && response.getCancelled().isEmpty() ? "COMPLETED" : "PARTIAL");
+        }
+        response.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    private static Map<String, Object> answered(Map<String, Object> response) {
+        if (Boolean.TRUE.equals(response.get("fallback"))) {
+            throw new IllegalStateException(String.valueOf(response.get("message")));
+        }
+        return response;
+    }
+
+    /**
+     * Calls forked together; closing the scope cancels whatever is still running
+     */
+    private final class Scope implements AutoCloseable {
+        final List<Fork> forks = new ArrayList<>();
+        final CompletableFuture<Void> mandatoryFailure = new CompletableFuture<>();
+
+        Fork fork(String name, boolean mandatory, Callable<Map<String, Object>> call) {
+            Fork fork = new Fork(name, mandatory);
+            forks.add(fork);
+            try {
+                fork.task = pool.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        Map<String, Object> value = call.call();
+                        fork.millis = (System.nanoTime() - start) / 1_000_000;
+                        fork.result.complete(value);
+                    } catch (Exception e) {
+                        fork.millis = (System.nanoTime() - start) / 1_000_000;
+                        fork.result.completeExceptionally(e);
+                        if (mandatory) {
+                            mandatoryFailure.completeExceptionally(e);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                fork.result.completeExceptionally(new IllegalStateException("Tender call pool is saturated", e));
+                if (mandatory) {
+                    mandatoryFailure.completeExceptionally(e);
+                }
+            }
+            return fork;
+        }
+
+        /**
+         * Wait until every call finished, a mandatory call failed, or the deadline passed
+         */
+        void join(long timeoutMs) {
+            CompletableFuture<?> all = CompletableFuture.allOf(forks.stream().map(f -> f.result).toArray(CompletableFuture[]::new));
+            try {
+                CompletableFuture.anyOf(all, mandatoryFailure).get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                // Reported per call by the caller
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Fork fork : forks) {
+                if (fork.task != null && !fork.result.isDone()) {
+                    fork.task.cancel(true);
+                }
+            }
+        }
+    }
+
+    private static final class Fork {
+        final String name;
+        final boolean mandatory;
+        final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        Future<?> task;
+        volatile long millis;
+
+        Fork(String name, boolean mandatory) {
+            this.name = name;
+            this.mandatory = mandatory;
+        }
+
+        /**
+         * Block until this call answered; throws if it failed, so a dependent call is never attempted
+         */
+        void await() throws InterruptedException {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Not attempted: " + name + " failed");
+            }
+        }
+
+        Map<String, Object> value() {
+            return result.isDone() && !result.isCompletedExceptionally() ? result.join() : null;
+        }
+
+        String error() {
+            try {
+                result.join();
+                return null;
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                return cause.getMessage();
+            }
+        }
+    }
+}
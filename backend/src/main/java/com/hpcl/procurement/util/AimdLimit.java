@@ -0,0 +1,85 @@
+package com.hpcl.procurement.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive concurrency limit with additive increase / multiplicative decrease, lock-free. Requests take a slot while
+ * in-flight is below their share of the limit. A response slower than the latency threshold (or a dropped one)
+ * multiplies the limit by the backoff ratio, at most once per threshold period so one burst of slow responses counts
+ * once; other responses add 1/limit, i.e. about one slot per limit's worth of fast responses, but only while the limit
+ * is actually being used.
+ */
+public final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long thresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.thresholdNanos = thresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    /**
+     * Take a slot if fewer than {@code share} of the limit are in flight
+     */
+    public boolean tryAcquire(double share) {
+        int cap = Math.max(1, (int) (getLimit() * share));
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a slot and feed the response's latency into the limit; {@code sample} false releases without feedback
+     */
+    public void release(long latencyNanos, boolean dropped, boolean sample) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (!sample) {
+            return;
+        }
+        if (dropped || latencyNanos > thresholdNanos) {
+            long now = System.nanoTime();
+            long last = lastDecreaseNanos.get();
+            if (now - last >= thresholdNanos && lastDecreaseNanos.compareAndSet(last, now)) {
+                update(limit -> Math.max(minLimit, limit * backoffRatio));
+            }
+        } else if (inFlightBefore * 2 >= getLimit()) {
+            update(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(DoubleUnaryOperator change) {
+        for (;;) {
+            long bits = limitBits.get();
+            double next = change.applyAsDouble(Double.longBitsToDouble(bits));
+            if (limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
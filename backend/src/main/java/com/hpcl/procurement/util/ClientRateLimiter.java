@@ -0,0 +1,53 @@
+package com.hpcl.procurement.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets, lock-free. Each bucket is the GCRA form of a token bucket: one AtomicLong holding the
+ * theoretical arrival time (TAT) of the next request, advanced by one emission interval per admitted request with a
+ * CAS. A request is admitted while TAT is at most {@code burst} intervals ahead of now, which is the same as a bucket
+ * of {@code burst} tokens refilled at {@code ratePerSecond}.
+ */
+public final class ClientRateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public ClientRateLimiter(double ratePerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+    }
+
+    /**
+     * Take one token for the client; 0 when admitted, otherwise the nanos until a token is available
+     */
+    public long tryAcquire(String client, long nowNanos) {
+        AtomicLong tat = buckets.computeIfAbsent(client, key -> new AtomicLong(nowNanos));
+        for (;;) {
+            long current = tat.get();
+            long start = Math.max(current, nowNanos);
+            long wait = start - toleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that are full again; a client that comes back starts with a full bucket, which is the same state
+     */
+    public int evictIdle(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(tat -> tat.get() <= nowNanos);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,163 @@
+package com.hpcl.procurement.util;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (hashed wheels with cascading, as in the Linux kernel and Kafka purgatory).
+ * Scheduling and cancelling are O(1); advancing costs one slot per elapsed tick plus an occasional cascade,
+ * independent of how many timers are open.
+ *
+ * Not thread-safe: all calls must come from a single driver thread. Cancellation is lazy, so
+ * {@link Timer#cancel()} may be called from any thread and the entry is dropped when its slot is visited.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final ArrayDeque<Timer<T>>[][] levels;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMs    resolution of the lowest wheel
+     * @param wheelBits log2 of slots per wheel (6 = 64 slots)
+     * @param levelCount number of wheels; range is tickMs * 2^(wheelBits * levelCount)
+     * @param startMs   current wall-clock time
+     */
+    public HierarchicalTimingWheel(long tickMs, int wheelBits, int levelCount, long startMs) {
+        this.tickMs = tickMs;
+        this.bits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        this.levels = newLevels(levelCount, 1 << wheelBits);
+        for (ArrayDeque<Timer<T>>[] level : levels) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    public Timer<T> schedule(long deadlineMs, T payload) {
+        Timer<T> timer = new Timer<>(deadlineMs, ceilDiv(deadlineMs, tickMs), payload);
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Advance the clock to nowMs, handing every expired, non-cancelled payload to onExpire
+     */
+    public void advanceTo(long nowMs, Consumer<T> onExpire) {
+        long target = nowMs / tickMs;
+        if (size == 0) {
+            currentTick = Math.max(currentTick, target);
+            return;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = 1; level < levels.length; level++) {
+                if ((currentTick & ((1L << (level * bits)) - 1)) != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (level * bits)) & mask));
+            }
+            ArrayDeque<Timer<T>> slot = swapOut(0, (int) (currentTick & mask));
+            for (Timer<T> timer : slot) {
+                if (timer.cancelled) {
+                    size--;
+                } else if (timer.expiryTick <= currentTick) {
+                    size--;
+                    onExpire.accept(timer.payload);
+                } else {
+                    insert(timer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Timers still held by the wheel, including cancelled ones not yet visited
+     */
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level, int index) {
+        for (Timer<T> timer : swapOut(level, index)) {
+            if (timer.cancelled) {
+                size--;
+            } else if (timer.expiryTick <= currentTick) {
+                // Due this very tick: the lowest slot is fired right after cascading
+                levels[0][(int) (currentTick & mask)].add(timer);
+            } else {
+                insert(timer);
+            }
+        }
+    }
+
+    private ArrayDeque<Timer<T>> swapOut(int level, int index) {
+        ArrayDeque<Timer<T>> slot = levels[level][index];
+        if (slot.isEmpty()) {
+            return slot;
+        }
+        levels[level][index] = new ArrayDeque<>();
+        return slot;
+    }
+
+    private void insert(Timer<T> timer) {
+        // Already-due timers fire on the next tick
+        long expiry = Math.max(timer.expiryTick, currentTick + 1);
+        long delta = expiry - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delta >= (1L << ((level + 1) * bits))) {
+            level++;
+        }
+        // Beyond the top wheel's range the timer parks in the top wheel and is re-filed on each cascade
+        int index = (int) ((expiry >>> (level * bits)) & mask);
+        levels[level][index].add(timer);
+    }
+
+    /**
+     * Java cannot create an array of a generic type; a wildcard array is safe here because every slot is only ever
+     * filled with an ArrayDeque<Timer<T>> by this class
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayDeque<Timer<T>>[][] newLevels(int levelCount, int slots) {
+        return (ArrayDeque<Timer<T>>[][]) new ArrayDeque<?>[levelCount][slots];
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    public static final class Timer<T> {
+        private final long deadlineMs;
+        private final long expiryTick;
+        private final T payload;
+        private volatile boolean cancelled;
+
+        private Timer(long deadlineMs, long expiryTick, T payload) {
+            this.deadlineMs = deadlineMs;
+            this.expiryTick = expiryTick;
+            this.payload = payload;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+}
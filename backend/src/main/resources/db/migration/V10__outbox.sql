@@ -0,0 +1,21 @@
+-- V10__outbox.sql
+-- Transactional outbox: integration calls are recorded with the business change and dispatched asynchronously
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    destination VARCHAR(50) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(50),
+    payload TEXT,
+    status VARCHAR(20) DEFAULT 'PENDING' NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    claim_token VARCHAR(36),
+    claimed_until TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    dispatched_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_due ON outbox_events(destination, status, next_attempt_at, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_claim ON outbox_events(claim_token);
@@ -0,0 +1,5 @@
+-- V11__po_reconciliation.sql
+-- SAP purchase order status mirrored on the PR, refreshed by the PO reconciliation job
+
+ALTER TABLE pr_records ADD COLUMN IF NOT EXISTS po_status VARCHAR(50);
+ALTER TABLE pr_records ADD COLUMN IF NOT EXISTS po_status_checked_at TIMESTAMP;
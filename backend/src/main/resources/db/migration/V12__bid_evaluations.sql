@@ -0,0 +1,22 @@
+-- V12__bid_evaluations.sql
+-- Results of streaming bid evaluation (L1 ranking, per-item price statistics, outliers), kept per PR
+
+CREATE TABLE IF NOT EXISTS bid_evaluations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    pr_id VARCHAR(50) NOT NULL,
+    bid_id VARCHAR(100),
+    source VARCHAR(20) NOT NULL,
+    quote_count BIGINT NOT NULL,
+    rejected_count BIGINT NOT NULL,
+    vendor_count INT NOT NULL,
+    item_count INT NOT NULL,
+    l1_vendor VARCHAR(100),
+    l1_total_inr DECIMAL(18,2),
+    ranking_json TEXT,
+    items_json TEXT,
+    outliers_json TEXT,
+    elapsed_ms BIGINT NOT NULL,
+    evaluated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bid_evaluations_pr ON bid_evaluations(pr_id, evaluated_at);
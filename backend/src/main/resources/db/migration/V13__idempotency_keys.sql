@@ -0,0 +1,16 @@
+-- V13__idempotency_keys.sql
+-- Responses to POSTs sent with an Idempotency-Key, shared by all instances (procurement.idempotency.store=DATABASE)
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idem_key VARCHAR(64) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_status INT,
+    content_type VARCHAR(100),
+    response_body BLOB,
+    locked_until TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_expires ON idempotency_keys(status, expires_at);
@@ -0,0 +1,7 @@
+-- V14__outbox_dedup.sql
+-- One-shot outbox events (PO_CREATE per PR) carry a dedup key, so a repeated approval cannot queue a second PO
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS dedup_key VARCHAR(100);
+
+-- NULL for repeatable events such as PR_SYNC; unique indexes allow any number of NULLs
+CREATE UNIQUE INDEX IF NOT EXISTS ux_outbox_dedup_key ON outbox_events(dedup_key);
@@ -0,0 +1,4 @@
+-- V15__idempotency_owner.sql
+-- Fence idempotency claims: complete, abandon and lease renewal only touch the row while the caller still owns it
+
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS owner VARCHAR(36);
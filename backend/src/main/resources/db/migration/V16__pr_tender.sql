@@ -0,0 +1,4 @@
+-- V16__pr_tender.sql
+-- GeM bid published for a PR; set with status TENDERED so the PR is never published twice
+
+ALTER TABLE pr_records ADD COLUMN IF NOT EXISTS gem_bid_id VARCHAR(100);
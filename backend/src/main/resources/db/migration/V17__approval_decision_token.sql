@@ -0,0 +1,4 @@
+-- V17__approval_decision_token.sql
+-- Token of the bulk call that decided an approval, so a call can tell its own updates from concurrent ones
+
+ALTER TABLE approvals ADD COLUMN IF NOT EXISTS decision_token VARCHAR(36);
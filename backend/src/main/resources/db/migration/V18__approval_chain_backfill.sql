@@ -0,0 +1,17 @@
+-- V18__approval_chain_backfill.sql
+-- Bring PRs submitted before the approval state machine (V6) into its model: only the lowest open level is
+-- PENDING, later levels WAIT, and a PENDING_APPROVAL PR without an open chain goes back to DRAFT to be resubmitted
+
+UPDATE pr_records p
+SET current_approval_level = (SELECT MIN(a.approval_level) FROM approvals a WHERE a.pr_id = p.pr_id AND a.status = 'PENDING')
+WHERE p.status = 'PENDING_APPROVAL' AND p.current_approval_level IS NULL;
+
+UPDATE approvals a
+SET status = 'WAITING'
+WHERE a.status = 'PENDING'
+  AND a.approval_level > (SELECT p.current_approval_level FROM pr_records p WHERE p.pr_id = a.pr_id);
+
+UPDATE pr_records p
+SET status = 'DRAFT', current_approval_level = NULL
+WHERE p.status = 'PENDING_APPROVAL'
+  AND NOT EXISTS (SELECT 1 FROM approvals a WHERE a.pr_id = p.pr_id AND a.status IN ('PENDING', 'WAITING'));
@@ -0,0 +1,4 @@
+-- V19__outbox_aggregate_order.sql
+-- Lookup of an aggregate's earlier undelivered events, so a claim never overtakes one still in flight or backing off
+
+CREATE INDEX IF NOT EXISTS idx_outbox_aggregate ON outbox_events(destination, aggregate_id, id);
@@ -0,0 +1,25 @@
+-- V4__approval_matrix.sql
+-- Data-driven approval matrix (seeded from discovery/rules/approval-matrix.csv)
+
+CREATE TABLE IF NOT EXISTS approval_matrix (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    role VARCHAR(100) NOT NULL,
+    approval_level INT NOT NULL,
+    approver_group VARCHAR(100),
+    approver_id VARCHAR(100) NOT NULL,
+    min_value_inr DECIMAL(18,2) NOT NULL,
+    notes VARCHAR(255),
+    active BOOLEAN DEFAULT TRUE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- A PR needs every active entry whose threshold it reaches; entries sharing a level approve in parallel
+INSERT INTO approval_matrix (role, approval_level, approver_group, approver_id, min_value_inr, notes) VALUES
+('Requestor', 1, 'Requester Team', 'requester.team@hpcl.co.in', 0, 'Auto-approve within budget if funds available'),
+('Category Manager', 2, 'Category Team', 'category.manager@hpcl.co.in', 50001, 'Review & consolidate PRs'),
+('Procurement Head', 3, 'Procurement', 'procurement.head@hpcl.co.in', 200001, 'Approves strategic purchases'),
+('Finance Head', 3, 'Finance', 'finance.head@hpcl.co.in', 200001, 'Budget validation required'),
+('Managing Director', 4, 'MD', 'md@hpcl.co.in', 500001, 'MD approval for high-value exceptions'),
+('CVC Committee', 5, 'Compliance', 'cvc.committee@hpcl.co.in', 5000001, 'Committee approval for >5M exceptions');
+
+CREATE INDEX IF NOT EXISTS idx_approval_matrix_active ON approval_matrix(active, min_value_inr);
@@ -0,0 +1,7 @@
+-- V5__approval_sla.sql
+-- SLA deadline and escalation marker for pending approvals
+
+ALTER TABLE approvals ADD COLUMN IF NOT EXISTS sla_due_at TIMESTAMP;
+ALTER TABLE approvals ADD COLUMN IF NOT EXISTS escalated_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_approvals_sla ON approvals(status, sla_due_at);
@@ -0,0 +1,6 @@
+-- V6__approval_state_machine.sql
+-- Optimistic version columns and the active approval stage of a PR
+
+ALTER TABLE approvals ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE pr_records ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE pr_records ADD COLUMN IF NOT EXISTS current_approval_level INT;
@@ -0,0 +1,11 @@
+-- V7__exception_coalescing.sql
+-- Coalesce repeated exceptions per (pr_id, rule_id, exception_type) while they are unresolved
+
+ALTER TABLE exception_records ADD COLUMN IF NOT EXISTS occurrence_count INT DEFAULT 1 NOT NULL;
+ALTER TABLE exception_records ADD COLUMN IF NOT EXISTS last_seen_at TIMESTAMP;
+ALTER TABLE exception_records ADD COLUMN IF NOT EXISTS dedup_key VARCHAR(255);
+
+UPDATE exception_records SET last_seen_at = created_at WHERE last_seen_at IS NULL;
+
+-- dedup_key is cleared on resolution, so a resolved exception never blocks a new occurrence
+CREATE UNIQUE INDEX IF NOT EXISTS ux_exceptions_dedup_key ON exception_records(dedup_key);
@@ -0,0 +1,14 @@
+-- V8__exception_escalation_job.sql
+-- Keyset index for the auto-escalation scan and a checkpoint table for restartable batch jobs
+
+CREATE INDEX IF NOT EXISTS idx_exceptions_status_created ON exception_records(status, created_at, id);
+
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    run_started_at TIMESTAMP,
+    cursor_created_at TIMESTAMP,
+    cursor_id BIGINT,
+    processed_count BIGINT DEFAULT 0 NOT NULL,
+    affected_count BIGINT DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP
+);
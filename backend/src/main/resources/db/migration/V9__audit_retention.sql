@@ -0,0 +1,4 @@
+-- V9__audit_retention.sql
+-- Time-ordered index for retention scans and date-range queries on audit_logs
+
+CREATE INDEX IF NOT EXISTS idx_audit_performed_at ON audit_logs(performed_at, id);
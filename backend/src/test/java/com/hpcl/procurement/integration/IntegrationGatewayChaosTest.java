@@ -0,0 +1,175 @@
+package com.hpcl.procurement.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chaos test for IntegrationGateway: a fake adapter that hangs (and ignores interrupts, like a stuck socket read)
+ * must not hold callers past the timeout, must not starve other adapters, and must trip its breaker
+ */
+class IntegrationGatewayChaosTest {
+
+    private static final int MAX_CONCURRENT = 4;
+    private static final int TIMEOUT_MS = 100;
+    private static final int OPEN_MS = 300;
+
+    private final SlowAdapter slow = new SlowAdapter();
+    private IntegrationGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("procurement.integrations.defaults.max-concurrent", String.valueOf(MAX_CONCURRENT))
+            .withProperty("procurement.integrations.defaults.max-wait-ms", "10")
+            .withProperty("procurement.integrations.defaults.timeout-ms", String.valueOf(TIMEOUT_MS))
+            .withProperty("procurement.integrations.defaults.window-size", "10")
+            .withProperty("procurement.integrations.defaults.minimum-calls", "4")
+            .withProperty("procurement.integrations.defaults.failure-rate-threshold", "50")
+            .withProperty("procurement.integrations.defaults.open-ms", String.valueOf(OPEN_MS))
+            .withProperty("procurement.integrations.defaults.half-open-calls", "1");
+        gateway = new IntegrationGateway();
+        ReflectionTestUtils.setField(gateway, "environment", environment);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        slow.recover();
+        gateway.shutdown();
+    }
+
+    @Test
+    void hungAdapterIsCutOffAndDoesNotStarveOtherAdapters() throws Exception {
+        int callers = 40;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<IntegrationUnavailableException.Reason>> results = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    IntegrationUnavailableException e = assertThrows(IntegrationUnavailableException.class,
+                        () -> gateway.call("SLOW", "publish", slow::call));
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                    assertTrue(millis < TIMEOUT_MS * 5, "caller held for " + millis + " ms");
+                    return e.getReason();
+                }));
+            }
+            start.countDown();
+
+            // Another adapter keeps answering while SLOW has all of its threads stuck
+            assertEquals("ok", gateway.call("FAST", "ping", () -> "ok"));
+
+            Map<IntegrationUnavailableException.Reason, Integer> reasons = new EnumMap<>(IntegrationUnavailableException.Reason.class);
+            for (Future<IntegrationUnavailableException.Reason> result : results) {
+                reasons.merge(result.get(5, TimeUnit.SECONDS), 1, Integer::sum);
+            }
+            // Only as many calls as the bulkhead allows ever reached the hung adapter
+            assertEquals(MAX_CONCURRENT, slow.entered.get());
+            assertEquals(MAX_CONCURRENT, reasons.getOrDefault(IntegrationUnavailableException.Reason.TIMEOUT, 0));
+            assertEquals(callers - MAX_CONCURRENT,
+                reasons.getOrDefault(IntegrationUnavailableException.Reason.REJECTED, 0)
+                    + reasons.getOrDefault(IntegrationUnavailableException.Reason.CIRCUIT_OPEN, 0));
+            assertEquals("OPEN", stats("SLOW").get("circuitState"));
+            assertEquals(MAX_CONCURRENT, ((Number) stats("SLOW").get("activeCalls")).intValue(),
+                "timed-out calls keep their permits until the adapter returns");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void breakerShortCircuitsThenClosesAfterHalfOpenProbe() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IntegrationUnavailableException.class, () -> gateway.call("SLOW", "publish", slow::call));
+        }
+        assertEquals("OPEN", stats("SLOW").get("circuitState"));
+
+        int entered = slow.entered.get();
+        IntegrationUnavailableException open = assertThrows(IntegrationUnavailableException.class,
+            () -> gateway.call("SLOW", "publish", slow::call));
+        assertEquals(IntegrationUnavailableException.Reason.CIRCUIT_OPEN, open.getReason());
+        assertEquals(entered, slow.entered.get(), "an open breaker never reaches the adapter");
+        assertEquals("fallback", gateway.call("SLOW", "publish", slow::call, e -> "fallback"));
+
+        slow.recover();
+        Thread.sleep(OPEN_MS + 50);
+        assertEquals("ok", gateway.call("SLOW", "publish", slow::call));
+        assertEquals("CLOSED", stats("SLOW").get("circuitState"));
+    }
+
+    @Test
+    void callerErrorsAreRethrownAndDoNotTripTheBreaker() {
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IllegalArgumentException.class, () -> gateway.call("SAP", "createPurchaseOrder", () -> {
+                throw new IllegalArgumentException("bad PR id");
+            }));
+        }
+        assertEquals("CLOSED", stats("SAP").get("circuitState"));
+        assertEquals(10L, stats("SAP").get("callerErrors"));
+        assertEquals(0L, stats("SAP").get("failures"));
+
+        IntegrationUnavailableException failed = assertThrows(IntegrationUnavailableException.class,
+            () -> gateway.call("SAP", "createPurchaseOrder", () -> {
+                throw new IllegalStateException("SAP returned 503");
+            }));
+        assertEquals(IntegrationUnavailableException.Reason.FAILED, failed.getReason());
+        assertNotEquals(0L, stats("SAP").get("failures"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> stats(String adapter) {
+        return (Map<String, Object>) gateway.getStats().get(adapter);
+    }
+
+    /**
+     * Hangs until recovered, swallowing interrupts; answers "ok" once recovered
+     */
+    private static final class SlowAdapter {
+        final AtomicInteger entered = new AtomicInteger();
+        final CountDownLatch recovered = new CountDownLatch(1);
+
+        String call() {
+            if (recovered.getCount() == 0) {
+                return "ok";
+            }
+            entered.incrementAndGet();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    recovered.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        }
+
+        void recover() {
+            recovered.countDown();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.hpcl.procurement.service;
+
+import com.hpcl.procurement.model.Approval;
+import com.hpcl.procurement.model.OutboxEvent;
+import com.hpcl.procurement.model.PurchaseRequest;
+import com.hpcl.procurement.repository.ApprovalRepository;
+import com.hpcl.procurement.repository.OutboxEventRepository;
+import com.hpcl.procurement.repository.PurchaseRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 10,000 concurrent decisions against the approval state machine: every approval of 1,250 chains is decided by
+ * two threads at once, so each pair races on the approval and every stage transition races on the PR version
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=WARN"})
+class ApprovalStateMachineConcurrencyTest {
+
+    private static final int PR_COUNT = 1250;
+    private static final int DECISIONS_PER_APPROVAL = 2;
+    // Levels 1 and 2 plus a parallel level 3 (Procurement Head and Finance Head): four approvals, three stages
+    private static final BigDecimal PR_VALUE = new BigDecimal("300000");
+    private static final int APPROVALS_PER_PR = 4;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PurchaseRequestService purchaseRequestService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private PurchaseRequestRepository purchaseRequestRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Test
+    void concurrentDecisionsAdvanceEveryChainExactlyOnce() throws InterruptedException {
+        List<String> prIds = new ArrayList<>();
+        for (int i = 0; i < PR_COUNT; i++) {
+            PurchaseRequest pr = purchaseRequestService.create("Concurrency test " + i, "IT", PR_VALUE, "IT",
+                "State machine concurrency test", LocalDate.now().plusDays(30));
+            purchaseRequestService.submit(pr.getPrId());
+            prIds.add(pr.getPrId());
+        }
+        List<Long> decisions = new ArrayList<>();
+        for (String prId : prIds) {
+            List<Approval> chain = approvalRepository.findByPrId(prId);
+            assertEquals(APPROVALS_PER_PR, chain.size());
+            for (Approval approval : chain) {
+                for (int i = 0; i < DECISIONS_PER_APPROVAL; i++) {
+                    decisions.add(approval.getId());
+                }
+            }
+        }
+        Collections.shuffle(decisions, new Random(29));
+        assertEquals(10_000, decisions.size());
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(decisions.size());
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            decisions.forEach(id -> decide(pool, id, applied, refused, errors, done));
+            assertTrue(done.await(5, TimeUnit.MINUTES), "decisions did not finish");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(errors.isEmpty(), () -> "unexpected failures: " + errors);
+        int approvals = PR_COUNT * APPROVALS_PER_PR;
+        assertEquals(approvals, applied.get(), "each approval is applied exactly once");
+        assertEquals(decisions.size() - approvals, refused.get(), "every duplicate decision is refused");
+        for (String prId : prIds) {
+            PurchaseRequest pr = purchaseRequestRepository.findByPrId(prId).orElseThrow();
+            assertEquals("APPROVED", pr.getStatus(), prId);
+            assertNull(pr.getCurrentApprovalLevel(), prId);
+            assertTrue(approvalRepository.findByPrId(prId).stream().allMatch(a -> "APPROVED".equals(a.getStatus())), prId);
+        }
+        // The final stage closes once per PR, so each PR raises exactly one purchase order
+        Map<String, Long> purchaseOrders = outboxRepository.findAll().stream()
+            .filter(event -> "PO_CREATE".equals(event.getEventType()))
+            .collect(Collectors.groupingBy(OutboxEvent::getAggregateId, Collectors.counting()));
+        assertEquals(PR_COUNT, purchaseOrders.size());
+        assertTrue(purchaseOrders.values().stream().allMatch(count -> count == 1));
+    }
+
+    /**
+     * Approve once the approval's stage is active; a decision on a later, still WAITING level goes to the back of
+     * the queue instead of blocking a worker that an earlier stage needs
+     */
+    private void decide(ExecutorService pool, Long approvalId, AtomicInteger applied, AtomicInteger refused,
+                        ConcurrentLinkedQueue<Throwable> errors, CountDownLatch done) {
+        pool.execute(() -> {
+            try {
+                approvalService.approve(approvalId, "approved under load", null);
+                applied.incrementAndGet();
+            } catch (IllegalStateException e) {
+                String status = approvalRepository.findById(approvalId).map(Approval::getStatus).orElse(null);
+                if ("WAITING".equals(status)) {
+                    decide(pool, approvalId, applied, refused, errors, done);
+                    return;
+                }
+                refused.incrementAndGet();
+            } catch (Throwable t) {
+                errors.add(t);
+            }
+            done.countDown();
+        });
+    }
+}
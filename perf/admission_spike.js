@@ -0,0 +1,103 @@
+// Admission control under the perf plan's load shape: 0 -> 300 VUs in 10s, then 500 concurrent users.
+// Mix per iteration: PR reads and creates, approval inbox reads and the dashboard summary (lowest priority).
+// Shed responses (429/503 with Retry-After) are expected under overload and are counted separately; the latency
+// threshold applies to admitted requests only.
+//   java -jar target/procurement-0.0.1-SNAPSHOT.jar --spring.profiles.active=dev,simulator
+//   BASE_URL=http://localhost:8080 k6 run perf/admission_spike.js
+// Compare against a run with --procurement.admission.enabled=false.
+// All VUs share one remote address; the address bucket (address-rate-per-second) caps them together, and each VU's
+// X-Client-Id only selects a client bucket within it. To exercise the concurrency limit rather than the address
+// limit from one host, raise --procurement.admission.address-rate-per-second.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const shed = new Counter('shed');
+const admitted = new Trend('admitted_duration', true);
+
+export const options = {
+  scenarios: {
+    spike: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '10s', target: 300 },
+        { duration: '20s', target: 300 },
+        { duration: '10s', target: 500 },
+        { duration: __ENV.DURATION || '60s', target: 500 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    admitted_duration: ['p(95)<800'],
+    'admitted_duration{kind:write}': ['p(95)<800'],
+  },
+};
+
+export function setup() {
+  const prIds = [];
+  for (let i = 0; i < 50; i++) {
+    const created = http.post(`${BASE_URL}/api/pr`, JSON.stringify({
+      description: `admission-seed-${i}`,
+      category: 'IT',
+      department: 'IT',
+      estimatedValueInr: 100000,
+    }), { headers: { 'Content-Type': 'application/json', 'X-Client-Id': 'setup' } });
+    prIds.push(created.json('prId'));
+  }
+  return { prIds };
+}
+
+function record(response, kind) {
+  const wasShed = response.status === 429 || response.status === 503;
+  if (wasShed) {
+    shed.add(1, { kind, status: String(response.status) });
+    check(response, { 'shed with Retry-After': (r) => r.headers['Retry-After'] !== undefined });
+    sleep(Number(response.headers['Retry-After'] || 1) * Math.random());
+  } else {
+    admitted.add(response.timings.duration, { kind });
+  }
+  return !wasShed;
+}
+
+export default function (data) {
+  const headers = { 'X-Client-Id': `vu-${__VU}` };
+  const roll = Math.random();
+  if (roll < 0.5) {
+    const prId = data.prIds[Math.floor(Math.random() * data.prIds.length)];
+    const read = http.get(`${BASE_URL}/api/pr/${prId}`, { headers, tags: { kind: 'read' } });
+    if (record(read, 'read')) {
+      check(read, { 'read': (r) => r.status === 200 });
+    }
+  } else if (roll < 0.7) {
+    const created = http.post(`${BASE_URL}/api/pr`, JSON.stringify({
+      description: `admission-${__VU}-${__ITER}`,
+      category: 'IT',
+      department: 'IT',
+      estimatedValueInr: 100000,
+    }), {
+      // A retried create replays the first response instead of creating a second PR
+      headers: Object.assign({ 'Content-Type': 'application/json', 'Idempotency-Key': `pr-${__VU}-${__ITER}` }, headers),
+      tags: { kind: 'write' },
+    });
+    if (record(created, 'write')) {
+      check(created, { 'created': (r) => r.status === 201 });
+    }
+  } else if (roll < 0.85) {
+    const inbox = http.get(`${BASE_URL}/api/approvals/inbox/APPROVER-${__VU % 10}`, { headers, tags: { kind: 'read' } });
+    if (record(inbox, 'read')) {
+      check(inbox, { 'inbox': (r) => r.status === 200 });
+    }
+  } else {
+    const dashboard = http.get(`${BASE_URL}/api/dashboard/summary`, { headers, tags: { kind: 'dashboard' } });
+    if (record(dashboard, 'dashboard')) {
+      check(dashboard, { 'dashboard': (r) => r.status === 200 });
+    }
+  }
+}
+
+export function teardown() {
+  console.log(`admission=${JSON.stringify(http.get(`${BASE_URL}/api/admission/stats`).json())}`);
+}
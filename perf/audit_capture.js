@@ -0,0 +1,42 @@
+// Per-write overhead of entity audit capture.
+// Drives PR create + submit (one insert, several inserts/updates per submit) and reports the capture cost
+// measured on the committing thread from /api/audit/capture/stats.
+//   BASE_URL=http://localhost:8080 k6 run perf/audit_capture.js
+// Compare p95 latency against a run with --procurement.audit.capture.enabled=false.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+  scenarios: {
+    writes: { executor: 'constant-vus', vus: 8, duration: '60s' },
+  },
+  thresholds: { http_req_failed: ['rate<0.01'] },
+};
+
+export default function () {
+  const params = { headers: { 'Content-Type': 'application/json', 'X-Client-Id': `vu-${__VU}` } };
+  const created = http.post(`${BASE_URL}/api/pr`, JSON.stringify({
+    title: `audit-bench-${__VU}-${__ITER}`,
+    description: 'audit capture benchmark',
+    category: 'IT',
+    estimatedValueInr: 100000,
+    vendorName: 'Bench Vendor',
+    department: 'IT',
+    requestedBy: 'bench',
+    items: [],
+  }), params);
+  check(created, { 'created': (r) => r.status === 201 });
+  if (created.status === 201) {
+    const submitted = http.post(`${BASE_URL}/api/pr/${created.json('prId')}/submit`, null, params);
+    check(submitted, { 'submitted': (r) => r.status === 200 });
+  }
+}
+
+export function teardown() {
+  const capture = http.get(`${BASE_URL}/api/audit/capture/stats`).json();
+  const writer = http.get(`${BASE_URL}/api/audit/writer/stats`).json();
+  console.log(`captured=${capture.captured} avgCaptureMicros=${capture.avgCaptureMicros} maxCaptureMicros=${capture.maxCaptureMicros}`);
+  console.log(`writer depth=${writer.depth} written=${writer.written} dropped=${writer.dropped} blockedMs=${writer.producerBlockedMs}`);
+}
@@ -0,0 +1,66 @@
+// Platform vs virtual request threads at 500 concurrent users.
+// Mix per iteration: PR reads (JPA), PR creates (JPA write + outbox row) and a CPPP compliance check that blocks
+// on the adapter (through its bulkhead). Run once per mode against the same build and compare the summary lines:
+//   java -jar target/procurement-0.0.1-SNAPSHOT.jar --spring.profiles.active=dev,simulator
+//   mvn -Pjava21 package && java -jar target/procurement-0.0.1-SNAPSHOT.jar --spring.profiles.active=dev,simulator,virtual-threads
+//   BASE_URL=http://localhost:8080 k6 run perf/virtual_threads.js
+// The mode under test is read back from /api/health. Admission control rate-limits per remote address, so start the
+// server with --procurement.admission.address-rate-per-second=100000 (and --procurement.admission.client-slots=512)
+// when k6 runs from a single host; each VU's X-Client-Id then selects its own client bucket within that address.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+  scenarios: {
+    users: { executor: 'constant-vus', vus: 500, duration: __ENV.DURATION || '60s' },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    'http_req_duration{kind:read}': ['p(95)<500'],
+  },
+};
+
+export function setup() {
+  const threads = http.get(`${BASE_URL}/api/health`).json('threads');
+  const prIds = [];
+  for (let i = 0; i < 50; i++) {
+    const created = http.post(`${BASE_URL}/api/pr`, JSON.stringify({
+      description: `vt-bench-seed-${i}`,
+      category: 'IT',
+      department: 'IT',
+      estimatedValueInr: 100000,
+    }), JSON_HEADERS);
+    prIds.push(created.json('prId'));
+  }
+  return { threads, prIds };
+}
+
+export default function (data) {
+  const client = { 'X-Client-Id': `vu-${__VU}` };
+  const roll = Math.random();
+  if (roll < 0.7) {
+    const prId = data.prIds[Math.floor(Math.random() * data.prIds.length)];
+    const read = http.get(`${BASE_URL}/api/pr/${prId}`, { headers: client, tags: { kind: 'read' } });
+    check(read, { 'read': (r) => r.status === 200 });
+  } else if (roll < 0.9) {
+    const created = http.post(`${BASE_URL}/api/pr`, JSON.stringify({
+      description: `vt-bench-${__VU}-${__ITER}`,
+      category: 'IT',
+      department: 'IT',
+      estimatedValueInr: 100000,
+    }), { headers: Object.assign({ 'Content-Type': 'application/json' }, client), tags: { kind: 'write' } });
+    check(created, { 'created': (r) => r.status === 201 });
+  } else {
+    // A fallback answer (bulkhead full, circuit open) is still a 200; only errors count as failures
+    const compliance = http.get(`${BASE_URL}/api/integrations/cppp/compliance/VT-${__VU}`, { headers: client, tags: { kind: 'adapter' } });
+    check(compliance, { 'compliance': (r) => r.status === 200 });
+  }
+}
+
+export function teardown(data) {
+  console.log(`threads=${data.threads}`);
+}